@@ -0,0 +1,31 @@
+package jumpingalien.benchmarks;
+
+/**
+ * A single benchmarked operation, run repeatedly by a
+ * {@link BenchmarkRunner}.
+ */
+public abstract class Benchmark {
+
+	private final String name;
+
+	protected Benchmark(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Called once before the warmup starts. Work done here is not measured.
+	 */
+	public void setUp() {
+	}
+
+	/**
+	 * Performs one operation. The result is consumed by the runner so the JIT
+	 * cannot remove the work that produced it.
+	 */
+	public abstract Object run();
+
+}
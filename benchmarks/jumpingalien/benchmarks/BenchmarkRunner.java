@@ -0,0 +1,120 @@
+package jumpingalien.benchmarks;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Runs benchmarks with a timed warmup followed by a number of timed
+ * measurement iterations, and reports the time and the heap allocation per
+ * operation.
+ *
+ * Allocation is measured with the per-thread allocation counter of the
+ * HotSpot ThreadMXBean, which is what the JMH gc profiler reports as
+ * gc.alloc.rate.norm.
+ */
+public class BenchmarkRunner {
+
+	private final double warmupSeconds;
+	private final double iterationSeconds;
+	private final int iterations;
+
+	/**
+	 * Keeps benchmark results reachable so their computation isn't eliminated.
+	 */
+	private volatile Object sink;
+
+	public BenchmarkRunner(double warmupSeconds, double iterationSeconds,
+			int iterations) {
+		this.warmupSeconds = warmupSeconds;
+		this.iterationSeconds = iterationSeconds;
+		this.iterations = iterations;
+	}
+
+	public void runAll(List<Benchmark> benchmarks) {
+		System.out.println(String.format("%-40s %12s %12s %14s %12s %8s",
+				"Benchmark", "ns/op", "error", "B/op", "MB/s alloc",
+				"gc"));
+		for (Benchmark benchmark : benchmarks) {
+			run(benchmark);
+		}
+	}
+
+	public void run(Benchmark benchmark) {
+		benchmark.setUp();
+
+		measure(benchmark, warmupSeconds);
+
+		double[] nanosPerOp = new double[iterations];
+		double bytesPerOp = 0;
+		double bytesPerSecond = 0;
+		long gcCount = getGcCount();
+		for (int i = 0; i < iterations; i++) {
+			double[] result = measure(benchmark, iterationSeconds);
+			nanosPerOp[i] = result[0];
+			bytesPerOp += result[1] / iterations;
+			bytesPerSecond += result[2] / iterations;
+		}
+		gcCount = getGcCount() - gcCount;
+
+		double mean = 0;
+		for (double value : nanosPerOp) {
+			mean += value / iterations;
+		}
+		double variance = 0;
+		for (double value : nanosPerOp) {
+			variance += (value - mean) * (value - mean)
+					/ Math.max(1, iterations - 1);
+		}
+
+		System.out.println(String.format("%-40s %12.1f %12.1f %14.1f %12.1f %8d",
+				benchmark.getName(), mean, Math.sqrt(variance), bytesPerOp,
+				bytesPerSecond / (1024 * 1024), gcCount));
+	}
+
+	/**
+	 * Runs the benchmark for the given time.
+	 *
+	 * @return nanoseconds per operation, allocated bytes per operation and
+	 *         allocated bytes per second
+	 */
+	private double[] measure(Benchmark benchmark, double seconds) {
+		long duration = (long) (seconds * 1e9);
+		long operations = 0;
+		long startBytes = getAllocatedBytes();
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			// check the clock in batches to keep its cost out of the result
+			for (int i = 0; i < 64; i++) {
+				sink = benchmark.run();
+			}
+			operations += 64;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < duration);
+		long bytes = getAllocatedBytes() - startBytes;
+
+		return new double[] { (double) elapsed / operations,
+				(double) bytes / operations, bytes / (elapsed / 1e9) };
+	}
+
+	private static long getAllocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory
+				.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean)
+					.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	private static long getGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory
+				.getGarbageCollectorMXBeans()) {
+			count += Math.max(0, bean.getCollectionCount());
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,384 @@
+package jumpingalien.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jumpingalien.model.Feature;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.Shark;
+import jumpingalien.model.World;
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.util.Sprite;
+
+/**
+ * Benchmarks for the hot paths of the model: advancing Mazub, querying
+ * features and tiles, collision detection and reading level files.
+ *
+ * Run from the project folder so levels/ can be found. Optional arguments:
+ * warmup seconds, seconds per iteration, number of iterations, and a
+ * substring which benchmark names must contain.
+ */
+public class ModelBenchmarks {
+
+	private static final String LEVELS_FOLDER = "levels/";
+	private static final String LEVEL_FILE = "level1.tmx";
+
+	private static final int TILE_SIZE = 70;
+
+	private static final double FRAME_TIME = 1.0 / 60;
+
+	public static void main(String[] args) {
+		double warmup = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+		double iteration = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+		int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		String filter = args.length > 3 ? args[3] : "";
+
+		List<Benchmark> benchmarks = new ArrayList<>();
+		for (Benchmark benchmark : createBenchmarks()) {
+			if (benchmark.getName().contains(filter)) {
+				benchmarks.add(benchmark);
+			}
+		}
+
+		new BenchmarkRunner(warmup, iteration, iterations).runAll(benchmarks);
+	}
+
+	public static List<Benchmark> createBenchmarks() {
+		List<Benchmark> result = new ArrayList<>();
+
+		result.add(new MazubBenchmark("Mazub.advanceTime run") {
+			@Override
+			protected void start(Mazub alien) {
+				alien.startMove("right");
+			}
+		});
+		result.add(new MazubBenchmark("Mazub.advanceTime jump") {
+			@Override
+			protected void start(Mazub alien) {
+				alien.startMove("right");
+			}
+
+			@Override
+			protected void beforeFrame(Mazub alien) {
+				if (alien.getVy() == 0 && alien.canjump()) {
+					alien.startJump();
+				}
+			}
+
+			@Override
+			protected boolean hasMoved(double distance, double height) {
+				return distance > 0 && height > TILE_SIZE;
+			}
+		});
+		result.add(new MazubBenchmark("Mazub.advanceTime duck") {
+			@Override
+			protected void start(Mazub alien) {
+				alien.startDuck();
+				alien.startMove("right");
+			}
+		});
+
+		result.add(new LevelBenchmark("World.getFeature " + LEVEL_FILE) {
+			private int[] xs;
+			private int[] ys;
+			private int index;
+
+			@Override
+			public void setUp() {
+				super.setUp();
+				Random random = new Random(0);
+				xs = new int[4096];
+				ys = new int[4096];
+				for (int i = 0; i < xs.length; i++) {
+					xs[i] = random.nextInt(getWorld().getWorldWidth());
+					ys[i] = random.nextInt(getWorld().getWorldHeight());
+				}
+			}
+
+			@Override
+			public Object run() {
+				index = (index + 1) & (xs.length - 1);
+				return getWorld().getFeature(xs[index], ys[index]);
+			}
+		});
+		result.add(new LevelBenchmark("World.getTilePositionsIn " + LEVEL_FILE) {
+			private int offset;
+
+			@Override
+			public Object run() {
+				World world = getWorld();
+				int width = Math.min(1024, world.getWorldWidth());
+				int height = Math.min(768, world.getWorldHeight());
+				offset = (offset + 7) % (world.getWorldWidth() - width + 1);
+				return world.getTilePositionsIn(offset, 0, offset + width - 1,
+						height - 1);
+			}
+		});
+
+		for (int enemies : new int[] { 10, 100, 1000, 10000 }) {
+			result.add(new CollisionBenchmark(enemies));
+		}
+
+		result.add(new Benchmark("TMXFileReader.read " + LEVEL_FILE) {
+			private final TMXFileReader reader = new TMXFileReader(
+					LEVELS_FOLDER);
+
+			@Override
+			public Object run() {
+				return reader.read(LEVEL_FILE);
+			}
+		});
+		result.add(new GeneratedMapBenchmark(500, 300, 3, 200));
+
+		return result;
+	}
+
+	/**
+	 * Reads a generated level file with the given number of tiles, layers and
+	 * tile images, to measure the cost of parsing large maps.
+	 */
+	private static class GeneratedMapBenchmark extends Benchmark {
+
+		private final int width, height, layers, tileImages;
+
+		private TMXFileReader reader;
+		private String fileName;
+
+		private GeneratedMapBenchmark(int width, int height, int layers,
+				int tileImages) {
+			super("TMXFileReader.read " + width + "x" + height + "x" + layers
+					+ " generated");
+			this.width = width;
+			this.height = height;
+			this.layers = layers;
+			this.tileImages = tileImages;
+		}
+
+		@Override
+		public void setUp() {
+			try {
+				Path folder = Files.createTempDirectory("levels");
+				Path file = folder.resolve("generated.tmx");
+				Random random = new Random(0);
+				try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(
+						file, StandardCharsets.UTF_8))) {
+					out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+					out.printf("<map version=\"1.0\" width=\"%d\" height=\"%d\" "
+							+ "tilewidth=\"%d\" tileheight=\"%d\">%n", width,
+							height, TILE_SIZE, TILE_SIZE);
+					out.println(" <tileset firstgid=\"1\" name=\"Tiles\">");
+					for (int id = 0; id < tileImages; id++) {
+						out.printf("  <tile id=\"%d\"><image width=\"%d\" "
+								+ "height=\"%d\" source=\"tiles/box.png\"/>"
+								+ "</tile>%n", id, TILE_SIZE, TILE_SIZE);
+					}
+					out.println(" </tileset>");
+					for (int layer = 0; layer < layers; layer++) {
+						out.printf(" <layer name=\"Layer%d\"><data>%n", layer);
+						for (int i = 0; i < width * height; i++) {
+							out.printf("  <tile gid=\"%d\"/>%n",
+									random.nextInt(tileImages + 1));
+						}
+						out.println(" </data></layer>");
+					}
+					out.println("</map>");
+				}
+				file.toFile().deleteOnExit();
+				folder.toFile().deleteOnExit();
+				reader = new TMXFileReader(folder.toString());
+				fileName = file.getFileName().toString();
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public Object run() {
+			return reader.read(fileName);
+		}
+	}
+
+	private static Sprite[] createAlienSprites() {
+		Sprite[] result = new Sprite[30];
+		for (int i = 0; i < result.length; i++) {
+			// ducking sprites are shorter
+			int height = (i == 1 || i == 6 || i == 7) ? 70 : 97;
+			result[i] = new Sprite(String.format("Sprite %d", i), 70, height);
+		}
+		return result;
+	}
+
+	/**
+	 * Advances the world by one frame per operation, with Mazub on a long,
+	 * flat strip of ground. Mazub turns around when it nears either end of the
+	 * strip, so every operation only advances the same world.
+	 */
+	private static abstract class MazubBenchmark extends Benchmark {
+
+		private static final int TILES_X = 2000;
+		private static final int TILES_Y = 10;
+
+		private static final int TURN_MARGIN = 20 * TILE_SIZE;
+
+		private World world;
+		private Mazub alien;
+
+		protected MazubBenchmark(String name) {
+			super(name);
+		}
+
+		/**
+		 * Checks that Mazub really moves in this scenario during one second
+		 * before it is timed, since timing a stuck Mazub measures nothing.
+		 */
+		@Override
+		public void setUp() {
+			createWorld();
+			double startX = alien.getX();
+			double top = alien.getY();
+			for (int frame = 0; frame < 1 / FRAME_TIME; frame++) {
+				beforeFrame(alien);
+				world.advanceTime(FRAME_TIME);
+				top = Math.max(top, alien.getY());
+			}
+			if (alien.getWorld() == null
+					|| !hasMoved(alien.getX() - startX, top - TILE_SIZE)) {
+				throw new IllegalStateException("Mazub doesn't move in "
+						+ getName());
+			}
+			createWorld();
+		}
+
+		private void createWorld() {
+			world = new World(TILE_SIZE, TILES_X, TILES_Y, 1024, 700,
+					TILES_X - 1, TILES_Y - 1);
+			for (int tileX = 0; tileX < TILES_X; tileX++) {
+				world.setTileFeature(tileX, 0, Feature.ground);
+			}
+			alien = new Mazub(TILE_SIZE, TILE_SIZE, createAlienSprites());
+			World.setMazub(world, alien);
+			world.startGame();
+			start(alien);
+		}
+
+		protected abstract void start(Mazub alien);
+
+		protected void beforeFrame(Mazub alien) {
+		}
+
+		/**
+		 * Returns whether Mazub moved far enough in this scenario, given the
+		 * distance it ran to the right and the height it reached above the
+		 * ground, both in pixels.
+		 */
+		protected boolean hasMoved(double distance, double height) {
+			return distance > 0;
+		}
+
+		@Override
+		public Object run() {
+			if (alien.getVx() > 0
+					&& alien.getX() > TILES_X * TILE_SIZE - TURN_MARGIN) {
+				alien.endMove();
+				alien.startMove("left");
+			} else if (alien.getVx() < 0 && alien.getX() < TURN_MARGIN) {
+				alien.endMove();
+				alien.startMove("right");
+			}
+			beforeFrame(alien);
+			world.advanceTime(FRAME_TIME);
+			return alien;
+		}
+	}
+
+	/**
+	 * Works on the world described by the Terrain layer of the level file.
+	 */
+	private static abstract class LevelBenchmark extends Benchmark {
+
+		private World world;
+
+		protected LevelBenchmark(String name) {
+			super(name);
+		}
+
+		protected World getWorld() {
+			return world;
+		}
+
+		@Override
+		public void setUp() {
+			world = createLevelWorld();
+		}
+	}
+
+	private static World createLevelWorld() {
+		Map map = new TMXFileReader(LEVELS_FOLDER).read(LEVEL_FILE);
+		World world = new World(map.getTileSizeX(), map.getNbTilesX(),
+				map.getNbTilesY(), Math.min(1024, map.getPixelWidth()),
+				Math.min(768, map.getPixelHeight()), map.getTargetTileX(),
+				map.getTargetTileY());
+		Layer terrain = map.getLayer("Terrain");
+		for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
+			for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
+				ImageTile tile = terrain.getTile(tileX, tileY);
+				if (tile != null) {
+					world.setTileFeature(tileX, tileY,
+							Feature.fromValue(tile.getType().getValue()));
+				}
+			}
+		}
+		return world;
+	}
+
+	/**
+	 * Detects the collisions of Mazub in a world with the given number of
+	 * enemies spread randomly over it.
+	 */
+	private static class CollisionBenchmark extends Benchmark {
+
+		private static final int TILES_X = 1000;
+		private static final int TILES_Y = 20;
+
+		private final int enemies;
+
+		private World world;
+		private Mazub alien;
+
+		private CollisionBenchmark(int enemies) {
+			super("World.collisionDetect " + enemies + " enemies");
+			this.enemies = enemies;
+		}
+
+		@Override
+		public void setUp() {
+			world = new World(TILE_SIZE, TILES_X, TILES_Y, 1024, 768,
+					TILES_X - 1, TILES_Y - 1);
+			Random random = new Random(0);
+			for (int i = 0; i < enemies; i++) {
+				world.updateBounds(new Shark(),
+						random.nextInt(world.getWorldWidth() - TILE_SIZE),
+						random.nextInt(world.getWorldHeight() - TILE_SIZE),
+						TILE_SIZE, 50);
+			}
+			alien = new Mazub(0, 0, createAlienSprites());
+			World.setMazub(world, alien);
+			world.startGame();
+		}
+
+		@Override
+		public Object run() {
+			return world.collisionDetect(alien);
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+package jumpingalien.benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import ogp.framework.util.GUIUtils;
+
+/**
+ * Benchmarks for drawing the images of tiles and sprites onto a screen-sized
+ * image, either in the format ImageIO loads them in or after converting them
+ * to the format of the screen.
+ *
+ * Run from the project folder so levels/ can be found. Takes the same
+ * optional arguments as {@link ModelBenchmarks}.
+ */
+public class RenderBenchmarks {
+
+	private static final String LEVELS_FOLDER = "levels/";
+	private static final String LEVEL_FILE = "level1.tmx";
+
+	private static final String[] SPRITE_FILES = {
+			"levels/player/p1_front.png", "levels/player/p1_jump.png",
+			"levels/player/p1_duck.png", "levels/enemies/fishSwim1.png",
+			"levels/enemies/slimeWalk1.png", "levels/items/plantPurple.png",
+			"levels/hud/hud_heartFull.png", "levels/hud/hud_5.png" };
+
+	private static final int SCREEN_WIDTH = 1024;
+	private static final int SCREEN_HEIGHT = 768;
+
+	public static void main(String[] args) {
+		double warmup = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+		double iteration = args.length > 1 ? Double.parseDouble(args[1]) : 1;
+		int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		String filter = args.length > 3 ? args[3] : "";
+
+		List<Benchmark> benchmarks = new ArrayList<>();
+		for (Benchmark benchmark : createBenchmarks()) {
+			if (benchmark.getName().contains(filter)) {
+				benchmarks.add(benchmark);
+			}
+		}
+
+		new BenchmarkRunner(warmup, iteration, iterations).runAll(benchmarks);
+	}
+
+	public static List<Benchmark> createBenchmarks() {
+		List<Benchmark> result = new ArrayList<>();
+		result.add(new BlitBenchmark("blit tiles loaded", getTileFiles(),
+				image -> image));
+		result.add(new BlitBenchmark("blit tiles compatible", getTileFiles(),
+				GUIUtils::toCompatibleImage));
+		result.add(new BlitBenchmark("blit sprites loaded", SPRITE_FILES,
+				image -> image));
+		result.add(new BlitBenchmark("blit sprites compatible", SPRITE_FILES,
+				GUIUtils::toCompatibleImage));
+		return result;
+	}
+
+	private static String[] getTileFiles() {
+		Map map = new TMXFileReader(LEVELS_FOLDER).read(LEVEL_FILE);
+		Set<String> files = new LinkedHashSet<>();
+		for (Layer layer : map.getLayers()) {
+			for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
+				for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
+					ImageTile tile = layer.getTile(tileX, tileY);
+					if (tile != null) {
+						files.add(tile.getFile().getAbsolutePath());
+					}
+				}
+			}
+		}
+		return files.toArray(new String[files.size()]);
+	}
+
+	/**
+	 * Draws each of the given images once per operation onto an opaque
+	 * screen-compatible image, each time at a different location.
+	 */
+	private static class BlitBenchmark extends Benchmark {
+
+		private final String[] files;
+		private final UnaryOperator<BufferedImage> conversion;
+
+		private BufferedImage[] images;
+		private BufferedImage screen;
+		private Graphics2D g;
+		private int offset;
+
+		private BlitBenchmark(String name, String[] files,
+				UnaryOperator<BufferedImage> conversion) {
+			super(name + " (" + files.length + " images)");
+			this.files = files;
+			this.conversion = conversion;
+		}
+
+		@Override
+		public void setUp() {
+			images = new BufferedImage[files.length];
+			for (int i = 0; i < files.length; i++) {
+				images[i] = conversion.apply(GUIUtils.loadImage(files[i]));
+			}
+			screen = GUIUtils.createCompatibleImage(SCREEN_WIDTH,
+					SCREEN_HEIGHT, Transparency.OPAQUE);
+			g = screen.createGraphics();
+		}
+
+		@Override
+		public Object run() {
+			offset = (offset + 13) % (SCREEN_WIDTH / 2);
+			for (int i = 0; i < images.length; i++) {
+				g.drawImage(images[i], offset + (i * 37) % (SCREEN_WIDTH / 2),
+						(i * 71) % (SCREEN_HEIGHT / 2), null);
+			}
+			return screen;
+		}
+	}
+
+}
@@ -0,0 +1,269 @@
+package jumpingalien.model;
+
+import java.util.BitSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A grid of geological features which is split into square chunks of tiles, each of which is read from a terrain source
+ * when it is needed. The chunks within a prefetch radius around the visible tiles are loaded on a background thread before
+ * they become visible, and chunks far away from the visible tiles are evicted again, so the memory used depends on the
+ * size of the window instead of the size of the world.
+ *
+ * A chunk which is needed before it has been loaded in the background is read right away. Chunks in which a feature has
+ * been set are never evicted, since they can't be read from the source again.
+ *
+ * @invar	...
+ * 			| (getPrefetchRadius() >= 0)
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+public class ChunkedTileGrid extends TileGrid {
+
+	/**
+	 * Creates a new tile grid which reads its features from the given source.
+	 *
+	 * @param tiles_x_amount
+	 * 			The amount of tiles in the X-direction.
+	 * @param tiles_y_amount
+	 * 			The amount of tiles in the Y-direction.
+	 * @param source
+	 * 			The source from which the features are read.
+	 * @param prefetch_radius
+	 * 			The amount of chunks around the visible tiles which are loaded in advance.
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| (tiles_x_amount <= 0) || (tiles_y_amount <= 0) || (source == null) || (prefetch_radius < 0)
+	 * @post	...
+	 * 			| (new.getPrefetchRadius() == prefetch_radius)
+	 */
+	public ChunkedTileGrid(int tiles_x_amount, int tiles_y_amount, TerrainSource source, int prefetch_radius)
+			throws IllegalArgumentException {
+		super(tiles_x_amount, tiles_y_amount, false);
+		if ((source == null) || (prefetch_radius < 0)) {
+			throw new IllegalArgumentException();
+		}
+
+		this.source = source;
+		this.prefetch_radius = prefetch_radius;
+		this.chunks_x_amount = (tiles_x_amount + chunk_size - 1)/chunk_size;
+		this.chunks_y_amount = (tiles_y_amount + chunk_size - 1)/chunk_size;
+		this.chunks = new AtomicReferenceArray<byte[]>(chunks_x_amount*chunks_y_amount);
+	}
+
+	private final TerrainSource source;
+
+	/**
+	 * Gets the amount of chunks around the visible tiles which are loaded in advance.
+	 */
+	@Basic @Immutable
+	public int getPrefetchRadius() {
+		return prefetch_radius;
+	}
+
+	private final int prefetch_radius;
+
+	/**
+	 * Gets the amount of chunks which are currently in memory.
+	 */
+	public int getLoadedChunkAmount() {
+		int amount = 0;
+		for (int i = 0; i < chunks.length(); i++) {
+			if (chunks.get(i) != null) {
+				amount++;
+			}
+		}
+		return amount;
+	}
+
+	@Override
+	public Feature getFeature(int tile_x, int tile_y) throws IllegalArgumentException {
+		if (!isValidTile(tile_x, tile_y)) {
+			throw new IllegalArgumentException();
+		}
+		byte[] chunk = getChunk(getChunkIndex(tile_x, tile_y));
+		return features[chunk[getIndexInChunk(tile_x, tile_y)]];
+	}
+
+	@Override
+	public void setFeature(int tile_x, int tile_y, Feature feature) throws IllegalArgumentException {
+		if (!isValidTile(tile_x, tile_y) || (feature == null)) {
+			throw new IllegalArgumentException();
+		}
+		int index = getChunkIndex(tile_x, tile_y);
+		synchronized (modified) {
+			modified.set(index);
+		}
+		getChunk(index)[getIndexInChunk(tile_x, tile_y)] = (byte) feature.getValue();
+	}
+
+	/**
+	 * Starts loading the chunks within the prefetch radius around the given tiles in the background, and evicts the
+	 * unmodified chunks which lie more than one chunk beyond that radius.
+	 */
+	@Override
+	public void setVisibleTiles(int tile_left, int tile_bottom, int tile_right, int tile_top) {
+		int left = Math.max(0, Math.floorDiv(tile_left, chunk_size) - getPrefetchRadius());
+		int bottom = Math.max(0, Math.floorDiv(tile_bottom, chunk_size) - getPrefetchRadius());
+		int right = Math.min(chunks_x_amount - 1, Math.floorDiv(tile_right, chunk_size) + getPrefetchRadius());
+		int top = Math.min(chunks_y_amount - 1, Math.floorDiv(tile_top, chunk_size) + getPrefetchRadius());
+		int[] range = prefetched;
+		if ((left == range[0]) && (bottom == range[1]) && (right == range[2]) && (top == range[3])) {
+			return;
+		}
+		prefetched = new int[] {left, bottom, right, top};
+
+		for (int chunk_y = bottom; chunk_y <= top; chunk_y++) {
+			for (int chunk_x = left; chunk_x <= right; chunk_x++) {
+				prefetch(chunk_y*chunks_x_amount + chunk_x);
+			}
+		}
+
+		// Keep one more chunk on each side, so moving back and forth across a chunk border doesn't reload chunks. Only
+		// the loaded chunks are checked, so the cost doesn't depend on the size of the world.
+		synchronized (modified) {
+			for (Integer index : loaded) {
+				int chunk_x = index % chunks_x_amount;
+				int chunk_y = index / chunks_x_amount;
+				if (modified.get(index)) {
+					// Modified chunks are never evicted, so they don't have to be checked again.
+					loaded.remove(index);
+				} else if ((chunk_x < left - 1) || (chunk_x > right + 1) || (chunk_y < bottom - 1) || (chunk_y > top + 1)) {
+					byte[] chunk = chunks.get(index);
+					loaded.remove(index);
+					chunks.compareAndSet(index, chunk, null);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The range of chunks which was prefetched last, as {left, bottom, right, top}.
+	 */
+	private volatile int[] prefetched = {-1, -1, -1, -1};
+
+	/**
+	 * Loads the given chunk on the background thread, unless it is loaded or being loaded already. The chunk is skipped if
+	 * the window has moved away from it by the time the background thread gets to it.
+	 */
+	private void prefetch(int index) {
+		if ((chunks.get(index) != null) || !pending.add(index)) {
+			return;
+		}
+		loader.execute(() -> {
+			try {
+				int[] range = prefetched;
+				int chunk_x = index % chunks_x_amount;
+				int chunk_y = index / chunks_x_amount;
+				if ((chunk_x >= range[0]) && (chunk_x <= range[2]) && (chunk_y >= range[1]) && (chunk_y <= range[3])) {
+					getChunk(index);
+				}
+			} catch (RuntimeException exc) {
+				// The chunk is read again when it's needed, which reports the problem on the game's thread.
+			} finally {
+				pending.remove(index);
+			}
+		});
+	}
+
+	private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Gets the given chunk, reading it from the source first if it isn't in memory.
+	 */
+	private byte[] getChunk(int index) {
+		byte[] chunk = chunks.get(index);
+		if (chunk != null) {
+			return chunk;
+		}
+		byte[] read = readChunk(index);
+		if (chunks.compareAndSet(index, null, read)) {
+			loaded.add(index);
+			return read;
+		}
+		// Another thread stored the chunk first, unless it has been evicted again since, in which case the chunk read
+		// here is just as good.
+		chunk = chunks.get(index);
+		return (chunk != null) ? chunk : read;
+	}
+
+	/**
+	 * Reads the given chunk from the source, storing the values of its features row by row from the bottom up.
+	 * 
+	 * @throws	IllegalArgumentException
+	 * 			The source returned a value which doesn't represent a feature.
+	 */
+	private byte[] readChunk(int index) throws IllegalArgumentException {
+		int left = (index % chunks_x_amount)*chunk_size;
+		int bottom = (index / chunks_x_amount)*chunk_size;
+		int width = Math.min(chunk_size, getTilesXAmount() - left);
+		int height = Math.min(chunk_size, getTilesYAmount() - bottom);
+
+		byte[] values = new byte[width*height];
+		source.readFeatures(left, bottom, width, height, values);
+
+		for (byte value : values) {
+			if (!isValidValue(value)) {
+				throw new IllegalArgumentException();
+			}
+		}
+
+		byte[] chunk = new byte[chunk_size*chunk_size];
+		for (int y = 0; y < height; y++) {
+			System.arraycopy(values, y*width, chunk, y*chunk_size, width);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Gets the index of the chunk containing the given tile.
+	 */
+	private int getChunkIndex(int tile_x, int tile_y) {
+		return (tile_y / chunk_size)*chunks_x_amount + tile_x / chunk_size;
+	}
+
+	/**
+	 * Gets the index of the given tile in the array of its chunk.
+	 */
+	private static int getIndexInChunk(int tile_x, int tile_y) {
+		return (tile_y % chunk_size)*chunk_size + tile_x % chunk_size;
+	}
+
+	private final int chunks_x_amount;
+
+	private final int chunks_y_amount;
+
+	/**
+	 * The chunks which are in memory, row by row from the bottom up, or null for chunks which aren't.
+	 */
+	private final AtomicReferenceArray<byte[]> chunks;
+
+	/**
+	 * The indices of the chunks in memory which may have to be evicted when the window moves.
+	 */
+	private final Set<Integer> loaded = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * The indices of the chunks in which a feature has been set.
+	 */
+	private final BitSet modified = new BitSet();
+
+	/**
+	 * The width and height of a chunk, in tiles.
+	 */
+	public static final int chunk_size = 32;
+
+	private static final ExecutorService loader = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "Terrain loader");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+}
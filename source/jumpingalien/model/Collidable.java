@@ -0,0 +1,16 @@
+package jumpingalien.model;
+
+/**
+ * An object which can be stored in the spatial index of a world and come into contact with game objects.
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+public interface Collidable {
+
+	/**
+	 * Gets the kind of object this is, which game objects use to decide how to handle a contact with it.
+	 */
+	public ContactType getContactType();
+
+}
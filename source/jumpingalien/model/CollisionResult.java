@@ -0,0 +1,166 @@
+package jumpingalien.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * The objects touching a game object, as found by World.collisionDetect, together with the side of the game object
+ * each of them touches.
+ *
+ * A world owns a single collision result which it clears and refills on every collision detection, so detecting
+ * collisions doesn't allocate once the contact buffer is large enough. A collision result is only valid until the next
+ * collision detection in the same world.
+ *
+ * @invar	...
+ * 			| (getContactAmount() >= 0)
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+public class CollisionResult {
+
+	/**
+	 * The sides of a game object, used to index the flags and contacts of a collision result.
+	 */
+	public static final int LEFT = 0, RIGHT = 1, TOP = 2, BOTTOM = 3;
+
+	/**
+	 * Creates a new, empty collision result.
+	 */
+	CollisionResult() {
+	}
+
+	/**
+	 * Removes all contacts from this collision result.
+	 *
+	 * @post	...
+	 * 			| (new.getContactAmount() == 0)
+	 * @post	...
+	 * 			| for each side in LEFT..BOTTOM: !new.isTouched(side)
+	 */
+	void clear() {
+		for (int i = 0; i < contact_amount; i++) {
+			contacts[i] = null;
+		}
+		contact_amount = 0;
+		touched_left = false;
+		touched_right = false;
+		touched_top = false;
+		touched_bottom = false;
+	}
+
+	/**
+	 * Adds a contact with the given object on the given side.
+	 *
+	 * @param object
+	 * 			The object which is touched.
+	 * @param side
+	 * 			The side of the game object the given object touches.
+	 * @pre		...
+	 * 			| (side >= LEFT) && (side <= BOTTOM)
+	 * @post	...
+	 * 			| (new.getContactAmount() == getContactAmount() + 1)
+	 * 			|	&& (new.getContact(getContactAmount()) == object)
+	 * 			|	&& (new.getContactSide(getContactAmount()) == side)
+	 * 			|	&& new.isTouched(side)
+	 */
+	void add(Collidable object, int side) {
+		assert(side >= LEFT && side <= BOTTOM);
+
+		if (contact_amount == contacts.length) {
+			contacts = Arrays.copyOf(contacts, 2*contacts.length);
+			sides = Arrays.copyOf(sides, 2*sides.length);
+		}
+		contacts[contact_amount] = object;
+		sides[contact_amount] = (byte) side;
+		contact_amount++;
+
+		switch (side) {
+		case LEFT:
+			touched_left = true;
+			break;
+		case RIGHT:
+			touched_right = true;
+			break;
+		case TOP:
+			touched_top = true;
+			break;
+		default:
+			touched_bottom = true;
+		}
+	}
+
+	/**
+	 * Gets the amount of contacts in this collision result.
+	 */
+	@Basic
+	public int getContactAmount() {
+		return contact_amount;
+	}
+
+	private int contact_amount;
+
+	/**
+	 * Gets the object of the contact with the given index.
+	 *
+	 * @pre		...
+	 * 			| (index >= 0) && (index < getContactAmount())
+	 */
+	public Collidable getContact(int index) {
+		assert(index >= 0 && index < contact_amount);
+		return contacts[index];
+	}
+
+	private Collidable[] contacts = new Collidable[16];
+
+	/**
+	 * Gets the contact type of the contact with the given index.
+	 *
+	 * @pre		...
+	 * 			| (index >= 0) && (index < getContactAmount())
+	 * @return	...
+	 * 			| result == getContact(index).getContactType()
+	 */
+	public ContactType getContactType(int index) {
+		assert(index >= 0 && index < contact_amount);
+		return contacts[index].getContactType();
+	}
+
+	/**
+	 * Gets the side of the game object touched by the contact with the given index.
+	 *
+	 * @pre		...
+	 * 			| (index >= 0) && (index < getContactAmount())
+	 */
+	public int getContactSide(int index) {
+		assert(index >= 0 && index < contact_amount);
+		return sides[index];
+	}
+
+	private byte[] sides = new byte[16];
+
+	/**
+	 * Checks whether or not any object touches the given side of the game object.
+	 *
+	 * @param side
+	 * 			The side which should be checked.
+	 * @return	...
+	 * 			| result = (for some index in 0..getContactAmount()-1: getContactSide(index) == side)
+	 */
+	public boolean isTouched(int side) {
+		switch (side) {
+		case LEFT:
+			return touched_left;
+		case RIGHT:
+			return touched_right;
+		case TOP:
+			return touched_top;
+		default:
+			return touched_bottom;
+		}
+	}
+
+	private boolean touched_left, touched_right, touched_top, touched_bottom;
+
+}
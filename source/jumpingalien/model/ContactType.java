@@ -0,0 +1,23 @@
+package jumpingalien.model;
+
+import be.kuleuven.cs.som.annotate.Value;
+
+/**
+ * The kinds of objects a game object can come into contact with, used to dispatch collisions without inspecting classes.
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+@Value
+public enum ContactType {
+
+	mazub, shark, slime, plant;
+
+	/**
+	 * Checks whether or not objects of this type block the movement of other objects.
+	 * Plants can be walked through, everything else blocks.
+	 */
+	public boolean isBlocking() {
+		return (this != plant);
+	}
+}
@@ -4,9 +4,42 @@ import be.kuleuven.cs.som.annotate.Value;
 
 @Value
 public enum Feature {
-	
-	water, magma, air, ground;
-	
+
+	water(2), magma(3), air(0), ground(1);
+
+	private Feature(int value) {
+		this.value = value;
+	}
+
+	/**
+	 * Gets the value used by the facade to represent this feature.
+	 */
+	public int getValue() {
+		return value;
+	}
+
+	private final int value;
+
+	/**
+	 * Gets the feature represented by the given facade value.
+	 *
+	 * @param value
+	 * 			The value which should be converted.
+	 * @return	...
+	 * 			| result.getValue() == value
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| for each feature in Feature.values(): feature.getValue() != value
+	 */
+	public static Feature fromValue(int value) throws IllegalArgumentException {
+		for (Feature feature : values()) {
+			if (feature.getValue() == value) {
+				return feature;
+			}
+		}
+		throw new IllegalArgumentException();
+	}
+
 	public boolean isPassable(){
 		return (this != ground);
 	}
@@ -0,0 +1,96 @@
+package jumpingalien.model;
+
+/**
+ * Summed-area tables over a tile grid, one per feature, which count the tiles of a feature in any rectangle of tiles in
+ * constant time.
+ *
+ * The tables are a snapshot of the grid at the time they were created, so they have to be created again after the grid
+ * has been changed. Air is not stored, its amount follows from the amounts of the other features.
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+class FeatureSums {
+
+	/**
+	 * Creates the summed-area tables of the given grid.
+	 *
+	 * @param tiles
+	 * 			The grid whose features should be counted.
+	 * @pre		...
+	 * 			| (tiles != null)
+	 */
+	FeatureSums(TileGrid tiles) {
+		assert(tiles != null);
+
+		this.stride = tiles.getTilesXAmount() + 1;
+		int size = stride*(tiles.getTilesYAmount() + 1);
+		this.sums = new int[Feature.values().length][];
+		for (Feature feature : Feature.values()) {
+			if (feature != Feature.air) {
+				sums[feature.ordinal()] = new int[size];
+			}
+		}
+
+		for (int tile_y = 0; tile_y < tiles.getTilesYAmount(); tile_y++) {
+			for (int tile_x = 0; tile_x < tiles.getTilesXAmount(); tile_x++) {
+				Feature feature = tiles.getFeature(tile_x, tile_y);
+				int index = (tile_y + 1)*stride + tile_x + 1;
+				for (int[] table : sums) {
+					if (table != null) {
+						table[index] = table[index - 1] + table[index - stride] - table[index - stride - 1];
+					}
+				}
+				if (feature != Feature.air) {
+					sums[feature.ordinal()][index]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the amount of tiles of the given feature in the given rectangle of tiles.
+	 *
+	 * @param feature
+	 * 			The feature which should be counted.
+	 * @param left
+	 * 			The X-position of the leftmost column of the rectangle, in tiles.
+	 * @param bottom
+	 * 			The Y-position of the bottom row of the rectangle, in tiles.
+	 * @param right
+	 * 			The X-position of the rightmost column of the rectangle, in tiles.
+	 * @param top
+	 * 			The Y-position of the top row of the rectangle, in tiles.
+	 * @pre		The rectangle lies within the grid the tables were created from.
+	 * @return	...
+	 * 			| result == (the amount of tiles in the rectangle whose feature was the given feature)
+	 */
+	int getAmount(Feature feature, int left, int bottom, int right, int top) {
+		if (feature == Feature.air) {
+			int amount = (right - left + 1)*(top - bottom + 1);
+			for (int[] table : sums) {
+				if (table != null) {
+					amount -= getSum(table, left, bottom, right, top);
+				}
+			}
+			return amount;
+		}
+		return getSum(sums[feature.ordinal()], left, bottom, right, top);
+	}
+
+	private int getSum(int[] table, int left, int bottom, int right, int top) {
+		return table[(top + 1)*stride + right + 1] - table[bottom*stride + right + 1]
+				- table[(top + 1)*stride + left] + table[bottom*stride + left];
+	}
+
+	/**
+	 * The width of a row of the tables, which have an extra row and column of zeroes at the bottom and at the left.
+	 */
+	private final int stride;
+
+	/**
+	 * The tables, indexed by the ordinals of their features, with null for air.
+	 */
+	private final int[][] sums;
+
+}
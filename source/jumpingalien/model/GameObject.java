@@ -5,7 +5,7 @@ import be.kuleuven.cs.som.annotate.Immutable;
 import be.kuleuven.cs.som.annotate.Model;
 import jumpingalien.util.Sprite;
 
-public abstract class GameObject {
+public abstract class GameObject implements Collidable {
 	
 	public GameObject(double x, double y, Sprite[] images){
 		setX(x);
@@ -49,11 +49,11 @@ public abstract class GameObject {
 	 * 
 	 * @param x
 	 * 			The x-position in pixels which should be checked.
-	 * @return	Whether or not the given x is within the game world.
-	 * 			| result = (x >= 0 && x < getWorldWidth)
+	 * @return	Whether or not the given x is within the game world, or isn't negative if this game object isn't in a world.
+	 * 			| result = (x >= 0 && (getWorld() == null || x < getWorld().getWorldWidth()))
 	 */
 	public boolean isValidX(double x) {
-		return (x >= 0 && x < getWorld().getWorldWidth());
+		return (x >= 0 && ((getWorld() == null) || (x < getWorld().getWorldWidth())));
 	}
 	
 	private double x;
@@ -89,11 +89,11 @@ public abstract class GameObject {
 	 * 
 	 * @param y
 	 * 			The y-position in pixels which should be checked.
-	 * @return	Whether or not the given y is within the game world.
-	 * 			| result = (y >= 0 && y < getWorldHeight())
+	 * @return	Whether or not the given y is within the game world, or isn't negative if this game object isn't in a world.
+	 * 			| result = (y >= 0 && (getWorld() == null || y < getWorld().getWorldHeight()))
 	 */
 	public boolean isValidY(double y) {
-		return (y >= 0 && y < getWorld().getWorldHeight()); 
+		return (y >= 0 && ((getWorld() == null) || (y < getWorld().getWorldHeight())));
 	}
 	
 	private double y;
@@ -130,12 +130,17 @@ public abstract class GameObject {
 	 * 			| result = ((-vxmax <= vx && vx <= -vxi) || (vx == 0) || (vxi <= vx && vx <= vxmax))
 	 */
 	public boolean isValidVx(double vx) {
-		return ((-vxmax <= vx && vx <= -vxi)
+		return ((-vxmax <= vx && vx <= -getVxi())
 				|| (vx == 0)
-				|| (vxi <= vx && vx <= vxmax));
+				|| (getVxi() <= vx && vx <= vxmax));
 	}
 	
-	private double vx;
+	protected double vx;
+	
+	/**
+	 * Gets the magnitude of the initial horizontal velocity of this game object when it starts moving.
+	 */
+	public abstract double getVxi();
 	
 	
 	/**
@@ -158,7 +163,7 @@ public abstract class GameObject {
 		this.vxmax = vxmax;
 	}
 	
-	private double vxmax;
+	protected double vxmax;
 	
 	/**
 	 * Gets the vertical velocity of this game object.
@@ -351,7 +356,7 @@ public abstract class GameObject {
 		return this.hitpoints;
 	}
 	
-	protected abstract void setHitpoints();
+	protected abstract void setHitpoints(int hitpoints);
 	
 	private int hitpoints;
 	
@@ -405,6 +410,11 @@ public abstract class GameObject {
 	 
 	protected abstract void terminate();
 	
+	/**
+	 * Returns whether or not this game object stands on solid ground.
+	 */
+	public abstract boolean canjump();
+	
 	public abstract void advanceTime(double dt)throws IllegalArgumentException;
 	
 	/**
@@ -420,55 +430,35 @@ public abstract class GameObject {
 	}
 	
 	/**
-	 * Gets the timestep necessary to move this game object pixel by pixel.
+	 * Gets the length of the next step when advancing this game object by a given time, chosen so the straight line
+	 * between the start and the end of the step never deviates more than one pixel from the actual parabolic path.
+	 * This lets a whole step be swept at once instead of moving pixel by pixel.
 	 * 
-	 * @return	If this game object ax en ay is equal to zero, the result will be the minimum of 4 formulas.
-	 * 			1) 1 divided by the absolute value of, this mazubs horizontal velocity divided by 100.
-	 * 			2) 1 divided by the absolute value of, this mazubs vertical velocity divide by 100.
-	 * 			3) the result of computeformula(v,a) with as parameters 
-	 * 				this game object's horizontal accelartion and velocity
-	 * 			4) the result of computeformula(v,a) with as parameters 
-	 * 				this game object's vertical accelartion and velocity
-	 * 			| result =  Math.min(computeformula(getVx,getAx)
-	 * 			|				Math.min(computeformula(getVy,getAy),
-	 * 			|					Math.min( 1/Math.abs(getVx()/100),1/Math.abs(getVy()/100)))
-	 */
-	private double getTimesstep(){
-		double firstparameter = Math.min( 1/Math.abs(getVx()/100),1/Math.abs(getVy()/100));		
-		double secondparameter = computeformula(getVx(),getAx());		
-		double thirdparameter = computeformula(getVy(),getAy());
-		
-		return Math.min(firstparameter,Math.min(secondparameter,thirdparameter));
+	 * @param dt
+	 * 			The amount of seconds which remain to be advanced.
+	 * @return	The smaller of dt and the time after which the path deviates one pixel from its chord.
+	 * 			| a = Math.max(Math.abs(getAx()), Math.abs(getAy()))
+	 * 			| if (a == 0)
+	 * 			|	then result = dt
+	 * 			| else
+	 * 			|	result = Math.min(dt, Math.sqrt(8/(100*a)))
+	 */
+	protected double getSweepStep(double dt) {
+		double a = Math.max(Math.abs(getAx()), Math.abs(getAy()));
+		if (a == 0) {
+			return dt;
+		}
+		// The largest distance between a parabola and its chord over a time t is 100*a*t^2/8 pixels.
+		return Math.min(dt, Math.sqrt(8/(100*a)));
 	}
 	
 	/**
-	 * Computes a formula for the calculation of timesteps().
-	 * 
-	 * @param v
-	 * 			the velocity to compute the formula with
-	 * @param a
-	 * 			the acceleration to compute the formula with	 * 
-	 * @return	if a is not equal to zero
-	 * 			The square root of two times the absolute value of, a divided by 100, 
-	 * 			plus ,the square of v divide by 100, min the absolute value of, v divided by 100. 
-	 * 			This square root divide by the absolute value of, a divide by 100.
-	 * 			| if a != 0
-	 * 			|	then result = Math.sqrt(2*Math.abs(a / 100) + Math.pow(v,2)/100 - Math.abs(v/100))
-	 *			| 			/Math.abs(a / 100)
-	 *@return 	if a is equal to zero 
-	 *			Double.POSITIVE_INFINITY
-	 *			| if a == 0
-	 *			|  then result = Double.POSITIVE_INFINITY 
-	 */
-	private double computeformula(double v, double a){
-		if(a == 0)
-			return Double.POSITIVE_INFINITY;
-		double helpparameter = Math.abs(a / 100);
-		return Math.sqrt(2*helpparameter + Math.pow(v,2)/100 - Math.abs(v/100))
-				/helpparameter;
-	}
-	
-	protected abstract void collisionhandle(Object[][] collisions);
+	 * The maximal amount of sweeps in a single call to advanceTime, which bounds the work done when an object is
+	 * wedged between obstacles.
+	 */
+	protected static final int max_sweeps = 8;
+	
+	protected abstract void collisionhandle(CollisionResult collisions);
 	
 	/**
 	 * Returns the new x-position after a given time has passed.
@@ -0,0 +1,85 @@
+package jumpingalien.model;
+
+/**
+ * An index over a tile grid which stores, for every tile, the row of the highest ground tile at or below it in the same
+ * column. The floor below any tile is then found with a single array read.
+ *
+ * The index has to be updated whenever the feature of a tile in the grid changes, which only touches the tiles above the
+ * changed tile up to the next ground tile in its column.
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+class GroundHeightmap {
+
+	/**
+	 * Creates the heightmap of the given grid.
+	 *
+	 * @param tiles
+	 * 			The grid whose ground tiles should be indexed.
+	 * @pre		...
+	 * 			| (tiles != null)
+	 */
+	GroundHeightmap(TileGrid tiles) {
+		assert(tiles != null);
+
+		this.tiles = tiles;
+		this.ground_below = new int[tiles.getTilesXAmount()*tiles.getTilesYAmount()];
+		int stride = tiles.getTilesXAmount();
+		for (int tile_y = 0; tile_y < tiles.getTilesYAmount(); tile_y++) {
+			for (int tile_x = 0; tile_x < stride; tile_x++) {
+				int below = (tile_y == 0) ? -1 : ground_below[(tile_y - 1)*stride + tile_x];
+				ground_below[tile_y*stride + tile_x] = (tiles.getFeature(tile_x, tile_y) == Feature.ground) ? tile_y : below;
+			}
+		}
+	}
+
+	private final TileGrid tiles;
+
+	/**
+	 * Gets the row of the highest ground tile at or below the given tile, in the same column.
+	 *
+	 * @param tile_x
+	 * 			The X-position of the tile, in tiles.
+	 * @param tile_y
+	 * 			The Y-position of the tile, in tiles.
+	 * @pre		...
+	 * 			| tiles.isValidTile(tile_x, tile_y)
+	 * @return	...
+	 * 			| result == max({-1} + {row in 0..tile_y | tiles.getFeature(tile_x, row) == Feature.ground})
+	 */
+	int getGroundBelow(int tile_x, int tile_y) {
+		return ground_below[tile_y*tiles.getTilesXAmount() + tile_x];
+	}
+
+	/**
+	 * Updates this heightmap after the feature of the given tile has changed.
+	 *
+	 * @param tile_x
+	 * 			The X-position of the changed tile, in tiles.
+	 * @param tile_y
+	 * 			The Y-position of the changed tile, in tiles.
+	 * @pre		...
+	 * 			| tiles.isValidTile(tile_x, tile_y)
+	 */
+	void update(int tile_x, int tile_y) {
+		int stride = tiles.getTilesXAmount();
+		int below = (tile_y == 0) ? -1 : ground_below[(tile_y - 1)*stride + tile_x];
+		for (int row = tile_y; row < tiles.getTilesYAmount(); row++) {
+			int index = row*stride + tile_x;
+			int value = (tiles.getFeature(tile_x, row) == Feature.ground) ? row : below;
+			// Every row only depends on the row below it, so the rest of the column is still up to date.
+			if ((row > tile_y) && (ground_below[index] == value)) {
+				return;
+			}
+			ground_below[index] = value;
+			below = value;
+		}
+	}
+
+	/**
+	 * The row of the highest ground tile at or below each tile, or -1 if there is none, row by row from the bottom up.
+	 */
+	private final int[] ground_below;
+
+}
@@ -0,0 +1,79 @@
+package jumpingalien.model;
+
+import be.kuleuven.cs.som.annotate.Basic;
+
+/**
+ * The first impact of a moving bounding box sweeping through a world, as found by World.sweep.
+ * A world reuses a single impact for all of its sweeps, so an impact returned by World.sweep is only valid until the
+ * next sweep in the same world.
+ *
+ * @invar	...
+ * 			| (getTime() >= 0) && (getTime() <= 1)
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+public class Impact {
+
+	/**
+	 * Creates a new impact.
+	 *
+	 * @param time
+	 * 			The fraction of the sweep after which the impact happens.
+	 * @param horizontal
+	 * 			Whether or not the impact blocks horizontal movement, rather than vertical movement.
+	 * @param object
+	 * 			The object which was hit, or null if a tile was hit.
+	 * @pre		...
+	 * 			| (time >= 0) && (time <= 1)
+	 */
+	public Impact(double time, boolean horizontal, Object object) {
+		set(time, horizontal, object);
+	}
+
+	/**
+	 * Changes this impact into the given impact.
+	 *
+	 * @pre		...
+	 * 			| (time >= 0) && (time <= 1)
+	 * @post	...
+	 * 			| (new.getTime() == time) && (new.isHorizontal() == horizontal) && (new.getObject() == object)
+	 */
+	void set(double time, boolean horizontal, Object object) {
+		assert(time >= 0 && time <= 1);
+		this.time = time;
+		this.horizontal = horizontal;
+		this.object = object;
+	}
+
+	/**
+	 * Gets the fraction of the sweep after which this impact happens.
+	 */
+	@Basic
+	public double getTime() {
+		return time;
+	}
+
+	private double time;
+
+	/**
+	 * Checks whether this impact blocks horizontal movement. If not, it blocks vertical movement.
+	 */
+	@Basic
+	public boolean isHorizontal() {
+		return horizontal;
+	}
+
+	private boolean horizontal;
+
+	/**
+	 * Gets the object which was hit, or null if a tile was hit.
+	 */
+	@Basic
+	public Object getObject() {
+		return object;
+	}
+
+	private Object object;
+
+}
@@ -1,7 +1,5 @@
 package jumpingalien.model;
 
-import java.util.ArrayList;
-
 import jumpingalien.util.*;
 import jumpingalien.model.GameObject;
 import be.kuleuven.cs.som.annotate.Basic;
@@ -61,8 +59,16 @@ public class Mazub extends GameObject{
 		
 		setLastMove(0);
 	}
-		
-	
+
+	/**
+	 * Gets the contact type of this Mazub.
+	 */
+	@Override @Immutable
+	public ContactType getContactType() {
+		return ContactType.mazub;
+	}
+
+
 	/**
 	 * Checks if the given vx is a valid horizontal velocity.
 	 * 
@@ -291,16 +297,6 @@ public class Mazub extends GameObject{
 	
 	private double last_move;
 
-	/**
-	 * Gets the image array of this Mazub.
-	 */
-	@Basic @Immutable
-	public Sprite[] getImages() {
-		return this.images;
-	}
-	
-	private final Sprite[] images;
-	
 	/**
 	 * Gets the amount of frames in this Mazub's running left/right animation.
 	 * 
@@ -406,7 +402,8 @@ public class Mazub extends GameObject{
 	 *			| else
 	 *			|	this.hitpoints = hitpoints;		
 	 */
-	private void setHitpoints(int hitpoints){
+	@Override
+	protected void setHitpoints(int hitpoints){
 		if(hitpoints <= 0){
 			this.hitpoints = 0;
 			this.terminate();	
@@ -503,16 +500,24 @@ public class Mazub extends GameObject{
 	 * 
 	 * @param dt
 	 * 			The amount of seconds to be advanced.
-	 * @effect	The x-position will be advanced using the given time.
-	 * 			| setX(advanceX(dt))
-	 * @effect	The horizontal velocity will be advanced using the given time.
-	 * 			| setVx(advanceVx(dt))
-	 * @effect	The y-position will be advanced using the given time.
-	 * 			| setY(advanceY(dt))
-	 * @effect	The vertical velocity will be advanced using the given time.
-	 * 			| setVy(advanceVy(dt))
+	 * @effect	The time is advanced in at most max_sweeps steps of getSweepStep(remaining) seconds, or in a single step if
+	 * 			nothing lies along the path of the remaining time. In each step, this Mazub is swept through the world first
+	 * 			horizontally and then vertically, and moved up to the first impact along each axis, so standing on the floor
+	 * 			doesn't stop it from running and running into a wall doesn't stop it from falling.
+	 * 			| impact_x = getWorld().sweep(this, maxAdvanceX(step), 0)
+	 * 			| setX(getX() + impact_x.getTime()*maxAdvanceX(step))
+	 * 			| impact_y = getWorld().sweep(this, 0, maxAdvanceY(step))
+	 * 			| setY(getY() + impact_y.getTime()*maxAdvanceY(step))
+	 * @effect	The horizontal and vertical velocity will be advanced using the time of each step.
+	 * 			| setVx(advanceVx(step))
+	 * 			| setVy(advanceVy(step))
+	 * @effect	A horizontal impact stops horizontal movement for the rest of dt, a vertical impact sets the vertical velocity
+	 * 			to 0. Impacts happen at whole pixels, to which the position is rounded.
 	 * @effect	The vertical acceleration will be equal to -10 if this Mazub is in mid-air, else it will be 0.
 	 * 			| setAy(advanceAy())
+	 * @effect	If this Mazub would leave the world, it's terminated.
+	 * 			| if (!isValidX(newx) || !isValidY(newy))
+	 * 			|	then terminate()
 	 * @effect	The last movement time will be equal to -1 if this Mazub is moving to the left,
 	 * 			1 if this Mazub is moving to the right, and if this Mazub is standing still the absolute value of the
 	 * 			previous last movement time will be decreased by dt, unless it hits 0, in which case it will stick to 0.
@@ -522,162 +527,179 @@ public class Mazub extends GameObject{
 	 * @throws IllegalArgumentException
 	 * 			If dt isn't a valid time interval to advance the time with.
 	 * 			| !isValidDt(dt)
+	 * @throws IllegalStateException
+	 * 			If this Mazub isn't in a world, through which it could be swept.
+	 * 			| getWorld() == null
 	 */
-	public void advanceTime(double dt) throws IllegalArgumentException {
+	public void advanceTime(double dt) throws IllegalArgumentException, IllegalStateException {
 		if (!isValidDt(dt)) {
 			throw new IllegalArgumentException();
 		}
+		if (getWorld() == null) {
+			throw new IllegalStateException();
+		}
 		
-		for(double timestep = getTimesstep(); timestep <= dt; timestep += timestep){
-			Object [][] collisions = getWorld().collisionDetect(this);
-			if((collisions[0][0] == null) && (collisions[0][1] == null) && (getVx() < 0)
-				|| (collisions[1][0] == null) && (collisions[1][1] == null) && (getVx() > 0)) 
-					advanceX(timestep);	
+		// Gravity doesn't apply to a Mazub which already stands on the floor, not even during the first sweep.
+		setAy(advanceAy());
+		
+		double remaining = dt;
+		boolean blocked_x = false;
+		for(int sweep = 0; (remaining > 0) && (sweep < max_sweeps); sweep++){
+			double step = isPathClear(remaining) ? remaining : getSweepStep(remaining);
 			
-			setVx(advanceVx(timestep));
+			double dx = blocked_x ? 0 : maxAdvanceX(step);
+			if (dx != 0) {
+				Impact impact = getWorld().sweep(this, dx, 0);
+				double newx = getMovedPosition(getX(), dx, impact);
+				if (!isValidX(newx)) {
+					terminate();
+					return;
+				}
+				setX(newx);
+				blocked_x = (impact != null);
+			}
 			
-			if((collisions[2][0] == null) && (collisions[2][1] == null) && (getVy() > 0)
-				|| (collisions[3][0] == null) && (collisions[3][1] == null) && (getVx() < 0)) 
-				advanceY(timestep);
+			boolean blocked_y = false;
+			double dy = maxAdvanceY(step);
+			if (dy != 0) {
+				Impact impact = getWorld().sweep(this, 0, dy);
+				double newy = getMovedPosition(getY(), dy, impact);
+				if (!isValidY(newy)) {
+					terminate();
+					return;
+				}
+				setY(newy);
+				blocked_y = (impact != null);
+			}
 			
-			setVy(advanceVy(timestep));
-		
+			setVx(advanceVx(step));
+			setVy(blocked_y ? 0 : advanceVy(step));
 			setAy(advanceAy());
-		
-			setLastMove(advanceLastMove(timestep));
-			setAnimationTime(advanceAnimationTime(timestep));
-			
-			setTimeInvincible(advanceTimeInvincible(timestep));
-			
-			collisionhandle(collisions);
+			remaining -= step;
 		}
+		
+		setLastMove(advanceLastMove(dt));
+		setAnimationTime(advanceAnimationTime(dt));
+		setTimeInvincible(advanceTimeInvincible(dt));
+		
+		collisionhandle(getWorld().collisionDetect(this));
 	}
 
 	/**
-	 * Checks if a given time is a valid time interval to advance the time with.
+	 * Gets the position along one axis after moving the given displacement from the given position up to the given impact.
 	 * 
-	 * @param dt
-	 * 			The amount of seconds which should be checked.
-	 * @return	Whether or not dt is in between 0 and 0.2 seconds, exclusively.
-	 * 			| result = ((0 < dt) && (dt < 0.2))
+	 * @return	...
+	 * 			| if (impact == null)
+	 * 			|	then result = position + displacement
+	 * 			| else if (impact.getTime() == 0)
+	 * 			|	then result = position
+	 * 			| else
+	 * 			|	result = Math.round(position + impact.getTime()*displacement)
 	 */
-	public static boolean isValidDt(double dt) {
-		return ((0 < dt) && (dt < 0.2));
+	private static double getMovedPosition(double position, double displacement, Impact impact) {
+		if (impact == null) {
+			return position + displacement;
+		} else if (impact.getTime() == 0) {
+			return position;
+		}
+		// Obstacles have whole pixel bounds, so rounding puts this Mazub exactly against them.
+		return Math.round(position + impact.getTime()*displacement);
 	}
 	
 	/**
-	 * Gets the timestep necessary to move this mazub pixel by pixel.
+	 * Checks whether nothing lies along the path this Mazub would follow during the given time, so the whole time can be
+	 * advanced in a single step without any of the accuracy a parabolic path needs near obstacles.
 	 * 
-	 * @return	If this mazub ax en ay is equal to zero, the result will be the minimum of 4 formulas.
-	 * 			1) 1 divided by the absolute value of, this mazubs horizontal velocity divided by 100.
-	 * 			2) 1 divided by the absolute value of, this mazubs vertical velocity divide by 100.
-	 * 			3) the result of computeformula(v,a) with as parameters 
-	 * 				this mazubs horizontal accelartion and velocity
-	 * 			4) the result of computeformula(v,a) with as parameters 
-	 * 				this mazubs vertical accelartion and velocity
-	 * 			| result =  Math.min(computeformula(getVx,getAx)
-	 * 			|				Math.min(computeformula(getVy,getAy),
-	 * 			|					Math.min( 1/Math.abs(getVx()/100),1/Math.abs(getVy()/100)))
+	 * @param dt
+	 * 			The amount of seconds which remain to be advanced.
+	 * @return	...
+	 * 			| result = getWorld().isClear(this, (the bounding box of all positions of this Mazub during dt))
 	 */
-	private double getTimesstep(){
-		double firstparameter = Math.min( 1/Math.abs(getVx()/100),1/Math.abs(getVy()/100));		
-		double secondparameter = computeformula(getVx(),getAx());		
-		double thirdparameter = computeformula(getVy(),getAy());
-		
-		return Math.min(firstparameter,Math.min(secondparameter,thirdparameter));
+	private boolean isPathClear(double dt) {
+		// The extremes are computed one at a time, since this is called every step and shouldn't allocate.
+		int left = (int) Math.floor(getX() + getPathMin(getVx(), getAx(), dt));
+		int bottom = (int) Math.floor(getY() + getPathMin(getVy(), getAy(), dt));
+		int right = (int) Math.ceil(getX() + getPathMax(getVx(), getAx(), dt)) + getWidth();
+		int top = (int) Math.ceil(getY() + getPathMax(getVy(), getAy(), dt)) + getHeight();
+		return getWorld().isClear(this, left, bottom, right - left, top - bottom);
 	}
 	
 	/**
-	 * Computes a formula for the calculation of timesteps().
+	 * Gets the smallest displacement, in pixels, during the given time along one axis with the given velocity and
+	 * acceleration.
 	 * 
-	 * @param v
-	 * 			the velocity to compute the formula with
-	 * @param a
-	 * 			the acceleration to compute the formula with	 * 
-	 * @return	if a is not equal to zero
-	 * 			The square root of two times the absolute value of, a divided by 100, 
-	 * 			plus ,the square of v divide by 100, min the absolute value of, v divided by 100. 
-	 * 			This square root divide by the absolute value of, a divide by 100.
-	 * 			| if a != 0
-	 * 			|	then result = Math.sqrt(2*Math.abs(a / 100) + Math.pow(v,2)/100 - Math.abs(v/100))
-	 *			| 			/Math.abs(a / 100)
-	 *@return 	if a is equal to zero 
-	 *			Double.POSITIVE_INFINITY
-	 *			| if a == 0
-	 *			|  then result = Double.POSITIVE_INFINITY 
+	 * @return	...
+	 * 			| s(t) = 100*(v*t + a*t^2/2)
+	 * 			| result = min(s(t) for t in 0..dt)
 	 */
-	private double computeformula(double v, double a){
-		if(a == 0)
-			return Double.POSITIVE_INFINITY;
-		double helpparameter = Math.abs(a / 100);
-		return Math.sqrt(2*helpparameter + Math.pow(v,2)/100 - Math.abs(v/100))
-				/helpparameter;
-	}
-	
-	protected void collisionhandle(Object[][] collisions){
-		for(int i = 0; i <= 4; i++){
-			ArrayList collision_objects = (ArrayList) collisions[i][0];
-			for(int j = 0; j < collision_objects.size(); j ++){
-				if(collision_objects.get(j).getClass().toString() ==  "Shark")
-					collisionhandleshark((Shark) collision_objects.get(j));
-				if(collision_objects.get(j).getClass().toString() == "Plant")
-					collisionhandleplant((Plant) collision_objects.get(j));
-				if(collision_objects.get(j).getClass().toString() == "Slime")
-					collisionhandleslime((Slime) collision_objects.get(j));
-			}
-		}
+	private static double getPathMin(double v, double a, double dt) {
+		return Math.min(Math.min(0, 100*(v*dt + a*Math.pow(dt, 2)/2)), getTurnDisplacement(v, a, dt));
 	}
 	
-	private void collisionhandleshark(Shark shark){	
-	}
-	
-	private void collisionhandleplant(Plant plant){	
-	}
-	
-	private void collisionhandleslime(Slime slime){	
+	/**
+	 * Gets the largest displacement, in pixels, during the given time along one axis with the given velocity and
+	 * acceleration.
+	 * 
+	 * @return	...
+	 * 			| s(t) = 100*(v*t + a*t^2/2)
+	 * 			| result = max(s(t) for t in 0..dt)
+	 */
+	private static double getPathMax(double v, double a, double dt) {
+		return Math.max(Math.max(0, 100*(v*dt + a*Math.pow(dt, 2)/2)), getTurnDisplacement(v, a, dt));
 	}
 	
 	/**
-	 * Returns the new x-position after a given time has passed.
+	 * Gets the displacement, in pixels, at which the velocity along one axis becomes 0 during the given time, or 0 if it
+	 * doesn't. The displacement only turns around there, so it's the only extreme besides the start and the end.
 	 * 
-	 * @param dt
-	 * 			The amount of seconds to be advanced.
-	 * @return	The new x-position after dt time has passed.
-	 * 			| max_s = maxAdvanceX(dt)
-	 * 			| actual_s = maxAdvanceX(dt)
-	 * 			| result = getXWithinBounds(getX() + (int) Math.round(Math.min(max_s, actual_s)))
-	 * @throws IllegalArgumentException
-	 * 			If dt isn't a valid time interval to advance the time with.
-	 * 			| !isValidDt(dt)
+	 * @return	...
+	 * 			| if ((a != 0) && (0 < -v/a < dt))
+	 * 			|	then result = 100*(-v*v/(2*a))
+	 * 			|	else result = 0
 	 */
-	@Model
-	private double advanceX(double dt) throws IllegalArgumentException {
-		if (!isValidDt(dt)) {
-			throw new IllegalArgumentException();
+	private static double getTurnDisplacement(double v, double a, double dt) {
+		if ((a != 0) && (-v/a > 0) && (-v/a < dt)) {
+			return 100*(-v*v/(2*a));
 		}
-		
-		double max_s = maxAdvanceX(dt);
-		// This second formula can be changed, the first one is static.
-		double actual_s = maxAdvanceX(dt);
-		double newx = getX() + Math.min(max_s, actual_s);
-		
-		return getXWithinBounds(newx);
+		return 0;
 	}
 	
 	/**
-	 * Gets an x-position within the bounds of the game world.
+	 * Checks if a given time is a valid time interval to advance the time with.
 	 * 
-	 * @param x
-	 * 			The x-position which should be converted to a valid one.
-	 * @return	The new x-position. If it's already within the bounds, this will be equal to the given x.
-	 * 			If it's too small or too large, it will be set to the smallest or largest possible value, respectively.
-	 * 			| result = Math.max(0, Math.min(getWorldWidth() - 1, x))
+	 * @param dt
+	 * 			The amount of seconds which should be checked.
+	 * @return	Whether or not dt is in between 0 and 0.2 seconds, exclusively.
+	 * 			| result = ((0 < dt) && (dt < 0.2))
 	 */
-	private double getXWithinBounds(double x) {
-		if(x >= 0 || x <= getWorld().getWorldWidth()- 1)
-			return x;
-		terminate();
-		return Math.max(0, Math.min(getWorld().getWorldWidth() - 1, x));
+	public static boolean isValidDt(double dt) {
+		return ((0 < dt) && (dt < 0.2));
+	}
+	
+	protected void collisionhandle(CollisionResult collisions){
+		for(int i = 0; i < collisions.getContactAmount(); i++){
+			switch(collisions.getContactType(i)){
+			case shark:
+				collisionhandleshark((Shark) collisions.getContact(i));
+				break;
+			case plant:
+				collisionhandleplant((Plant) collisions.getContact(i));
+				break;
+			case slime:
+				collisionhandleslime((Slime) collisions.getContact(i));
+				break;
+			default:
+			}
+		}
+	}
+	
+	private void collisionhandleshark(Shark shark){	
+	}
+	
+	private void collisionhandleplant(Plant plant){	
+	}
+	
+	private void collisionhandleslime(Slime slime){	
 	}
 	
 	/**
@@ -723,49 +745,6 @@ public class Mazub extends GameObject{
 		return newvx;
 	}
 	
-	/**
-	 * Returns the new y-position after a given time has passed.
-	 * 
-	 * @param dt
-	 * 			The amount of seconds to be advanced.
-	 * @return	The new y-position after dt time has passed.
-	 * 			| max_s = maxAdvanceX(dt)
-	 * 			| actual_s = maxAdvanceX(dt)
-	 * 			| result = getYWithinBounds(getY() + (int) Math.round(Math.min(max_s, actual_s)))
-	 * @throws IllegalArgumentException
-	 * 			If dt isn't a valid time interval to advance the time with.
-	 * 			| !isValidDt(dt)
-	 */
-	@Model
-	private double advanceY(double dt) throws IllegalArgumentException {
-		if (!isValidDt(dt)) {
-			throw new IllegalArgumentException();
-		}
-		
-		double max_s = maxAdvanceY(dt);
-		// This second formula can be changed, the first one is static.
-		double actual_s = maxAdvanceY(dt);
-		double newy = getY() + Math.min(max_s, actual_s);
-		
-		return getYWithinBounds(newy);
-	}
-	
-	/**
-	 * Gets an y-position within the bounds of the game world.
-	 * 
-	 * @param y
-	 * 			The y-position which should be converted to a valid one.
-	 * @return	The new y-position. If it's already within the bounds, this will be equal to the given y.
-	 * 			If it's too small or too large, it will be set to the smallest or largest possible value, respectively.
-	 * 			| result = Math.max(0, Math.min(getWorldHeight() - 1, y))
-	 */
-	private double getYWithinBounds(double y) {
-		if(y >= 0 || y <= getWorld().getWindowHeight()-1)
-			return y;
-		terminate();
-		return Math.max(0, Math.min(getWorld().getWorldHeight() - 1, y));
-	}
-	
 	/**
 	 * Calculates the maximal change in y-position within a given period of time.
 	 * Currently also used to calculate the actual change in y-position within a given period of time.
@@ -822,16 +801,17 @@ public class Mazub extends GameObject{
 	 * Returns the new vertical acceleration at this Mazub's current y-position.
 	 * 
 	 * @return	The new vertical acceleration at this Mazub's current y-position has passed in meters per second squared.
-	 * 			This will be -10 if this Mazub's y-position is larger than 0, else it'll be 0.
-	 * 			| if (getY() == 0)
-	 * 			| 	then result = -10
+	 * 			This will be 0 if this Mazub rests on the ground or is at the top of the world, else it'll be -10. A Mazub
+	 * 			which is jumping off the ground doesn't rest on it anymore.
+	 * 			| if ((canjump() && (getVy() <= 0)) || ((int) getY() == getWorld().getWorldHeight() - 1))
+	 * 			| 	then result = 0
 	 * 			| else
-	 * 			|	result = getAy()
+	 * 			|	result = -10
 	 */
 	@Model
 	private double advanceAy() {
 		
-		if (canjump() || (int) getY() == getWorld().getWorldHeight() -1 ) {
+		if ((canjump() && (getVy() <= 0)) || (int) getY() == getWorld().getWorldHeight() -1 ) {
 			return 0;
 		} else {
 			return -10;
@@ -977,20 +957,25 @@ public class Mazub extends GameObject{
 	/**
 	 * Returns wether or not this Mazub is (partially) on solid ground
 	 * 
-	 * @return 	if this mazub is (partially) on solid ground true else it returns false
-	 * 			| for(int x = (int) Math.round(getX()); x < (int) Math.round(getX()) + getWidth(); x ++){
-	 *			| 	if(getWorld().getFeature(getWorld().getTilePos(x),getWorld().getTilePos((int) Math.round(getY())))
-	 *			|		== Feature.ground)
-	 *			|		result =  true;
-	 *			| result = false
+	 * @return 	if this mazub is (partially) on solid ground true else it returns false, a mazub without a world has no
+	 * 			ground to stand on
+	 * 			| result = (getWorld() != null)
+	 * 			|	&& getWorld().isOnGround((int) Math.round(getX()), (int) Math.round(getY()), getWidth())
 	 */
 	public boolean canjump(){
-		for(int x = (int) Math.round(getX()); x < (int) Math.round(getX()) + getWidth(); x ++){
-			if(getWorld().getFeature(getWorld().getTilePos(x),getWorld().getTilePos((int) Math.round(getY())))
-					== Feature.ground)
-				return true;
-		}
-		return false;
+		return (getWorld() != null)
+				&& getWorld().isOnGround((int) Math.round(getX()), (int) Math.round(getY()), getWidth());
+	}
+	
+	/**
+	 * Checks whether this Mazub is jumping or falling. Unlike canjump(), this doesn't depend on the size of the current
+	 * sprite, so it can be used to choose that sprite.
+	 * 
+	 * @return	...
+	 * 			| result = ((getVy() != 0) || (getAy() != 0))
+	 */
+	private boolean isInAir() {
+		return ((getVy() != 0) || (getAy() != 0));
 	}
 	
 	/**
@@ -1024,13 +1009,14 @@ public class Mazub extends GameObject{
 	}
 	
 	private boolean canstand(){
+		// Without a world, nothing can lie above this Mazub.
+		if (getWorld() == null) {
+			return true;
+		}
 		int currentheigth = getCurrentSprite().getHeight();
 		int standingheigth = getheightwhennotducking();
-		for(int heigth = currentheigth; heigth <=  standingheigth; heigth ++){
-			// if(collision detect){
-			//		return false;
-		}
-		return true;
+		return !getWorld().overlapsFeature((int) Math.round(getX()), (int) Math.round(getY()) + currentheigth,
+				getWidth(), standingheigth - currentheigth, Feature.ground);
 	}
 	
 	/**
@@ -1058,11 +1044,11 @@ public class Mazub extends GameObject{
 			return getImages()[2].getHeight();
 		else if(getVx() == 0 && getLastMove() < 0)
 			return getImages()[3].getHeight();
-		else if(getVx() > 0 && getY() > 0)
+		else if(getVx() > 0 && isInAir())
 			return getImages()[4].getHeight();
-		else if(getVx() < 0 && getY() > 0)
+		else if(getVx() < 0 && isInAir())
 			return getImages()[5].getHeight();
-		else if(getVx() > 0 && getY() == 0)
+		else if(getVx() > 0 && !isInAir())
 			return getImages()[8 + getCurrentFrameIndex()].getHeight();
 		else 
 			return getImages()[8 + getFramesAmount() + getCurrentFrameIndex()].getHeight();
@@ -1116,7 +1102,7 @@ public class Mazub extends GameObject{
 			// Everything which happens if Mazub's moving right.
 			
 			if (!getDucking()) {
-				if (getY() > 0) {
+				if (isInAir()) {
 					return getImages()[4];
 				} else {
 					return getImages()[8 + getCurrentFrameIndex()];
@@ -1128,7 +1114,7 @@ public class Mazub extends GameObject{
 			// Everything which happens if Mazub's moving left.
 			
 			if (!getDucking()) {
-				if (getY() > 0) {
+				if (isInAir()) {
 					return getImages()[5];
 				} else {
 					return getImages()[8 + getFramesAmount() + getCurrentFrameIndex()];
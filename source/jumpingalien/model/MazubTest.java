@@ -10,11 +10,19 @@ import org.junit.Test;
 
 public class MazubTest {
 
+	// A world of 1024 by 768 pixels, with a row of ground pixels at the bottom on which the alien stands.
 	@Before
 	public void setUp() throws Exception {
+		this.world = new World(1, 1024, 768, 1024, 768, 1, 1);
+		for (int x = 0; x < 1024; x++) {
+			world.setTileFeature(x, 0, Feature.ground);
+		}
 		this.basic_alien = new Mazub(0, 0, JumpingAlienSprites.ALIEN_SPRITESET);
+		World.setMazub(world, basic_alien);
 	}
 	
+	private World world;
+	
 	private Mazub basic_alien;
 	
 	@After
@@ -246,6 +254,11 @@ public class MazubTest {
 
 		assertEquals(basic_alien.getVy(), 0, Util.DEFAULT_EPSILON);
 		assertEquals(pos < basic_alien.getY(), true);
+		
+		// Mazub can only jump again once it has landed.
+		while (!basic_alien.canjump()) {
+			basic_alien.advanceTime(0.1);
+		}
 		pos = basic_alien.getY();
 		
 		basic_alien.startJump();
@@ -362,7 +375,8 @@ public class MazubTest {
 		
 		basic_alien.endDuck();
 
-		assertEquals(basic_alien.getY() > 0, false);
+		// Back on the ground.
+		assertEquals(basic_alien.canjump(), true);
 		assertEquals(basic_alien.getDucking(), false);
 		
 		basic_alien.startMove("right");
@@ -563,15 +577,18 @@ public class MazubTest {
 	
 	@Test
 	public void TestadvanceTimeupdatingxpositionnewxoutsidebounds(){
+		// Mazub is terminated when it leaves the world.
 		basic_alien.setVx(-1);
 		basic_alien.setAx(-1);
 		basic_alien.advanceTime(0.1);
-		assert(basic_alien.getX() == 0);
+		assertNull(basic_alien.getWorld());
+		assertNull(world.getPlayer());
+		basic_alien = new Mazub(world.getWorldWidth()-1, 0, JumpingAlienSprites.ALIEN_SPRITESET);
+		World.setMazub(world, basic_alien);
 		basic_alien.setVx(1);
 		basic_alien.setAx(1);
-		basic_alien.setX(basic_alien.getWorld().getWorldWidth()-1);
 		basic_alien.advanceTime(0.1);
-		assert(basic_alien.getX() == basic_alien.getWorld().getWorldWidth()-1);
+		assertNull(basic_alien.getWorld());
 	}
 	
 	@Test
@@ -583,6 +600,8 @@ public class MazubTest {
 	
 	@Test
 	public void TestadvanceTimeupdatinghorizontalvelocitynewvxoutsidebounds(){
+		// Far enough from the edges of the world not to leave it.
+		basic_alien.setX(500);
 		basic_alien.setAx(-1);
 		basic_alien.setVx(-basic_alien.getVxmax());
 		basic_alien.advanceTime(0.1);
@@ -610,7 +629,8 @@ public class MazubTest {
 		basic_alien.setVy(1);
 		basic_alien.setY(basic_alien.getWorld().getWorldHeight()-1);
 		basic_alien.advanceTime(0.1);
-		assert(basic_alien.getY() == basic_alien.getWorld().getWorldHeight()-1);
+		// Mazub is terminated when it leaves the world.
+		assertNull(basic_alien.getWorld());
 	}
 	
 	@Test
@@ -1,8 +1,41 @@
 package jumpingalien.model;
 
 import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+import jumpingalien.util.Sprite;
 
-public class Plant {
+public class Plant implements Collidable {
+	
+	/**
+	 * Creates a new plant at the given position, which doesn't belong to a world yet.
+	 * 
+	 * @param x
+	 * 			The x-position of the new plant, in pixels.
+	 * @param y
+	 * 			The y-position of the new plant, in pixels.
+	 * @param images
+	 * 			The sprites of the new plant, facing left and right respectively.
+	 * @pre		x must be a valid x position
+	 * 			| isValidX(x)
+	 * @pre		There must be a sprite for each direction.
+	 * 			| images.length == 2
+	 * @post	...
+	 * 			| (new.getX() == x) && (new.getY() == y) && (new.getImages() == images)
+	 */
+	public Plant(double x, double y, Sprite[] images) {
+		assert(images.length == 2);
+		setX(x);
+		this.y = y;
+		this.images = images;
+	}
+	
+	/**
+	 * Gets the contact type of this plant.
+	 */
+	@Override @Immutable
+	public ContactType getContactType() {
+		return ContactType.plant;
+	}
 	
 	/**
 	 * Gets this plants x-position.
@@ -33,15 +66,68 @@ public class Plant {
 	 * 
 	 * @param x
 	 * 			The x-position that which should be checked.
-	 * @return	Returns true if x is between 0 and the world width.
-	 * 			| result = (x >= 0 && x < getWorld().getWorldWidth())
+	 * @return	Returns true if x is between 0 and the world width, or isn't negative if this plant isn't in a world.
+	 * 			| result = (x >= 0 && (getWorld() == null || x < getWorld().getWorldWidth()))
 	 */
 	public boolean isValidX(double x){
-		return(x >= 0 && x < getWorld().getWorldWidth());
+		return(x >= 0 && ((getWorld() == null) || (x < getWorld().getWorldWidth())));
 	}
 	
 	private double x;
 	
+	/**
+	 * Gets this plants y-position.
+	 */
+	@Basic @Immutable
+	public double getY(){
+		return this.y;
+	}
+	
+	private final double y;
+	
+	/**
+	 * Gets the sprites of this plant, facing left and right respectively.
+	 */
+	@Basic @Immutable
+	public Sprite[] getImages(){
+		return this.images;
+	}
+	
+	private final Sprite[] images;
+	
+	/**
+	 * Gets the current sprite of this plant, which faces the direction it moves in.
+	 * 
+	 * @return	...
+	 * 			| if (getVx() < 0)
+	 * 			|	then result = getImages()[0]
+	 * 			| else
+	 * 			|	result = getImages()[1]
+	 */
+	public Sprite getCurrentSprite(){
+		return (getVx() < 0) ? getImages()[0] : getImages()[1];
+	}
+	
+	/**
+	 * Gets the width of this plant, in pixels.
+	 * 
+	 * @return	...
+	 * 			| result = getCurrentSprite().getWidth()
+	 */
+	public int getWidth(){
+		return getCurrentSprite().getWidth();
+	}
+	
+	/**
+	 * Gets the height of this plant, in pixels.
+	 * 
+	 * @return	...
+	 * 			| result = getCurrentSprite().getHeight()
+	 */
+	public int getHeight(){
+		return getCurrentSprite().getHeight();
+	}
+	
 	/**
 	 * Gets this plants horizontal velocity.
 	 */
@@ -137,7 +223,7 @@ public class Plant {
 	 * @post	the new world of this plant is equal to world
 	 * 			| new.getWorld() = world
 	 */
-	private void setWorld(World world){
+	protected void setWorld(World world){
 		this.world = world;
 	}
 	
@@ -148,30 +234,24 @@ public class Plant {
 	 * 
 	 * @param dt
 	 * 			The amount of seconds to advance.
-	 * @effect	if the current movement time exceeds 0.5 it will be reduced by 0.5 
-	 * 			and the direction of this plant will be changed
-	 * 			|if(getMovementTime() + dt > 0.5)
-	 *			|	setMovementTime(getMovementTime() +dt - 0.5)
-	 *			|	changeDirection()
 	 *@effect	Advances the DeathTime of this plant.
 	 *			|advanceDeathTime(dt)
-	 *@effect	
+	 *@effect	Moves this plant along its periodic path, changing its direction every movement_period seconds.
+	 *			|advanceX(dt)
+	 *@effect	The bounding box of this plant is updated in the spatial index of its world.
+	 *			|getWorld().updateBounds(this, (int) getX(), (int) getY(), getWidth(), getHeight())
+	 * @throws 	IllegalArgumentException
+	 * 			if dt is not a valid time
+	 * 			| !isValidDt(dt)
 	 */
 	public void advanceTime(double dt)throws IllegalArgumentException{
 		if (!isValidDt(dt)) {
 			throw new IllegalArgumentException();
 		}
 		
-		double timestep = 1 / Math.abs(getVx()/100); 
-		for(double time = timestep; timestep <= dt; time += timestep){
-			// collision detect toevoegen
-			advanceDeathTime(time);
-			advanceX(time);
-			if(getMovementTime() + time > 0.5){
-				setMovementTime(getMovementTime() + time - 0.5);
-				changeDirection();			
-			}
-		}
+		advanceDeathTime(dt);
+		advanceX(dt);
+		getWorld().updateBounds(this, (int) getX(), (int) getY(), getWidth(), getHeight());
 	}
 	
 	/**
@@ -187,11 +267,19 @@ public class Plant {
 	}
 	
 	/**
-	 * Returns the x-position of this plant after a given time. 
+	 * Moves this plant to its position after a given time, which is computed directly from the elapsed time since the
+	 * motion is piecewise linear: this plant keeps moving in one direction until its movement time reaches
+	 * movement_period, then turns around.
+	 * 
 	 * @param dt
 	 * 			The time to advance.
-	 * @return	The new x-position after dt time has passed.
-	 * 			| result = getXWithinBounds(getX() + GetVx()*dt)
+	 * @effect	The direction is changed once for every time the movement time passes movement_period, and the
+	 * 			new position is clamped to the world.
+	 * 			| flips = (int) Math.floor((getMovementTime() + dt)/movement_period)
+	 * 			| setMovementTime(getMovementTime() + dt - flips*movement_period)
+	 * 			| if (flips % 2 == 1)
+	 * 			|	then changeDirection()
+	 * 			| setXWithinBounds(getX() + 100*(the distance travelled along the path during dt))
 	 * @throws 	IllegalArgumentException
 	 * 			if dt is not a valid time
 	 * 			| !isValidDt(dt)
@@ -200,10 +288,36 @@ public class Plant {
 		if(!isValidDt(dt))
 			throw new IllegalArgumentException();
 		
-		double newx = getX() + getVx()*dt;
-		setXWithinBounds(newx);
+		double phase = getMovementTime() + dt;
+		long flips = (long) Math.floor(phase/movement_period);
+		if (flips == 0) {
+			setMovementTime(phase);
+			setXWithinBounds(getX() + 100*getVx()*dt);
+			return;
+		}
+		
+		// Up to the first turn this plant moves at vx, after which whole periods alternate direction and cancel out
+		// in pairs, and the rest of the time is spent in the final direction.
+		double remainder = phase - flips*movement_period;
+		double distance = getVx()*(movement_period - getMovementTime());
+		if ((flips - 1) % 2 == 1) {
+			distance -= getVx()*movement_period;
+		}
+		double final_vx = (flips % 2 == 0) ? getVx() : -getVx();
+		distance += final_vx*remainder;
+		
+		if (flips % 2 == 1) {
+			changeDirection();
+		}
+		setMovementTime(remainder);
+		setXWithinBounds(getX() + 100*distance);
 	}
 	
+	/**
+	 * The time a plant moves in one direction before turning around, in seconds.
+	 */
+	private static final double movement_period = 0.5;
+	
 	/**
 	 * Returns an x-position withing the boundaries of the world and if necessary kills the plant.
 	 * 
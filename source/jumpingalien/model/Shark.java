@@ -1,5 +1,15 @@
 package jumpingalien.model;
 
-public class Shark {
+import be.kuleuven.cs.som.annotate.Immutable;
+
+public class Shark implements Collidable {
+
+	/**
+	 * Gets the contact type of this shark.
+	 */
+	@Override @Immutable
+	public ContactType getContactType() {
+		return ContactType.shark;
+	}
 
 }
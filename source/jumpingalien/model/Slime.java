@@ -1,5 +1,15 @@
 package jumpingalien.model;
 
-public class Slime {
+import be.kuleuven.cs.som.annotate.Immutable;
+
+public class Slime implements Collidable {
+
+	/**
+	 * Gets the contact type of this slime.
+	 */
+	@Override @Immutable
+	public ContactType getContactType() {
+		return ContactType.slime;
+	}
 
 }
@@ -0,0 +1,269 @@
+package jumpingalien.model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A uniform-grid spatial hash storing the bounding boxes of the objects in a world, used to find the objects near a given
+ * rectangle without testing every object in the world.
+ *
+ * Every object is stored in the bucket of each grid cell its bounding box covers. Cells are hashed onto a fixed amount of
+ * buckets, so the memory used does not depend on the size of the world.
+ *
+ * @invar	...
+ * 			| (getCellSize() > 0)
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+class SpatialIndex {
+
+	/**
+	 * Creates a new, empty spatial index.
+	 *
+	 * @param cell_size
+	 * 			The size (both width and height) of the grid cells, in pixels.
+	 * @param bucket_amount
+	 * 			The amount of buckets the cells are hashed onto, which will be rounded up to a power of two.
+	 * @pre		...
+	 * 			| (cell_size > 0) && (bucket_amount > 0)
+	 */
+	SpatialIndex(int cell_size, int bucket_amount) {
+		assert(cell_size > 0);
+		assert(bucket_amount > 0);
+
+		this.cell_size = cell_size;
+		int size = Integer.highestOneBit(Math.max(1, bucket_amount - 1)) << 1;
+		this.buckets = new ArrayList<List<Entry>>(size);
+		for (int i = 0; i < size; i++) {
+			buckets.add(new ArrayList<Entry>());
+		}
+		this.bucket_mask = size - 1;
+	}
+
+	/**
+	 * Gets the size of the grid cells of this index, in pixels.
+	 */
+	@Basic @Immutable
+	int getCellSize() {
+		return cell_size;
+	}
+
+	private final int cell_size;
+
+	private final List<List<Entry>> buckets;
+
+	private final int bucket_mask;
+
+	private final IdentityHashMap<Object, Entry> entries = new IdentityHashMap<Object, Entry>();
+
+	private int query_mark;
+
+	/**
+	 * Checks whether or not the given object is stored in this index.
+	 */
+	boolean contains(Object object) {
+		return entries.containsKey(object);
+	}
+
+	/**
+	 * Stores the given object with the given bounding box, or moves it if it's already stored.
+	 * The object is only re-bucketed if the set of cells it covers changes.
+	 *
+	 * @param object
+	 * 			The object which should be stored.
+	 * @param x
+	 * 			The X-position of the bottom left pixel of the bounding box.
+	 * @param y
+	 * 			The Y-position of the bottom left pixel of the bounding box.
+	 * @param width
+	 * 			The width of the bounding box, in pixels.
+	 * @param height
+	 * 			The height of the bounding box, in pixels.
+	 * @pre		...
+	 * 			| (object != null) && (width >= 0) && (height >= 0)
+	 */
+	void update(Object object, int x, int y, int width, int height) {
+		assert(object != null);
+		assert(width >= 0 && height >= 0);
+
+		Entry entry = entries.get(object);
+		if (entry == null) {
+			entry = new Entry(object);
+			entries.put(object, entry);
+			entry.setBounds(x, y, width, height);
+			insert(entry);
+			return;
+		}
+
+		int min_cell_x = entry.min_cell_x;
+		int min_cell_y = entry.min_cell_y;
+		int max_cell_x = entry.max_cell_x;
+		int max_cell_y = entry.max_cell_y;
+
+		entry.setBounds(x, y, width, height);
+
+		if ((min_cell_x != entry.min_cell_x) || (min_cell_y != entry.min_cell_y)
+				|| (max_cell_x != entry.max_cell_x) || (max_cell_y != entry.max_cell_y)) {
+			erase(entry, min_cell_x, min_cell_y, max_cell_x, max_cell_y);
+			insert(entry);
+		}
+	}
+
+	/**
+	 * Removes the given object from this index, if it's stored in it.
+	 */
+	void remove(Object object) {
+		Entry entry = entries.remove(object);
+		if (entry != null) {
+			erase(entry, entry.min_cell_x, entry.min_cell_y, entry.max_cell_x, entry.max_cell_y);
+		}
+	}
+
+	/**
+	 * Adds all objects whose bounding box touches or overlaps the given rectangle to the given list, except for the given
+	 * excluded object. Every object is added at most once.
+	 *
+	 * @param x
+	 * 			The X-position of the bottom left pixel of the rectangle.
+	 * @param y
+	 * 			The Y-position of the bottom left pixel of the rectangle.
+	 * @param width
+	 * 			The width of the rectangle, in pixels.
+	 * @param height
+	 * 			The height of the rectangle, in pixels.
+	 * @param excluded
+	 * 			An object which should never be added to the result, or null.
+	 * @param result
+	 * 			The list to which the found objects should be added.
+	 */
+	void query(int x, int y, int width, int height, Object excluded, List<Object> result) {
+		int mark = ++query_mark;
+
+		// Touching objects share an edge, so the cells right next to the rectangle are searched too.
+		int min_cell_x = getCell(x - 1);
+		int min_cell_y = getCell(y - 1);
+		int max_cell_x = getCell(x + width);
+		int max_cell_y = getCell(y + height);
+
+		for (int cell_x = min_cell_x; cell_x <= max_cell_x; cell_x++) {
+			for (int cell_y = min_cell_y; cell_y <= max_cell_y; cell_y++) {
+				List<Entry> bucket = getBucket(cell_x, cell_y);
+				for (int i = 0; i < bucket.size(); i++) {
+					Entry entry = bucket.get(i);
+					if ((entry.mark != mark) && (entry.object != excluded) && entry.touches(x, y, width, height)) {
+						entry.mark = mark;
+						result.add(entry.object);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies the bounding box with which the given object is stored into the given array, as {x, y, width, height}.
+	 *
+	 * @return	Whether or not the given object is stored in this index. If not, the given array is left unchanged.
+	 */
+	boolean getBounds(Object object, int[] bounds) {
+		Entry entry = entries.get(object);
+		if (entry == null) {
+			return false;
+		}
+		bounds[0] = entry.x;
+		bounds[1] = entry.y;
+		bounds[2] = entry.width;
+		bounds[3] = entry.height;
+		return true;
+	}
+
+	private void insert(Entry entry) {
+		for (int cell_x = entry.min_cell_x; cell_x <= entry.max_cell_x; cell_x++) {
+			for (int cell_y = entry.min_cell_y; cell_y <= entry.max_cell_y; cell_y++) {
+				List<Entry> bucket = getBucket(cell_x, cell_y);
+				// Distinct cells can share a bucket, in which case the entry is only stored once.
+				if (!containsEntry(bucket, entry)) {
+					bucket.add(entry);
+				}
+			}
+		}
+	}
+
+	private void erase(Entry entry, int min_cell_x, int min_cell_y, int max_cell_x, int max_cell_y) {
+		for (int cell_x = min_cell_x; cell_x <= max_cell_x; cell_x++) {
+			for (int cell_y = min_cell_y; cell_y <= max_cell_y; cell_y++) {
+				List<Entry> bucket = getBucket(cell_x, cell_y);
+				for (int i = bucket.size() - 1; i >= 0; i--) {
+					if (bucket.get(i) == entry) {
+						// Order within a bucket doesn't matter, so the last element is moved into the gap.
+						bucket.set(i, bucket.get(bucket.size() - 1));
+						bucket.remove(bucket.size() - 1);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean containsEntry(List<Entry> bucket, Entry entry) {
+		for (int i = 0; i < bucket.size(); i++) {
+			if (bucket.get(i) == entry) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the cell containing the given position, in pixels.
+	 */
+	private int getCell(int pos) {
+		return Math.floorDiv(pos, cell_size);
+	}
+
+	private List<Entry> getBucket(int cell_x, int cell_y) {
+		int hash = cell_x*0x9E3779B1 + cell_y*0x85EBCA77;
+		return buckets.get((hash ^ (hash >>> 16)) & bucket_mask);
+	}
+
+	/**
+	 * An object stored in a spatial index, together with its bounding box and the cells that box covers.
+	 */
+	private class Entry {
+
+		private Entry(Object object) {
+			this.object = object;
+		}
+
+		private void setBounds(int x, int y, int width, int height) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+
+			this.min_cell_x = getCell(x);
+			this.min_cell_y = getCell(y);
+			this.max_cell_x = getCell(x + Math.max(0, width - 1));
+			this.max_cell_y = getCell(y + Math.max(0, height - 1));
+		}
+
+		private boolean touches(int x, int y, int width, int height) {
+			return ((this.x <= x + width) && (x <= this.x + this.width)
+					&& (this.y <= y + height) && (y <= this.y + this.height));
+		}
+
+		private final Object object;
+
+		private int x, y, width, height;
+
+		private int min_cell_x, min_cell_y, max_cell_x, max_cell_y;
+
+		private int mark;
+
+	}
+
+}
@@ -0,0 +1,33 @@
+package jumpingalien.model;
+
+/**
+ * A source from which the geological features of a world are read on demand, one rectangular block of tiles at a time,
+ * instead of storing every tile of the world in memory.
+ *
+ * Implementations are called from a background thread, possibly while the game is running.
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+public interface TerrainSource {
+
+	/**
+	 * Reads the features of the given block of tiles, as the values used by the facade to represent them.
+	 *
+	 * @param tile_left
+	 * 			The X-position of the left column of the block, in tiles.
+	 * @param tile_bottom
+	 * 			The Y-position of the bottom row of the block, in tiles.
+	 * @param width
+	 * 			The width of the block, in tiles.
+	 * @param height
+	 * 			The height of the block, in tiles.
+	 * @param values
+	 * 			The array in which the values are stored, row by row from the bottom up.
+	 * @post	...
+	 * 			| for each i in 0..width-1, j in 0..height-1:
+	 * 			|	values[j*width + i] is the value of the feature of tile (tile_left + i, tile_bottom + j)
+	 */
+	public void readFeatures(int tile_left, int tile_bottom, int width, int height, byte[] values);
+
+}
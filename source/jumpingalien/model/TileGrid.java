@@ -0,0 +1,221 @@
+package jumpingalien.model;
+
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.Basic;
+import be.kuleuven.cs.som.annotate.Immutable;
+
+/**
+ * A dense grid of geological features, storing the facade value of each feature in one byte per tile, indexed directly by
+ * tile coordinates.
+ *
+ * @invar	...
+ * 			| (getTilesXAmount() > 0) && (getTilesYAmount() > 0)
+ *
+ * @author Michiel Bollen en Wouter Baert
+ * @version 1.0
+ */
+public class TileGrid {
+
+	/**
+	 * Creates a new tile grid in which every tile is air.
+	 *
+	 * @param tiles_x_amount
+	 * 			The amount of tiles in the X-direction.
+	 * @param tiles_y_amount
+	 * 			The amount of tiles in the Y-direction.
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| (tiles_x_amount <= 0) || (tiles_y_amount <= 0)
+	 * 			|	|| ((long) tiles_x_amount*tiles_y_amount > Integer.MAX_VALUE)
+	 * @post	...
+	 * 			| for each tile_x in 0..tiles_x_amount-1, tile_y in 0..tiles_y_amount-1:
+	 * 			|	new.getFeature(tile_x, tile_y) == Feature.air
+	 */
+	public TileGrid(int tiles_x_amount, int tiles_y_amount) throws IllegalArgumentException {
+		this(tiles_x_amount, tiles_y_amount, true);
+		Arrays.fill(tiles, (byte) Feature.air.getValue());
+	}
+
+	/**
+	 * Creates a new tile grid, which only allocates the dense backing array if asked to. Subclasses which store
+	 * their features differently must override both getFeature and setFeature.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| (tiles_x_amount <= 0) || (tiles_y_amount <= 0)
+	 * 			|	|| (dense && ((long) tiles_x_amount*tiles_y_amount > Integer.MAX_VALUE))
+	 */
+	protected TileGrid(int tiles_x_amount, int tiles_y_amount, boolean dense) throws IllegalArgumentException {
+		if ((tiles_x_amount <= 0) || (tiles_y_amount <= 0)
+				|| (dense && ((long) tiles_x_amount*tiles_y_amount > Integer.MAX_VALUE))) {
+			throw new IllegalArgumentException();
+		}
+
+		this.tiles_x_amount = tiles_x_amount;
+		this.tiles_y_amount = tiles_y_amount;
+		this.tiles = dense ? new byte[tiles_x_amount*tiles_y_amount] : null;
+	}
+
+	/**
+	 * Gets the amount of tiles in the X-direction of this grid.
+	 */
+	@Basic @Immutable
+	public int getTilesXAmount() {
+		return tiles_x_amount;
+	}
+
+	private final int tiles_x_amount;
+
+	/**
+	 * Gets the amount of tiles in the Y-direction of this grid.
+	 */
+	@Basic @Immutable
+	public int getTilesYAmount() {
+		return tiles_y_amount;
+	}
+
+	private final int tiles_y_amount;
+
+	/**
+	 * Checks whether or not the given tile coordinates lie within this grid.
+	 *
+	 * @param tile_x
+	 * 			The X-position of the tile, in tiles.
+	 * @param tile_y
+	 * 			The Y-position of the tile, in tiles.
+	 * @return	...
+	 * 			| result = ((tile_x >= 0) && (tile_x < getTilesXAmount())
+	 * 			|	&& (tile_y >= 0) && (tile_y < getTilesYAmount()))
+	 */
+	public boolean isValidTile(int tile_x, int tile_y) {
+		return ((tile_x >= 0) && (tile_x < getTilesXAmount())
+				&& (tile_y >= 0) && (tile_y < getTilesYAmount()));
+	}
+
+	/**
+	 * Gets the feature of the tile at the given tile coordinates.
+	 *
+	 * @param tile_x
+	 * 			The X-position of the tile, in tiles.
+	 * @param tile_y
+	 * 			The Y-position of the tile, in tiles.
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidTile(tile_x, tile_y)
+	 */
+	public Feature getFeature(int tile_x, int tile_y) throws IllegalArgumentException {
+		if (!isValidTile(tile_x, tile_y)) {
+			throw new IllegalArgumentException();
+		}
+		return features[tiles[getIndex(tile_x, tile_y)]];
+	}
+
+	/**
+	 * Sets the feature of the tile at the given tile coordinates.
+	 *
+	 * @param tile_x
+	 * 			The X-position of the tile, in tiles.
+	 * @param tile_y
+	 * 			The Y-position of the tile, in tiles.
+	 * @param feature
+	 * 			The new feature of the tile.
+	 * @post	...
+	 * 			| new.getFeature(tile_x, tile_y) == feature
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !isValidTile(tile_x, tile_y) || (feature == null)
+	 */
+	public void setFeature(int tile_x, int tile_y, Feature feature) throws IllegalArgumentException {
+		if (!isValidTile(tile_x, tile_y) || (feature == null)) {
+			throw new IllegalArgumentException();
+		}
+		tiles[getIndex(tile_x, tile_y)] = (byte) feature.getValue();
+	}
+
+	/**
+	 * Sets the features of all tiles at once.
+	 *
+	 * @param values
+	 * 			The values used by the facade to represent the new features, row by row from the bottom up.
+	 * @post	...
+	 * 			| for each tile_x in 0..getTilesXAmount()-1, tile_y in 0..getTilesYAmount()-1:
+	 * 			|	new.getFeature(tile_x, tile_y) == Feature.fromValue(values[tile_y*getTilesXAmount() + tile_x])
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| (values == null) || (values.length != getTilesXAmount()*getTilesYAmount())
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| for some value in values: !isValidValue(value)
+	 */
+	public void setFeatures(byte[] values) throws IllegalArgumentException {
+		if ((values == null) || (values.length != (long) getTilesXAmount()*getTilesYAmount())) {
+			throw new IllegalArgumentException();
+		}
+		for (byte value : values) {
+			if (!isValidValue(value)) {
+				throw new IllegalArgumentException();
+			}
+		}
+
+		if (tiles != null) {
+			System.arraycopy(values, 0, tiles, 0, values.length);
+		} else {
+			for (int tile_y = 0; tile_y < getTilesYAmount(); tile_y++) {
+				for (int tile_x = 0; tile_x < getTilesXAmount(); tile_x++) {
+					setFeature(tile_x, tile_y, features[values[getIndex(tile_x, tile_y)]]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether or not the given value represents a feature.
+	 *
+	 * @return	...
+	 * 			| result = (for some feature in Feature.values(): feature.getValue() == value)
+	 */
+	public static boolean isValidValue(byte value) {
+		return ((value >= 0) && (value < features.length) && (features[value] != null));
+	}
+
+	/**
+	 * Notifies this grid of the tiles which are currently visible. A dense grid keeps all of its tiles in memory,
+	 * so it ignores this.
+	 *
+	 * @param tile_left
+	 * 			The X-position of the leftmost visible column, in tiles.
+	 * @param tile_bottom
+	 * 			The Y-position of the bottom visible row, in tiles.
+	 * @param tile_right
+	 * 			The X-position of the rightmost visible column, in tiles.
+	 * @param tile_top
+	 * 			The Y-position of the top visible row, in tiles.
+	 */
+	public void setVisibleTiles(int tile_left, int tile_bottom, int tile_right, int tile_top) {
+	}
+
+	/**
+	 * Gets the index of the given tile in the backing array, which is stored row by row from the bottom up.
+	 *
+	 * @return	...
+	 * 			| result = tile_y*getTilesXAmount() + tile_x
+	 */
+	private int getIndex(int tile_x, int tile_y) {
+		return tile_y*tiles_x_amount + tile_x;
+	}
+
+	private final byte[] tiles;
+
+	/**
+	 * The features, indexed by the values used by the facade to represent them.
+	 */
+	protected static final Feature[] features = new Feature[Feature.values().length];
+
+	static {
+		for (Feature feature : Feature.values()) {
+			features[feature.getValue()] = feature;
+		}
+	}
+
+}
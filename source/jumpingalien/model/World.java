@@ -1,7 +1,7 @@
 package jumpingalien.model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 
 import be.kuleuven.cs.som.annotate.Basic;
 import be.kuleuven.cs.som.annotate.Immutable;
@@ -64,18 +64,40 @@ public class World {
 	 * 			| setYWindow(0)
 	 */
 	public World(int tile_size, int tiles_x_amount, int tiles_y_amount, int window_width, int window_height, int x_target, int y_target) {
+		this(tile_size, new TileGrid(tiles_x_amount, tiles_y_amount), window_width, window_height, x_target, y_target);
+	}
+	
+	/**
+	 * Creates a new world whose features are read from the given terrain source in chunks, as the window approaches
+	 * them, instead of being set tile by tile.
+	 * 
+	 * @param terrain
+	 * 			The source from which the features of this world are read.
+	 * @pre		...
+	 * 			| (terrain != null)
+	 * @effect	...
+	 * 			| this(tile_size, tiles_x_amount, tiles_y_amount, window_width, window_height, x_target, y_target)
+	 * @post	...
+	 * 			| (getTiles() instanceof ChunkedTileGrid)
+	 */
+	public World(int tile_size, int tiles_x_amount, int tiles_y_amount, int window_width, int window_height, int x_target, int y_target,
+			TerrainSource terrain) {
+		this(tile_size, new ChunkedTileGrid(tiles_x_amount, tiles_y_amount, terrain, prefetch_radius),
+				window_width, window_height, x_target, y_target);
+	}
+	
+	private World(int tile_size, TileGrid tiles, int window_width, int window_height, int x_target, int y_target) {
 		assert(tile_size > 0);
-		assert(tiles_x_amount > 0);
-		assert(tiles_y_amount > 0);
 		assert(x_target > 0);
 		assert(y_target > 0);
-		assert(x_target < tiles_x_amount);
-		assert(y_target < tiles_y_amount);
+		assert(x_target < tiles.getTilesXAmount());
+		assert(y_target < tiles.getTilesYAmount());
 		
 		this.tile_size = tile_size;
-		this.world_width = tiles_x_amount*getTileSize();
-		this.world_height = tiles_y_amount*getTileSize();
-		this.hashDigitsAmount = (int) Math.floor(Math.log10(tiles_y_amount) + 1);
+		this.world_width = tiles.getTilesXAmount()*getTileSize();
+		this.world_height = tiles.getTilesYAmount()*getTileSize();
+		this.tiles = tiles;
+		this.index = new SpatialIndex(tile_size, 4096);
 		
 		setWindowWidth(window_width);
 		setWindowHeight(window_height);
@@ -154,6 +176,7 @@ public class World {
 	 */
 	private void setXWindow(int x) {
 		this.x_window = getProperXWindow(x);
+		updateVisibleTiles();
 	}
 	
 	private int x_window;
@@ -176,6 +199,7 @@ public class World {
 	 */
 	private void setYWindow(int y) {
 		this.y_window = getProperYWindow(y);
+		updateVisibleTiles();
 	}
 	
 	private int y_window;
@@ -186,13 +210,18 @@ public class World {
 	 * @param x
 	 * 			The X-position which should be converted.
 	 * @return	...
-	 * 			| result = Math.max(0, Math.min(getWorldWidth() - getWindowWidth(),
-	 * 			| 	Math.max(player.getX() + window_margin - getWindowWidth(), Math.min(player.getX() - window_margin, x))
-	 * 			| ))
+	 * 			| if (player == null)
+	 * 			|	then result = Math.max(0, Math.min(getWorldWidth() - getWindowWidth(), x))
+	 * 			| else
+	 * 			|	result = Math.max(0, Math.min(getWorldWidth() - getWindowWidth(),
+	 * 			| 		Math.max(player.getX() + window_margin - getWindowWidth(), Math.min(player.getX() - window_margin, x))
+	 * 			| 	))
 	 */
 	public int getProperXWindow(int x) {
 		
-		if (x > player.getX() - window_margin) {
+		if (player == null) {
+			// There's no player to follow yet.
+		} else if (x > player.getX() - window_margin) {
 			// If Mazub is too close to the left wall.
 			x = (int) player.getX() - window_margin;
 		} else if (x + getWindowWidth() < player.getX() + window_margin) {
@@ -210,13 +239,18 @@ public class World {
 	 * @param y
 	 * 			The Y-position which should be converted.
 	 * @return	...
-	 * 			| result = Math.max(0, Math.min(getWorldHeight() - getWindowHeight(),
-	 * 			| 	Math.max(player.getY() + window_margin - getWindowHeight(), Math.min(player.getY() - window_margin, y))
-	 * 			| ))
+	 * 			| if (player == null)
+	 * 			|	then result = Math.max(0, Math.min(getWorldHeight() - getWindowHeight(), y))
+	 * 			| else
+	 * 			|	result = Math.max(0, Math.min(getWorldHeight() - getWindowHeight(),
+	 * 			| 		Math.max(player.getY() + window_margin - getWindowHeight(), Math.min(player.getY() - window_margin, y))
+	 * 			| 	))
 	 */
 	public int getProperYWindow(int y) {
 		
-		if (y > player.getY() - window_margin) {
+		if (player == null) {
+			// There's no player to follow yet.
+		} else if (y > player.getY() - window_margin) {
 			// If Mazub is too close to the left wall.
 			y = (int) player.getY() - window_margin;
 		} else if (y + getWindowHeight() < player.getY() + window_margin) {
@@ -230,6 +264,23 @@ public class World {
 	
 	private static final int window_margin = 200;
 	
+	/**
+	 * Notifies the tile grid of this world of the tiles which overlap with the window.
+	 * 
+	 * @effect	...
+	 * 			| getTiles().setVisibleTiles(getTilePos(getXWindow()), getTilePos(getYWindow()),
+	 * 			|	getTilePos(getXWindow() + getWindowWidth() - 1), getTilePos(getYWindow() + getWindowHeight() - 1))
+	 */
+	private void updateVisibleTiles() {
+		getTiles().setVisibleTiles(getTilePos(getXWindow()), getTilePos(getYWindow()),
+				getTilePos(getXWindow() + getWindowWidth() - 1), getTilePos(getYWindow() + getWindowHeight() - 1));
+	}
+	
+	/**
+	 * The amount of chunks around the window which a chunked tile grid loads in advance.
+	 */
+	private static final int prefetch_radius = 1;
+	
 	/**
 	 * Gets the window width of this game world's window.
 	 */
@@ -329,10 +380,18 @@ public class World {
 	 * @param pos
 	 * 			The position which should be checked.
 	 * @return	...
-	 * 			| result = (int) Math.floor(pos/getTileSize())
+	 * 			| result = Math.floorDiv(pos, getTileSize())
 	 */
 	protected int getTilePos(int pos) {
-		return (int) Math.floor(pos/getTileSize());
+		return Math.floorDiv(pos, getTileSize());
+	}
+	
+	/**
+	 * Gets the player in this world, or null if there is none.
+	 */
+	@Basic
+	public Mazub getPlayer() {
+		return player;
 	}
 	
 	/**
@@ -341,19 +400,25 @@ public class World {
 	 * @param world
 	 * 			The world which should be associated with the player.
 	 * @param player
-	 * 			The player which should be associated with the world.
+	 * 			The player which should be associated with the world, or null if the world's player should be removed.
 	 * @pre		...
 	 * 			| (world != null)
 	 * @post	...
 	 * 			| (world.getPlayer() == player)
 	 * @effect	...
-	 * 			| player.setWorld(world)
+	 * 			| if (player != null)
+	 * 			|	then player.setWorld(world)
 	 */
 	public static void setMazub(World world, Mazub player) {
 		assert(world != null);
 		
+		if (world.player != null) {
+			world.removeBounds(world.player);
+		}
 		world.player = player;
-		player.setWorld(world);
+		if (player != null) {
+			player.setWorld(world);
+		}
 	}
 	
 	private Mazub player;
@@ -378,6 +443,30 @@ public class World {
 
 	private final ArrayList<Plant> plants = new ArrayList<Plant>();
 	
+	/**
+	 * Adds the given plant to this world, and stores its bounding box in this world's spatial index.
+	 * 
+	 * @param plant
+	 * 			The plant which should be added.
+	 * @pre		...
+	 * 			| (plant != null) && (plant.getWorld() == null) && plant.isValidX(plant.getX())
+	 * @post	...
+	 * 			| new.getPlants().contains(plant)
+	 * @effect	...
+	 * 			| plant.setWorld(this)
+	 * @effect	...
+	 * 			| updateBounds(plant, (int) plant.getX(), (int) plant.getY(), plant.getWidth(), plant.getHeight())
+	 */
+	public void addPlant(Plant plant) {
+		assert(plant != null);
+		assert(plant.getWorld() == null);
+		
+		plants.add(plant);
+		plant.setWorld(this);
+		assert(plant.isValidX(plant.getX()));
+		updateBounds(plant, (int) plant.getX(), (int) plant.getY(), plant.getWidth(), plant.getHeight());
+	}
+	
 	/**
 	 * Gets the list of sharks in this world.
 	 */
@@ -389,19 +478,136 @@ public class World {
 	private final ArrayList<School> schools = new ArrayList<School>();
 	
 	/**
-	 * Gets the hash of a given x and y position.
+	 * Advances the time in this world by a given time. The player is always advanced at full resolution, after which
+	 * the window follows it. Other entities are only advanced every time while they lie within the activity region;
+	 * outside of it their time is collected and advanced in larger steps, and caught up as soon as they re-enter it.
+	 * 
+	 * @param dt
+	 * 			The amount of seconds to be advanced.
+	 * @effect	...
+	 * 			| if (player != null)
+	 * 			|	then player.advanceTime(dt)
+	 * @effect	...
+	 * 			| if (player != null)
+	 * 			|	then setXWindow(getXWindow()) && setYWindow(getYWindow())
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !GameObject.isValidDt(dt)
+	 */
+	public void advanceTime(double dt) throws IllegalArgumentException {
+		if (!GameObject.isValidDt(dt)) {
+			throw new IllegalArgumentException();
+		}
+		
+		if (player != null) {
+			player.advanceTime(dt);
+		}
+		// The player may have left the world while advancing.
+		if (player != null) {
+			setXWindow(getXWindow());
+			setYWindow(getYWindow());
+		}
+		
+		// An indexed loop, so no iterator is allocated every frame.
+		for (int i = 0; i < plants.size(); i++) {
+			Plant plant = plants.get(i);
+			boolean active = isInActivityRegion((int) plant.getX(), (int) plant.getY(), plant.getWidth(), plant.getHeight());
+			advancePlant(plant, active, dt);
+		}
+	}
+	
+	/**
+	 * Advances the time of a single plant.
+	 * 
+	 * @param plant
+	 * 			The plant which should be advanced.
+	 * @param active
+	 * 			Whether or not the plant lies within the activity region.
+	 * @param dt
+	 * 			The amount of seconds to be advanced.
+	 */
+	private void advancePlant(Plant plant, boolean active, double dt) {
+		double[] pending = pending_times.get(plant);
+		if (active) {
+			if (pending != null) {
+				pending_times.remove(plant);
+				if (pending[0] > 0) {
+					plant.advanceTime(pending[0]);
+				}
+			}
+			plant.advanceTime(dt);
+		} else {
+			if (pending == null) {
+				pending = new double[1];
+				pending_times.put(plant, pending);
+			}
+			if (pending[0] + dt < max_inactive_step) {
+				pending[0] += dt;
+			} else {
+				// Both the collected time and dt are valid time intervals, but their sum might not be.
+				if (pending[0] > 0) {
+					plant.advanceTime(pending[0]);
+				}
+				pending[0] = dt;
+			}
+		}
+	}
+	
+	/**
+	 * The time which has been collected for each plant outside of the activity region, but not advanced yet.
+	 */
+	private final IdentityHashMap<Plant, double[]> pending_times = new IdentityHashMap<Plant, double[]>();
+	
+	/**
+	 * The largest amount of time which is collected for an entity outside of the activity region before it is advanced.
+	 */
+	private static final double max_inactive_step = 0.19;
+	
+	/**
+	 * Checks whether or not the given rectangular region lies (partially) within the activity region, which is the
+	 * window extended by the activity radius on every side.
 	 * 
-	 * @param x
-	 * 			The X-position which should be converted to a hash.
-	 * @param y
-	 * 			The Y-position which should be converted to a hash.
 	 * @return	...
-	 * 			| result = ((int) Math.pow(10, getHashDigitsAmount()))*x + y
+	 * 			| result = ((pixel_left + width > getXWindow() - getActivityRadius())
+	 * 			|	&& (pixel_left < getXWindow() + getWindowWidth() + getActivityRadius())
+	 * 			|	&& (pixel_bottom + height > getYWindow() - getActivityRadius())
+	 * 			|	&& (pixel_bottom < getYWindow() + getWindowHeight() + getActivityRadius()))
+	 */
+	public boolean isInActivityRegion(int pixel_left, int pixel_bottom, int width, int height) {
+		return ((pixel_left + width > getXWindow() - getActivityRadius())
+				&& (pixel_left < getXWindow() + getWindowWidth() + getActivityRadius())
+				&& (pixel_bottom + height > getYWindow() - getActivityRadius())
+				&& (pixel_bottom < getYWindow() + getWindowHeight() + getActivityRadius()));
+	}
+	
+	/**
+	 * Gets the distance by which the activity region extends beyond the window on every side, in pixels.
+	 */
+	@Basic
+	public int getActivityRadius() {
+		return activity_radius;
+	}
+	
+	/**
+	 * Sets the distance by which the activity region extends beyond the window on every side.
+	 * 
+	 * @param activity_radius
+	 * 			The new activity radius, in pixels.
+	 * @post	...
+	 * 			| new.getActivityRadius() == activity_radius
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| (activity_radius < 0)
 	 */
-	public int getHash(int x, int y) {
-		return ((int) Math.pow(10, getHashDigitsAmount()))*x + y;
+	public void setActivityRadius(int activity_radius) throws IllegalArgumentException {
+		if (activity_radius < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.activity_radius = activity_radius;
 	}
 	
+	private int activity_radius = 500;
+	
 	/**
 	 * Gets the feature at a given X- and Y-position.
 	 * 
@@ -410,50 +616,498 @@ public class World {
 	 * @param y
 	 * 			The Y-position which should be checked, in pixels.
 	 * @return	...
-	 * 			| result = getFeatures().get(getHash(getTilePos(x), getTilePos(y)))
+	 * 			| if (getTiles().isValidTile(getTilePos(x), getTilePos(y)))
+	 * 			|	then result = getTiles().getFeature(getTilePos(x), getTilePos(y))
+	 * 			| else
+	 * 			|	result = null
 	 */
 	public Feature getFeature(int x, int y) {
-		return getFeatures().get(getHash(getTilePos(x), getTilePos(y)));
+		int tile_x = getTilePos(x);
+		int tile_y = getTilePos(y);
+		if (!getTiles().isValidTile(tile_x, tile_y)) {
+			return null;
+		}
+		return getTiles().getFeature(tile_x, tile_y);
 	}
 	
 	/**
-	 * Gets the hashmap containing the features of this world.
+	 * Gets the feature of the tile at the given tile position.
+	 * 
+	 * @param tile_x
+	 * 			The X-position of the tile, in tiles.
+	 * @param tile_y
+	 * 			The Y-position of the tile, in tiles.
+	 * @return	...
+	 * 			| result = getTiles().getFeature(tile_x, tile_y)
+	 * @throws	IllegalArgumentException
+	 * 			...
+	 * 			| !getTiles().isValidTile(tile_x, tile_y)
 	 */
-	@Basic @Immutable
-	public HashMap<Integer, Feature> getFeatures() {
-		return features;
+	public Feature getTileFeature(int tile_x, int tile_y) throws IllegalArgumentException {
+		return getTiles().getFeature(tile_x, tile_y);
+	}
+	
+	/**
+	 * Sets the feature of the tile at the given tile position.
+	 * 
+	 * @param tile_x
+	 * 			The X-position of the tile, in tiles.
+	 * @param tile_y
+	 * 			The Y-position of the tile, in tiles.
+	 * @param feature
+	 * 			The new feature of the tile.
+	 * @effect	...
+	 * 			| getTiles().setFeature(tile_x, tile_y, feature)
+	 */
+	public void setTileFeature(int tile_x, int tile_y, Feature feature) throws IllegalArgumentException {
+		getTiles().setFeature(tile_x, tile_y, feature);
+		this.feature_sums = null;
+		if (ground_heightmap != null) {
+			ground_heightmap.update(tile_x, tile_y);
+		}
+	}
+	
+	/**
+	 * Sets the features of all tiles of this world at once.
+	 * 
+	 * @param values
+	 * 			The values used by the facade to represent the new features, row by row from the bottom up.
+	 * @effect	...
+	 * 			| getTiles().setFeatures(values)
+	 */
+	public void setTileFeatures(byte[] values) throws IllegalArgumentException {
+		getTiles().setFeatures(values);
+		this.feature_sums = null;
+		if (ground_heightmap != null) {
+			this.ground_heightmap = new GroundHeightmap(getTiles());
+		}
 	}
 	
-	private final HashMap<Integer, Feature> features = new HashMap<Integer,Feature>();
+	/**
+	 * Starts the game in this world. The features of the tiles are not expected to change anymore, so they are counted
+	 * in summed-area tables and a ground heightmap, unless the world is streamed or too large to keep those in memory.
+	 */
+	public void startGame() {
+		if (!(getTiles() instanceof ChunkedTileGrid)
+				&& ((long) getTiles().getTilesXAmount()*getTiles().getTilesYAmount() <= max_summed_tiles)) {
+			this.feature_sums = new FeatureSums(getTiles());
+			this.ground_heightmap = new GroundHeightmap(getTiles());
+		}
+	}
 	
 	/**
-	 * Gets the amount of digits needed to store the Y-position of a tile in base 10 in this world.
+	 * Checks whether the given rectangular region overlaps with a tile of the given feature.
+	 * 
+	 * @param pixel_left
+	 * 			The X-position of the leftmost pixel of the region.
+	 * @param pixel_bottom
+	 * 			The Y-position of the bottom pixel of the region.
+	 * @param width
+	 * 			The width of the region, in pixels.
+	 * @param height
+	 * 			The height of the region, in pixels.
+	 * @param feature
+	 * 			The feature which should be checked.
+	 * @return	...
+	 * 			| result = (for some x in pixel_left..pixel_left+width-1, y in pixel_bottom..pixel_bottom+height-1:
+	 * 			|	getFeature(x, y) == feature)
+	 */
+	public boolean overlapsFeature(int pixel_left, int pixel_bottom, int width, int height, Feature feature) {
+		int left = Math.max(0, getTilePos(pixel_left));
+		int bottom = Math.max(0, getTilePos(pixel_bottom));
+		int right = Math.min(getTiles().getTilesXAmount() - 1, getTilePos(pixel_left + width - 1));
+		int top = Math.min(getTiles().getTilesYAmount() - 1, getTilePos(pixel_bottom + height - 1));
+		if ((width <= 0) || (height <= 0) || (left > right) || (bottom > top)) {
+			return false;
+		}
+		
+		if (feature_sums != null) {
+			return (feature_sums.getAmount(feature, left, bottom, right, top) > 0);
+		}
+		for (int tile_y = bottom; tile_y <= top; tile_y++) {
+			for (int tile_x = left; tile_x <= right; tile_x++) {
+				if (getTiles().getFeature(tile_x, tile_y) == feature) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * The summed-area tables of the features of this world, or null if they haven't been created since the last change.
+	 */
+	private FeatureSums feature_sums;
+	
+	/**
+	 * The largest amount of tiles for which summed-area tables and a ground heightmap are kept, which take 16 bytes per
+	 * tile together.
+	 */
+	private static final long max_summed_tiles = 1 << 22;
+	
+	/**
+	 * Gets the Y-position of the top of the highest ground tile which lies at or below the given Y-position, in one of
+	 * the columns overlapping with the given horizontal range.
+	 * 
+	 * @param pixel_left
+	 * 			The X-position of the leftmost pixel of the range.
+	 * @param pixel_y
+	 * 			The Y-position from which to look down, in pixels.
+	 * @param width
+	 * 			The width of the range, in pixels.
+	 * @return	The top of the floor, which lies above pixel_y if pixel_y lies inside a ground tile, or -1 if there is no
+	 * 			ground tile at or below pixel_y in any of the columns.
+	 * 			| result = max({-1} + {(tile_y + 1)*getTileSize() | tile_y <= getTilePos(pixel_y)
+	 * 			|	&& for some x in pixel_left..pixel_left+width-1: getFeature(x, tile_y*getTileSize()) == Feature.ground})
+	 */
+	public int getFloorBelow(int pixel_left, int pixel_y, int width) {
+		int left = Math.max(0, getTilePos(pixel_left));
+		int right = Math.min(getTiles().getTilesXAmount() - 1, getTilePos(pixel_left + width - 1));
+		int row = Math.min(getTiles().getTilesYAmount() - 1, getTilePos(pixel_y));
+		
+		int floor = -1;
+		for (int tile_x = left; (tile_x <= right) && (row >= 0); tile_x++) {
+			int ground;
+			if (ground_heightmap != null) {
+				ground = ground_heightmap.getGroundBelow(tile_x, row);
+			} else {
+				ground = row;
+				while ((ground >= 0) && (getTiles().getFeature(tile_x, ground) != Feature.ground)) {
+					ground--;
+				}
+			}
+			floor = Math.max(floor, ground);
+		}
+		return (floor < 0) ? -1 : (floor + 1)*getTileSize();
+	}
+	
+	/**
+	 * Checks whether the given row of pixels rests on a ground tile, which is the case if the row lies on top of a
+	 * ground tile or overlaps with one.
+	 * 
+	 * @param pixel_left
+	 * 			The X-position of the leftmost pixel of the row.
+	 * @param pixel_y
+	 * 			The Y-position of the row.
+	 * @param width
+	 * 			The width of the row, in pixels.
+	 * @return	...
+	 * 			| result = (getFloorBelow(pixel_left, pixel_y, width) >= pixel_y)
+	 */
+	public boolean isOnGround(int pixel_left, int pixel_y, int width) {
+		return (getFloorBelow(pixel_left, pixel_y, width) >= pixel_y);
+	}
+	
+	/**
+	 * Checks whether the given rectangular region contains no ground tiles and no blocking objects other than the given
+	 * object, in which case nothing can stop a movement within it.
+	 * 
+	 * @param object
+	 * 			The object which is moving.
+	 * @return	...
+	 * 			| result = (getFloorBelow(pixel_left, pixel_bottom + height - 1, width) <= pixel_bottom)
+	 * 			|	&& (no blocking object other than object overlaps with the region)
+	 */
+	public boolean isClear(Object object, int pixel_left, int pixel_bottom, int width, int height) {
+		if (getFloorBelow(pixel_left, pixel_bottom + height - 1, width) > pixel_bottom) {
+			return false;
+		}
+		
+		boolean clear = true;
+		candidates.clear();
+		index.query(pixel_left, pixel_bottom, width, height, object, candidates);
+		for (int i = 0; i < candidates.size(); i++) {
+			if (((Collidable) candidates.get(i)).getContactType().isBlocking()) {
+				clear = false;
+			}
+		}
+		candidates.clear();
+		return clear;
+	}
+	
+	/**
+	 * The ground heightmap of this world, or null if it hasn't been created.
+	 */
+	private GroundHeightmap ground_heightmap;
+	
+	/**
+	 * Gets the positions of all tiles which overlap with the given rectangular region, ordered from left to right
+	 * and from bottom to top.
+	 * 
+	 * @param pixel_left
+	 * 			The X-position of the left side of the region, in pixels.
+	 * @param pixel_bottom
+	 * 			The Y-position of the bottom side of the region, in pixels.
+	 * @param pixel_right
+	 * 			The X-position of the right side of the region, in pixels.
+	 * @param pixel_top
+	 * 			The Y-position of the top side of the region, in pixels.
+	 * @return	...
+	 * 			| for each tile_y in max(0, getTilePos(pixel_bottom))..min(getTiles().getTilesYAmount()-1, getTilePos(pixel_top)),
+	 * 			|	tile_x in max(0, getTilePos(pixel_left))..min(getTiles().getTilesXAmount()-1, getTilePos(pixel_right)):
+	 * 			|		result contains {tile_x, tile_y}
+	 */
+	public int[][] getTilePositionsIn(int pixel_left, int pixel_bottom, int pixel_right, int pixel_top) {
+		int left = Math.max(0, getTilePos(pixel_left));
+		int bottom = Math.max(0, getTilePos(pixel_bottom));
+		int right = Math.min(getTiles().getTilesXAmount() - 1, getTilePos(pixel_right));
+		int top = Math.min(getTiles().getTilesYAmount() - 1, getTilePos(pixel_top));
+		
+		if ((left > right) || (bottom > top)) {
+			return new int[0][];
+		}
+		
+		int[][] positions = new int[(right - left + 1)*(top - bottom + 1)][];
+		int i = 0;
+		for (int tile_y = bottom; tile_y <= top; tile_y++) {
+			for (int tile_x = left; tile_x <= right; tile_x++) {
+				positions[i++] = new int[] {tile_x, tile_y};
+			}
+		}
+		return positions;
+	}
+	
+	/**
+	 * Gets the tile grid containing the features of this world.
 	 */
 	@Basic @Immutable
-	public int getHashDigitsAmount() {
-		return this.hashDigitsAmount;
+	public TileGrid getTiles() {
+		return tiles;
 	}
 	
-	private final int hashDigitsAmount;
+	private final TileGrid tiles;
+	
+	/**
+	 * Stores the given object in this world's spatial index with the given bounding box, or moves it there if it was
+	 * already stored. Sharks, slimes and plants should be updated whenever they move.
+	 * 
+	 * @param object
+	 * 			The object whose bounding box should be stored.
+	 * @param x
+	 * 			The X-position of the bottom left pixel of the object, in pixels.
+	 * @param y
+	 * 			The Y-position of the bottom left pixel of the object, in pixels.
+	 * @param width
+	 * 			The width of the object, in pixels.
+	 * @param height
+	 * 			The height of the object, in pixels.
+	 * @pre		...
+	 * 			| (object != null) && (width >= 0) && (height >= 0)
+	 */
+	public void updateBounds(Collidable object, int x, int y, int width, int height) {
+		index.update(object, x, y, width, height);
+	}
 	
-	public Object[][] collisionDetect(Object object) {
+	/**
+	 * Removes the given object from this world's spatial index.
+	 * 
+	 * @param object
+	 * 			The object which should be removed.
+	 */
+	public void removeBounds(Collidable object) {
+		index.remove(object);
+	}
+	
+	private final SpatialIndex index;
+	
+	/**
+	 * Gets the objects touching the given game object, together with the side of the game object they're on.
+	 * The bounding box of the given game object in the spatial index is updated first.
+	 * 
+	 * @param object
+	 * 			The game object for which the collisions should be detected.
+	 * @return	This world's collision result, refilled with the objects touching the given game object. A touching object
+	 * 			is on the left or right side if it overlaps less horizontally than vertically with the game object,
+	 * 			and on the top or bottom side otherwise.
+	 * 			The result is only valid until the next call to this method.
+	 */
+	public CollisionResult collisionDetect(GameObject object) {
+		int x = (int) object.getX();
+		int y = (int) object.getY();
+		int width = object.getWidth();
+		int height = object.getHeight();
+		index.update(object, x, y, width, height);
+		
+		candidates.clear();
+		index.query(x, y, width, height, object, candidates);
+		
+		collisions.clear();
+		for (int i = 0; i < candidates.size(); i++) {
+			// Only collidables are ever stored in the index.
+			Collidable candidate = (Collidable) candidates.get(i);
+			index.getBounds(candidate, bounds);
+			collisions.add(candidate, getCollisionSide(x, y, width, height, bounds));
+		}
+		candidates.clear();
+		return collisions;
+	}
+	
+	private final CollisionResult collisions = new CollisionResult();
+	
+	/**
+	 * Buffers reused by collision detection and sweeps, so they don't allocate.
+	 */
+	private final ArrayList<Object> candidates = new ArrayList<Object>();
+	
+	private final int[] bounds = new int[4];
+	
+	/**
+	 * Sweeps the bounding box of the given game object along the given displacement, and finds the first moment at which
+	 * it runs into a solid tile or into an impassable object.
+	 * Bounding boxes which overlap by at most contact_tolerance pixels count as touching. Touching bounding boxes only
+	 * block a movement which is directed into the touching side, right away, and bounding boxes which overlap further at
+	 * the start of the sweep don't block it at all.
+	 * 
+	 * @param object
+	 * 			The game object which is moving.
+	 * @param dx
+	 * 			The horizontal displacement, in pixels.
+	 * @param dy
+	 * 			The vertical displacement, in pixels.
+	 * @return	The first impact along the displacement, or null if the whole displacement is free.
+	 * 			The impact is only valid until the next call to this method.
+	 */
+	public Impact sweep(GameObject object, double dx, double dy) {
+		double x = object.getX();
+		double y = object.getY();
+		int width = object.getWidth();
+		int height = object.getHeight();
+		
+		double left = Math.min(x, x + dx);
+		double bottom = Math.min(y, y + dy);
+		double right = Math.max(x, x + dx) + width;
+		double top = Math.max(y, y + dy) + height;
 		
-		ArrayList[] collision_objects = {new ArrayList<Object>(), new ArrayList<Object>(),
-											new ArrayList<Object>(), new ArrayList<Object>()};
+		impact_time = Double.POSITIVE_INFINITY;
+		impact_horizontal = false;
+		impact_object = null;
 		
-		for(Shark shark : sharks) {
-			collisionDetect(object, shark, collision_objects);
+		int tile_size = getTileSize();
+		int min_tile_x = Math.max(0, getTilePos((int) Math.floor(left)));
+		int min_tile_y = Math.max(0, getTilePos((int) Math.floor(bottom)));
+		int max_tile_x = Math.min(getTiles().getTilesXAmount() - 1, getTilePos((int) Math.ceil(right)));
+		int max_tile_y = Math.min(getTiles().getTilesYAmount() - 1, getTilePos((int) Math.ceil(top)));
+		for (int tile_y = min_tile_y; tile_y <= max_tile_y; tile_y++) {
+			for (int tile_x = min_tile_x; tile_x <= max_tile_x; tile_x++) {
+				if (!getTiles().getFeature(tile_x, tile_y).isPassable()) {
+					sweepAgainst(x, y, width, height, dx, dy,
+							tile_x*tile_size, tile_y*tile_size, tile_size, tile_size, null);
+				}
+			}
+		}
+		
+		candidates.clear();
+		index.query((int) Math.floor(left), (int) Math.floor(bottom),
+				(int) Math.ceil(right - left), (int) Math.ceil(top - bottom), object, candidates);
+		for (int i = 0; i < candidates.size(); i++) {
+			Collidable candidate = (Collidable) candidates.get(i);
+			if (candidate.getContactType().isBlocking()) {
+				index.getBounds(candidate, bounds);
+				sweepAgainst(x, y, width, height, dx, dy,
+						bounds[0], bounds[1], bounds[2], bounds[3], candidate);
+			}
 		}
+		candidates.clear();
 		
-		Object[][] collisions = {{new ArrayList<Object>(), null}, {new ArrayList<Object>(), null},
-									{new ArrayList<Object>(), null}, {new ArrayList<Object>(), null}};
-		return collisions; 
+		if (impact_time == Double.POSITIVE_INFINITY) {
+			return null;
+		}
+		impact.set(impact_time, impact_horizontal, impact_object);
+		impact_object = null;
+		return impact;
 	}
 	
-	private static void collisionDetect(Object mobile_object, Object static_object, ArrayList[] collision_objects)  {
+	private final Impact impact = new Impact(0, false, null);
+	
+	/**
+	 * The amount of pixels by which two bounding boxes can overlap while still counting as touching during a sweep.
+	 */
+	private static final double contact_tolerance = 1;
+	
+	/**
+	 * The earliest impact found so far during the current sweep.
+	 */
+	private double impact_time;
+	
+	private boolean impact_horizontal;
+	
+	private Object impact_object;
+	
+	/**
+	 * Records the impact of the given moving box with the given static box, if it happens before the earliest impact
+	 * found so far during the current sweep. The impact is found using the slab method.
+	 */
+	private void sweepAgainst(double x, double y, int width, int height, double dx, double dy,
+			double other_x, double other_y, int other_width, int other_height, Object other) {
+		double entry_x, exit_x, entry_y, exit_y;
+		
+		if (dx > 0) {
+			entry_x = (other_x - (x + width))/dx;
+			exit_x = (other_x + other_width - x)/dx;
+		} else if (dx < 0) {
+			entry_x = (other_x + other_width - x)/dx;
+			exit_x = (other_x - (x + width))/dx;
+		} else if ((x + contact_tolerance < other_x + other_width) && (other_x + contact_tolerance < x + width)) {
+			entry_x = Double.NEGATIVE_INFINITY;
+			exit_x = Double.POSITIVE_INFINITY;
+		} else {
+			return;
+		}
 		
-		Class mobile_class = mobile_object.getClass();
-				
+		if (dy > 0) {
+			entry_y = (other_y - (y + height))/dy;
+			exit_y = (other_y + other_height - y)/dy;
+		} else if (dy < 0) {
+			entry_y = (other_y + other_height - y)/dy;
+			exit_y = (other_y - (y + height))/dy;
+		} else if ((y + contact_tolerance < other_y + other_height) && (other_y + contact_tolerance < y + height)) {
+			entry_y = Double.NEGATIVE_INFINITY;
+			exit_y = Double.POSITIVE_INFINITY;
+		} else {
+			return;
+		}
+		
+		double entry = Math.max(entry_x, entry_y);
+		double exit = Math.min(exit_x, exit_y);
+		
+		// A box which has sunk into the other one by rounding errors, or which stands in its top row of pixels, is blocked
+		// right away instead of passing through it.
+		double distance = (entry_x > entry_y) ? Math.abs(dx) : Math.abs(dy);
+		if ((entry < 0) && (-entry*distance <= contact_tolerance)) {
+			entry = 0;
+		}
+		
+		if ((entry >= exit) || (entry < 0) || (entry > 1) || (entry >= impact_time)) {
+			return;
+		}
+		impact_time = entry;
+		impact_horizontal = (entry_x > entry_y);
+		impact_object = other;
+	}
+	
+	/**
+	 * Gets the side of the given rectangle on which the given bounds lie.
+	 * 
+	 * @param bounds
+	 * 			The bounds of the other object, as {x, y, width, height}.
+	 * @return	CollisionResult.LEFT, RIGHT, TOP or BOTTOM if the bounds lie on the left, right, top or bottom side of the
+	 * 			rectangle, respectively.
+	 * 			| overlap_x = Math.min(x + width, bounds[0] + bounds[2]) - Math.max(x, bounds[0])
+	 * 			| overlap_y = Math.min(y + height, bounds[1] + bounds[3]) - Math.max(y, bounds[1])
+	 * 			| if (overlap_x < overlap_y)
+	 * 			|	then result = (2*bounds[0] + bounds[2] < 2*x + width) ? LEFT : RIGHT
+	 * 			| else
+	 * 			|	result = (2*bounds[1] + bounds[3] > 2*y + height) ? TOP : BOTTOM
+	 */
+	private static int getCollisionSide(int x, int y, int width, int height, int[] bounds) {
+		int overlap_x = Math.min(x + width, bounds[0] + bounds[2]) - Math.max(x, bounds[0]);
+		int overlap_y = Math.min(y + height, bounds[1] + bounds[3]) - Math.max(y, bounds[1]);
+		
+		// Centers are compared doubled to stay in integers.
+		if (overlap_x < overlap_y) {
+			return (2*bounds[0] + bounds[2] < 2*x + width) ? CollisionResult.LEFT : CollisionResult.RIGHT;
+		}
+		return (2*bounds[1] + bounds[3] > 2*y + height) ? CollisionResult.TOP : CollisionResult.BOTTOM;
 	}
 	
 }
@@ -8,6 +8,15 @@ public interface AlienInfoProvider {
 
 	public Optional<int[]> getAlienXY();
 
+	/**
+	 * Returns the position of the alien the given fraction (between 0 and 1)
+	 * of the way from its position before the last game update to its current
+	 * one. By default, the current position is returned.
+	 */
+	public default Optional<int[]> getAlienXY(double interpolation) {
+		return getAlienXY();
+	}
+
 	public Optional<int[]> getAlienSize();
 
 	public Optional<Sprite> getPlayerSprite();
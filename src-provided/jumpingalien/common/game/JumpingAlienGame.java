@@ -43,12 +43,12 @@ public abstract class JumpingAlienGame extends Game {
 		return (JumpingAlienGameOptions) super.getOptions();
 	}
 	
-	public void restart() {
+	public synchronized void restart() {
 		start();
 	}
 
 	@Override
-	public void start() {
+	public synchronized void start() {
 		if (visibleScreenWidth < 0 || visibleScreenHeight < 0) {
 			throw new IllegalStateException("Visible screen size not set");
 		}
@@ -6,4 +6,27 @@ public interface JumpingAlienGameOptions extends GameOptions {
 
 	public double getTimescale();
 	public void setTimescale(double value);
+
+	/**
+	 * The game can only be advanced by less than this many seconds at once.
+	 */
+	public static final double MAX_TICK_LENGTH = 0.2;
+
+	/**
+	 * Returns the given tick rate if it's 0 (advance the game by the measured
+	 * frame time) or gives ticks shorter than {@link #MAX_TICK_LENGTH}.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             if the tick rate is invalid
+	 */
+	public static double checkTickRate(double tickRate)
+			throws IllegalArgumentException {
+		if (tickRate != 0 && !(tickRate > 0 && Double.isFinite(tickRate)
+				&& 1.0 / tickRate < MAX_TICK_LENGTH)) {
+			throw new IllegalArgumentException("Invalid tick rate "
+					+ tickRate + ": use 0, or more than " + 1.0
+					/ MAX_TICK_LENGTH + " ticks per second");
+		}
+		return tickRate;
+	}
 }
@@ -4,6 +4,8 @@ import java.awt.Graphics2D;
 import java.awt.Image;
 import java.awt.geom.AffineTransform;
 
+import jumpingalien.common.sprites.ImageSprite;
+
 public class AlienGUIUtils {
 
 	public static void drawImageInWorld(Graphics2D g, Image image, int left,
@@ -19,4 +21,15 @@ public class AlienGUIUtils {
 											// image flip)
 		g.drawImage(image, tf, null);
 	}
+
+	public static void drawSpriteInWorld(Graphics2D g, ImageSprite sprite,
+			int left, int bottom) {
+		AffineTransform oldTransform = g.getTransform();
+		// same transform as drawImageInWorld, but the sprite may be a
+		// sub-rectangle of an atlas image
+		g.translate(left, bottom + sprite.getHeight());
+		g.scale(1, -1);
+		sprite.draw(g, 0, 0);
+		g.setTransform(oldTransform);
+	}
 }
@@ -23,7 +23,7 @@ public class PlayerPainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 	public void paintInWorld(Graphics2D g) {
 		getGame()
 				.getAlienInfoProvider()
-				.getAlienXY()
+				.getAlienXY(getInterpolation())
 				.ifPresent(
 						xy -> {
 
@@ -41,11 +41,10 @@ public class PlayerPainter extends AbstractAlienPainter<AlienGameScreen<?, ?>> {
 									.getPlayerSprite()
 									.ifPresent(
 											sprite -> AlienGUIUtils
-													.drawImageInWorld(
+													.drawSpriteInWorld(
 															g,
-															((ImageSprite) sprite)
-																	.getImage(),
-															xy[0], xy[1], false));
+															(ImageSprite) sprite,
+															xy[0], xy[1]));
 						});
 	}
 
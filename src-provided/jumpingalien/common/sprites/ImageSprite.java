@@ -1,9 +1,11 @@
 package jumpingalien.common.sprites;
 
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 
 import jumpingalien.util.Sprite;
 import ogp.framework.util.GUIUtils;
+import ogp.framework.util.ImageBlobCache;
 
 public class ImageSprite extends Sprite {
 
@@ -16,21 +18,84 @@ public class ImageSprite extends Sprite {
 				.loadImage(fileName)));
 	}
 
+	/**
+	 * Loads the given file, optionally flips it horizontally, and scales it
+	 * like {@link GUIUtils#scaleTo(BufferedImage, int, int)}. The result is
+	 * kept in the {@link ImageBlobCache}, so later runs don't have to decode
+	 * and scale the file again.
+	 */
+	public static ImageSprite createScaledSprite(String fileName,
+			boolean hFlipped, int width, int height) {
+		String transform = (hFlipped ? "hflip-" : "") + "scale"
+				+ getDimensionKey(width) + "x" + getDimensionKey(height);
+		return new ImageSprite(fileName, ImageBlobCache.getDefault().load(
+				fileName,
+				transform,
+				image -> GUIUtils.scaleTo(
+						hFlipped ? GUIUtils.hflip(image) : image, width, height)));
+	}
+
+	/**
+	 * Describes a dimension given to createScaledSprite in a cache key; a
+	 * negative dimension follows from the other one.
+	 */
+	private static String getDimensionKey(int dimension) {
+		return dimension < 0 ? "auto" : Integer.toString(dimension);
+	}
+
 	public static ImageSprite createSprite(String name, BufferedImage image) {
 		return new ImageSprite(name, image);
 	}
 
 	private final BufferedImage image;
 
+	/**
+	 * Where this sprite is painted from once it has been packed into an
+	 * atlas, or null if it's painted from its own image.
+	 */
+	private volatile SpriteAtlas.Region atlasRegion;
+
+	/**
+	 * The given image is converted to the format of the screen if needed, so
+	 * it can be drawn without being converted every time.
+	 */
 	public ImageSprite(String name, BufferedImage image) {
 		super(name, image.getWidth(), image.getHeight());
-		this.image = image;
+		this.image = GUIUtils.toCompatibleImage(image);
 	}
 
+	/**
+	 * Returns the image of this sprite on its own. Use
+	 * {@link #draw(Graphics2D, int, int)} to paint the sprite, which paints
+	 * from the atlas if the sprite has been packed into one.
+	 */
 	public BufferedImage getImage() {
 		return image;
 	}
 
+	public SpriteAtlas.Region getAtlasRegion() {
+		return atlasRegion;
+	}
+
+	void setAtlasRegion(SpriteAtlas.Region atlasRegion) {
+		this.atlasRegion = atlasRegion;
+	}
+
+	/**
+	 * Paints this sprite with its top left corner at the given location.
+	 */
+	public void draw(Graphics2D g, int x, int y) {
+		SpriteAtlas.Region region = atlasRegion;
+		if (region == null) {
+			g.drawImage(image, x, y, null);
+		} else {
+			int w = getWidth();
+			int h = getHeight();
+			g.drawImage(region.getImage(), x, y, x + w, y + h, region.getX(),
+					region.getY(), region.getX() + w, region.getY() + h, null);
+		}
+	}
+
 	public ImageSprite scaleToHeight(int newHeight) {
 		return new ImageSprite(getName(),
 				GUIUtils.scaleTo(image, -1, newHeight));
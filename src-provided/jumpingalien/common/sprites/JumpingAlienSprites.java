@@ -5,40 +5,46 @@ import jumpingalien.util.Sprite;
 
 public class JumpingAlienSprites {
 
+	public static final String FRONT_FILENAME = "levels/player/p1_front.png";
+	public static final String DUCK_FRONT_FILENAME = "levels/player/p1_duck_front.png";
+	public static final String STAND_FILENAME = "levels/player/p1_stand.png";
+	public static final String JUMP_FILENAME = "levels/player/p1_jump.png";
+	public static final String DUCK_FILENAME = "levels/player/p1_duck.png";
+	public static final String WALK_FILENAME_FORMAT = "levels/player/p1_walk/PNG/p1_walk%02d.png";
+	public static final int NB_WALK_SPRITES = 11;
+
 	public static final Sprite[] ALIEN_SPRITESET = new Sprite[30];
 
 	static {
 		/* 0: stand, not ducking, front */
-		ALIEN_SPRITESET[0] = createSprite("levels/player/p1_front.png").scaleToWidth(70);
+		ALIEN_SPRITESET[0] = createScaledSprite(FRONT_FILENAME, false, 70, -1);
 		/* 1: stand, ducking, front */
-		ALIEN_SPRITESET[1] = createSprite("levels/player/p1_duck_front.png")
-				.scaleToHeight(70);
+		ALIEN_SPRITESET[1] = createScaledSprite(DUCK_FRONT_FILENAME, false, -1, 70);
 		/* 2: stand, not ducking, right */
-		ALIEN_SPRITESET[2] = createSprite("levels/player/p1_stand.png").scaleToWidth(70);
+		ALIEN_SPRITESET[2] = createScaledSprite(STAND_FILENAME, false, 70, -1);
 		/* 3: stand, not ducking, left */
-		ALIEN_SPRITESET[3] = createHFlippedSprite("levels/player/p1_stand.png").scaleToWidth(70);
+		ALIEN_SPRITESET[3] = createScaledSprite(STAND_FILENAME, true, 70, -1);
 		/* 4: jump, not ducking, right */
-		ALIEN_SPRITESET[4] = createSprite("levels/player/p1_jump.png").scaleToWidth(70);
+		ALIEN_SPRITESET[4] = createScaledSprite(JUMP_FILENAME, false, 70, -1);
 		/* 5: jump, not ducking, left */
-		ALIEN_SPRITESET[5] = createHFlippedSprite("levels/player/p1_jump.png").scaleToWidth(70);
+		ALIEN_SPRITESET[5] = createScaledSprite(JUMP_FILENAME, true, 70, -1);
 		/* 6: ducking, right */
-		ALIEN_SPRITESET[6] = createSprite("levels/player/p1_duck.png")
-				.scaleToHeight(70);
+		ALIEN_SPRITESET[6] = createScaledSprite(DUCK_FILENAME, false, -1, 70);
 		/* 7: ducking, left */
-		ALIEN_SPRITESET[7] = createHFlippedSprite("levels/player/p1_duck.png")
-				.scaleToHeight(70);
+		ALIEN_SPRITESET[7] = createScaledSprite(DUCK_FILENAME, true, -1, 70);
 		/* 8..18: moving, not ducking, right */
-		for (int i = 0; i < 11; i++) {
+		for (int i = 0; i < NB_WALK_SPRITES; i++) {
 			/* walk right */
-			ALIEN_SPRITESET[8 + i] = createSprite(String.format(
-					"levels/player/p1_walk/PNG/p1_walk%02d.png", i + 1)).scaleToWidth(70);
+			ALIEN_SPRITESET[8 + i] = createScaledSprite(
+					String.format(WALK_FILENAME_FORMAT, i + 1), false, 70, -1);
 		}
 		/* 19..29: moving, not ducking, right */
-		for (int i = 0; i < 11; i++) {
+		for (int i = 0; i < NB_WALK_SPRITES; i++) {
 			/* walk left */
-			ALIEN_SPRITESET[19 + i] = createHFlippedSprite(String.format(
-					"levels/player/p1_walk/PNG/p1_walk%02d.png", i + 1)).scaleToWidth(70);
+			ALIEN_SPRITESET[19 + i] = createScaledSprite(
+					String.format(WALK_FILENAME_FORMAT, i + 1), true, 70, -1);
 		}
 
+		SpriteAtlas.pack(ALIEN_SPRITESET);
 	}
 }
@@ -0,0 +1,145 @@
+package jumpingalien.common.sprites;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import jumpingalien.util.Sprite;
+import ogp.framework.util.GUIUtils;
+
+/**
+ * Packs sprites into a few large screen-compatible images, after which the
+ * sprites are painted as sub-rectangles of those images. Java2D then only has
+ * to keep a few surfaces accelerated instead of one per sprite.
+ */
+public class SpriteAtlas {
+
+	/**
+	 * Maximal width and height of an atlas image.
+	 */
+	public static final int MAX_SIZE = 2048;
+
+	/**
+	 * Transparent border around each sprite, so scaled drawing doesn't pick up
+	 * pixels of its neighbours.
+	 */
+	private static final int PADDING = 1;
+
+	/**
+	 * The location of a sprite in an atlas image.
+	 */
+	public static final class Region {
+
+		private final BufferedImage image;
+		private final int x, y;
+
+		private Region(BufferedImage image, int x, int y) {
+			this.image = image;
+			this.x = x;
+			this.y = y;
+		}
+
+		public BufferedImage getImage() {
+			return image;
+		}
+
+		public int getX() {
+			return x;
+		}
+
+		public int getY() {
+			return y;
+		}
+	}
+
+	/**
+	 * Packs the given sprites into as few atlas images as possible, and makes
+	 * each of them paint from its atlas from now on. Sprites that are not image
+	 * sprites, that are already in an atlas, or that are too large for an atlas
+	 * are left alone.
+	 *
+	 * @return the atlas images that were created
+	 */
+	public static List<BufferedImage> pack(Sprite... sprites) {
+		List<ImageSprite> todo = new ArrayList<>();
+		for (Sprite sprite : sprites) {
+			if (sprite instanceof ImageSprite
+					&& ((ImageSprite) sprite).getAtlasRegion() == null
+					&& !todo.contains(sprite)
+					&& sprite.getWidth() + 2 * PADDING <= MAX_SIZE
+					&& sprite.getHeight() + 2 * PADDING <= MAX_SIZE) {
+				todo.add((ImageSprite) sprite);
+			}
+		}
+		// shelf packing works best with the tallest sprites first
+		todo.sort(Comparator.comparingInt(ImageSprite::getHeight).reversed());
+
+		int width = getAtlasWidth(todo);
+		List<BufferedImage> result = new ArrayList<>();
+		int first = 0;
+		while (first < todo.size()) {
+			// lay out as many sprites as fit in one atlas
+			int[] xs = new int[todo.size()];
+			int[] ys = new int[todo.size()];
+			int x = 0, y = 0, shelfHeight = 0;
+			int end = first;
+			while (end < todo.size()) {
+				ImageSprite sprite = todo.get(end);
+				int w = sprite.getWidth() + 2 * PADDING;
+				int h = sprite.getHeight() + 2 * PADDING;
+				if (x + w > width) {
+					x = 0;
+					y += shelfHeight;
+					shelfHeight = 0;
+				}
+				if (y + h > MAX_SIZE) {
+					break;
+				}
+				xs[end] = x + PADDING;
+				ys[end] = y + PADDING;
+				x += w;
+				shelfHeight = Math.max(shelfHeight, h);
+				end++;
+			}
+
+			BufferedImage atlas = GUIUtils.createCompatibleImage(width,
+					y + shelfHeight, Transparency.TRANSLUCENT);
+			Graphics2D g = atlas.createGraphics();
+			try {
+				g.setComposite(AlphaComposite.Src);
+				for (int i = first; i < end; i++) {
+					ImageSprite sprite = todo.get(i);
+					g.drawImage(sprite.getImage(), xs[i], ys[i], null);
+					sprite.setAtlasRegion(new Region(atlas, xs[i], ys[i]));
+				}
+			} finally {
+				g.dispose();
+			}
+			result.add(atlas);
+			first = end;
+		}
+		return result;
+	}
+
+	/**
+	 * Picks a power of two width that makes the atlas roughly square.
+	 */
+	private static int getAtlasWidth(List<ImageSprite> sprites) {
+		long area = 0;
+		int widest = 1;
+		for (ImageSprite sprite : sprites) {
+			int w = sprite.getWidth() + 2 * PADDING;
+			int h = sprite.getHeight() + 2 * PADDING;
+			area += (long) w * h;
+			widest = Math.max(widest, w);
+		}
+		int side = (int) Math.ceil(Math.sqrt(area * 1.2));
+		int width = Integer.highestOneBit(Math.max(1, side - 1)) << 1;
+		return Math.min(MAX_SIZE, Math.max(width, widest));
+	}
+
+}
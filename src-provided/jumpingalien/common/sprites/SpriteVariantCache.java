@@ -0,0 +1,33 @@
+package jumpingalien.common.sprites;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches hue-shifted variants of sprites, so that each variant is only
+ * computed once instead of every time it's painted.
+ *
+ * Variants are keyed by the identity of the base sprite and the amount of the
+ * hue shift. This class is thread-safe.
+ */
+public class SpriteVariantCache {
+
+	private final ConcurrentHashMap<ImageSprite, ConcurrentHashMap<Integer, ImageSprite>> variants = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the given sprite with its hue shifted by the given amount,
+	 * computing it if it's not cached yet. A shift of 0 returns the base
+	 * sprite itself.
+	 */
+	public ImageSprite getHueShifted(ImageSprite base, int amount) {
+		if (amount == 0) {
+			return base;
+		}
+		return variants.computeIfAbsent(base, b -> new ConcurrentHashMap<>())
+				.computeIfAbsent(amount, a -> base.shiftHue(a));
+	}
+
+	public void clear() {
+		variants.clear();
+	}
+
+}
@@ -17,6 +17,13 @@ public class Part1Options implements JumpingAlienGameOptions, JumpingAlienGUIOpt
 	 */
 	private int targetFPS = 30;
 
+	/**
+	 * Number of fixed-size game updates per second, or 0 to advance the game
+	 * by the measured frame time (default: 0). With a fixed tick rate, the
+	 * simulation no longer depends on how long painting takes.
+	 */
+	private double tickRate = 0;
+
 	/**
 	 * Print debug info on the screen (default: true).
 	 */
@@ -56,6 +63,20 @@ public class Part1Options implements JumpingAlienGameOptions, JumpingAlienGUIOpt
 		this.targetFPS = targetFPS;
 	}
 
+	@Override
+	public double getTickRate() {
+		return tickRate;
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the tick rate is neither 0 nor gives ticks shorter than
+	 *             {@link JumpingAlienGameOptions#MAX_TICK_LENGTH}
+	 */
+	public void setTickRate(double tickRate) throws IllegalArgumentException {
+		this.tickRate = JumpingAlienGameOptions.checkTickRate(tickRate);
+	}
+
 	@Override
 	public double getTimescale() {
 		return timeScale;
@@ -121,6 +142,9 @@ public class Part1Options implements JumpingAlienGameOptions, JumpingAlienGUIOpt
 			case "-targetfps":
 				options.targetFPS = Integer.parseInt(args[++i]);
 				break;
+			case "-tickrate":
+				options.setTickRate(Double.parseDouble(args[++i]));
+				break;
 			case "-timescale":
 				options.timeScale = Double.parseDouble(args[++i]);
 				break;
@@ -0,0 +1,84 @@
+package jumpingalien.part2;
+
+import jumpingalien.part2.facade.IFacadePart2;
+import jumpingalien.part2.internal.HeadlessRunner;
+import jumpingalien.part2.internal.JumpingAlienGamePart2;
+import jumpingalien.part2.internal.Part2Options;
+
+public class JumpingAlienHeadlessPart2 {
+
+	/**
+	 * Name of the facade class which is loaded when no other class is given
+	 * with the -facade option.
+	 */
+	public static final String DEFAULT_FACADE = "jumpingalien.part2.facade.Facade";
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+
+		String facadeName = DEFAULT_FACADE;
+		for (int i = 0; i < args.length - 1; i++) {
+			if ("-facade".equals(args[i])) {
+				facadeName = args[i + 1];
+			}
+		}
+
+		IFacadePart2 facade;
+		try {
+			facade = loadFacade(facadeName);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+			return;
+		}
+
+		if (!run(facade, args)) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Runs the game headless with the given facade, as configured by the
+	 * given command line arguments.
+	 *
+	 * @return whether the map could be loaded and simulated without errors
+	 */
+	public static boolean run(IFacadePart2 facade, String[] args) {
+		Part2Options options = Part2Options.parse(args);
+
+		JumpingAlienGamePart2 game = new JumpingAlienGamePart2(options, facade);
+
+		return HeadlessRunner.parse(game, args).run();
+	}
+
+	/**
+	 * Creates an instance of the facade class with the given name, using its
+	 * public constructor without arguments.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the class doesn't exist, doesn't implement
+	 *             {@link IFacadePart2} or can't be instantiated
+	 */
+	public static IFacadePart2 loadFacade(String className)
+			throws IllegalArgumentException {
+		Class<?> facadeClass;
+		try {
+			facadeClass = Class.forName(className);
+		} catch (ClassNotFoundException e) {
+			throw new IllegalArgumentException("Facade class " + className
+					+ " not found. Implement it, or pass the name of another"
+					+ " implementation of IFacadePart2 with -facade.", e);
+		}
+		if (!IFacadePart2.class.isAssignableFrom(facadeClass)) {
+			throw new IllegalArgumentException("Facade class " + className
+					+ " does not implement IFacadePart2.");
+		}
+		try {
+			return (IFacadePart2) facadeClass.getConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException("Facade class " + className
+					+ " could not be instantiated: " + e, e);
+		}
+	}
+
+}
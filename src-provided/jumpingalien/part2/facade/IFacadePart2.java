@@ -7,6 +7,7 @@ import jumpingalien.model.Shark;
 import jumpingalien.model.Mazub;
 import jumpingalien.model.Slime;
 import jumpingalien.model.School;
+import jumpingalien.model.TerrainSource;
 import jumpingalien.model.World;
 import jumpingalien.part1.facade.IFacade;
 import jumpingalien.util.ModelException;
@@ -121,6 +122,25 @@ public interface IFacadePart2 extends jumpingalien.part1.facade.IFacade {
 			int visibleWindowWidth, int visibleWindowHeight, int targetTileX,
 			int targetTileY);
 
+	/**
+	 * Create a new game world with the given parameters, whose geological
+	 * features are read from the given terrain source a chunk of tiles at a
+	 * time, as the visible window approaches them. No geological features will
+	 * be set via
+	 * {@link IFacadePart2#setGeologicalFeature(World, int, int, int)} for such
+	 * a world.
+	 * 
+	 * @param terrain
+	 *            The source of the geological features of the world, which
+	 *            may be read from a background thread
+	 */
+	default World createWorld(int tileSize, int nbTilesX, int nbTilesY,
+			int visibleWindowWidth, int visibleWindowHeight, int targetTileX,
+			int targetTileY, TerrainSource terrain) {
+		return new World(tileSize, nbTilesX, nbTilesY, visibleWindowWidth,
+				visibleWindowHeight, targetTileX, targetTileY, terrain);
+	}
+
 	/**
 	 * Returns the size of the given game world, in number of pixels.
 	 * 
@@ -308,6 +328,25 @@ public interface IFacadePart2 extends jumpingalien.part1.facade.IFacade {
 	 */
 	void setGeologicalFeature(World world, int tileX, int tileY, int tileType);
 
+	/**
+	 * Modify the geological types of all tiles in the given world at once.
+	 * 
+	 * This is equivalent to invoking
+	 * {@link IFacadePart2#setGeologicalFeature(World, int, int, int)} for
+	 * every tile, but doesn't need a call per tile.
+	 * 
+	 * @param world
+	 *            The world in which the geological types need to be modified
+	 * @param tileTypes
+	 *            The new types of all tiles, using the same values as
+	 *            {@link IFacadePart2#setGeologicalFeature(World, int, int, int)},
+	 *            row by row from the bottom: the type of tile (x_T, y_T) is
+	 *            at index y_T * nbTilesX + x_T
+	 */
+	default void setGeologicalFeatures(World world, byte[] tileTypes) {
+		world.setTileFeatures(tileTypes);
+	}
+
 	/**
 	 * Sets the given alien as the player's character in the given world.
 	 * 
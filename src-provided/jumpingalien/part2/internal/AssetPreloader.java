@@ -0,0 +1,184 @@
+package jumpingalien.part2.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import jumpingalien.common.sprites.JumpingAlienSprites;
+import jumpingalien.part2.internal.tmxfile.TMXFileReader;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import ogp.framework.util.GUIUtils;
+import ogp.framework.util.ImageBlobCache;
+
+/**
+ * Loads all sprites, and the level files and tile images of the maps, on a
+ * pool of worker threads, so that nothing has to be read from disk once a
+ * game is being played.
+ *
+ * The image files of the sprites are decoded in parallel before the sprite
+ * classes are initialized, which then only have to scale, flip and pack the
+ * decoded images. The tiles of a map are decoded in parallel as soon as its
+ * level file has been read.
+ *
+ * All methods are thread-safe.
+ */
+public class AssetPreloader {
+
+	private final String levelsFolder;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(
+			Math.max(1, Runtime.getRuntime().availableProcessors()), task -> {
+				Thread thread = new Thread(task, "Asset loader");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	private final AtomicInteger submitted = new AtomicInteger();
+	private final AtomicInteger completed = new AtomicInteger();
+
+	private CompletableFuture<Void> sprites;
+	private final ConcurrentHashMap<String, CompletableFuture<Map>> maps = new ConcurrentHashMap<>();
+
+	public AssetPreloader(String levelsFolder) {
+		this.levelsFolder = levelsFolder;
+	}
+
+	/**
+	 * Starts loading all sprites, if that hasn't been started yet.
+	 *
+	 * @return a future that completes once all sprites have been loaded
+	 */
+	public synchronized CompletableFuture<Void> preloadSprites() {
+		if (sprites == null) {
+			List<String> files = new ArrayList<>(getResourceFiles());
+			if (!ImageBlobCache.getDefault().isEnabled()) {
+				// otherwise the scaled alien sprites come from the blob cache
+				// without decoding their files
+				files.addAll(getAlienSpriteFiles());
+			}
+			CompletableFuture<?>[] decodes = files.stream()
+					.map(file -> submit(() -> GUIUtils.preloadImage(file)))
+					.toArray(size -> new CompletableFuture<?>[size]);
+			sprites = CompletableFuture.allOf(decodes).thenCompose(
+					v -> submit(() -> {
+						initialize(JumpingAlienSprites.class);
+						initialize(Resources.class);
+						return null;
+					}));
+		}
+		return sprites;
+	}
+
+	/**
+	 * Starts reading the given level file and loading all of its tiles, if
+	 * that hasn't been started yet.
+	 *
+	 * @return a future that completes with the map once all of its tiles have
+	 *         been loaded, or exceptionally if the level file can't be read
+	 */
+	public CompletableFuture<Map> preloadMap(String filename) {
+		return maps.computeIfAbsent(filename, f -> {
+			Supplier<Map> read = () -> new TMXFileReader(levelsFolder).read(f);
+			CompletableFuture<Map> result = submit(read).thenCompose(
+					this::preloadTiles);
+			// try again the next time, the file may have been fixed
+			result.whenComplete((map, e) -> {
+				if (e != null) {
+					maps.remove(f, result);
+				}
+			});
+			return result;
+		});
+	}
+
+	private CompletableFuture<Map> preloadTiles(Map map) {
+		Set<ImageTile> tiles = new HashSet<>();
+		for (Layer layer : map.getLayers()) {
+			for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
+				for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
+					ImageTile tile = layer.getTile(tileX, tileY);
+					if (tile != null) {
+						tiles.add(tile);
+					}
+				}
+			}
+		}
+		CompletableFuture<?>[] decodes = tiles.stream()
+				.map(tile -> submit(tile::getImage))
+				.toArray(size -> new CompletableFuture<?>[size]);
+		return CompletableFuture.allOf(decodes).thenApply(v -> map);
+	}
+
+	/**
+	 * Returns the number of loading tasks that have finished so far, and the
+	 * number of tasks that have been submitted in total.
+	 */
+	public int[] getProgress() {
+		return new int[] { completed.get(), submitted.get() };
+	}
+
+	public boolean isLoading() {
+		return completed.get() < submitted.get();
+	}
+
+	private <T> CompletableFuture<T> submit(Supplier<T> task) {
+		submitted.incrementAndGet();
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return task.get();
+			} finally {
+				completed.incrementAndGet();
+			}
+		}, executor);
+	}
+
+	private static void initialize(Class<?> type) {
+		try {
+			Class.forName(type.getName(), true, type.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/*
+	 * Only the file name constants of JumpingAlienSprites and Resources are
+	 * used here, which doesn't initialize those classes.
+	 */
+
+	private static List<String> getAlienSpriteFiles() {
+		List<String> result = new ArrayList<>(Arrays.asList(
+				JumpingAlienSprites.FRONT_FILENAME,
+				JumpingAlienSprites.DUCK_FRONT_FILENAME,
+				JumpingAlienSprites.STAND_FILENAME,
+				JumpingAlienSprites.JUMP_FILENAME,
+				JumpingAlienSprites.DUCK_FILENAME));
+		for (int i = 1; i <= JumpingAlienSprites.NB_WALK_SPRITES; i++) {
+			result.add(String.format(JumpingAlienSprites.WALK_FILENAME_FORMAT,
+					i));
+		}
+		return result;
+	}
+
+	private static List<String> getResourceFiles() {
+		List<String> result = new ArrayList<>(Arrays.asList(
+				Resources.PLANT_LEFT_FILENAME, Resources.SHARK_LEFT_FILENAME,
+				Resources.SLIME_LEFT_FILENAME, Resources.HEALTH_FULL_FILENAME,
+				Resources.HEALTH_HALF_FILENAME,
+				Resources.HEALTH_EMPTY_FILENAME));
+		for (int n = 0; n <= 9; n++) {
+			result.add(String.format(Resources.NUMBER_FILENAME_FORMAT, n));
+		}
+		return result;
+	}
+
+}
@@ -4,13 +4,11 @@ import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Stroke;
-import java.util.HashMap;
 
 import jumpingalien.common.gui.AlienGUIUtils;
 import jumpingalien.common.gui.painters.AbstractAlienPainter;
 import jumpingalien.common.sprites.ImageSprite;
 import jumpingalien.model.Plant;
-import jumpingalien.model.School;
 import jumpingalien.model.Shark;
 import jumpingalien.model.Slime;
 
@@ -41,14 +39,14 @@ public final class GameObjectPainter extends
 
 	protected void paintMazubDebugInfo(Graphics2D g) {
 		AlienInfoProvider2 aip = getGame().getAlienInfoProvider();
-		aip.getAlienXY().ifPresent(
+		aip.getAlienXY(getInterpolation()).ifPresent(
 				xy -> paintDebugInfo(g, getGame().getAlien(), xy));
 	}
 
 	protected void paintSharks(Graphics2D g) {
 		ObjectInfoProvider oip = getGame().getObjectInfoProvider();
 		for (Shark shark : oip.getSharks()) {
-			oip.getLocation(shark).ifPresent(
+			oip.getLocation(shark, getInterpolation()).ifPresent(
 					xy -> {
 						oip.getCurrentSprite(shark).ifPresent(
 								sprite -> paintSprite(g, sprite, xy));
@@ -57,22 +55,15 @@ public final class GameObjectPainter extends
 		}
 	}
 
-	private final java.util.Map<School, Integer> schoolHueShifts = new HashMap<>();
-
-	private int getHueShift(School school) {
-		return schoolHueShifts.computeIfAbsent(school,
-				s -> schoolHueShifts.size());
-	}
-
 	protected void paintSlimes(Graphics2D g) {
 		ObjectInfoProvider oip = getGame().getObjectInfoProvider();
 		for (Slime slime : oip.getSlimes()) {
-			oip.getLocation(slime).ifPresent(
+			oip.getLocation(slime, getInterpolation()).ifPresent(
 					xy -> {
 						oip.getCurrentSprite(slime).ifPresent(
 								sprite -> oip.getSchool(slime).ifPresent(
-										school -> paintSprite(g, sprite
-												.shiftHue(getHueShift(school)),
+										school -> paintSprite(g, getGame()
+												.getSlimeSprite(sprite, school),
 												xy)));
 						paintDebugInfo(g, slime, xy);
 					});
@@ -95,7 +86,7 @@ public final class GameObjectPainter extends
 	protected void paintPlants(Graphics2D g) {
 		ObjectInfoProvider oip = getGame().getObjectInfoProvider();
 		for (Plant plant : oip.getPlants()) {
-			oip.getLocation(plant).ifPresent(
+			oip.getLocation(plant, getInterpolation()).ifPresent(
 					xy -> {
 						oip.getCurrentSprite(plant).ifPresent(
 								sprite -> paintSprite(g, sprite, xy));
@@ -111,8 +102,7 @@ public final class GameObjectPainter extends
 					new int[] { sprite.getWidth(), sprite.getHeight() },
 					getOptions().getDebugShowPixels());
 		}
-		AlienGUIUtils.drawImageInWorld(g, sprite.getImage(), xy[0], xy[1],
-				false);
+		AlienGUIUtils.drawSpriteInWorld(g, sprite, xy[0], xy[1]);
 	}
 
 	private static final Color SIZE_BORDER = Color.RED;
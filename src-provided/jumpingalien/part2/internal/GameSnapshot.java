@@ -0,0 +1,299 @@
+package jumpingalien.part2.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+
+import jumpingalien.common.sprites.ImageSprite;
+import jumpingalien.model.Plant;
+import jumpingalien.model.School;
+import jumpingalien.model.Shark;
+import jumpingalien.model.Slime;
+import jumpingalien.util.Sprite;
+
+/**
+ * Immutable copy of everything the painters need from the model after a game
+ * update: positions, sprites, health and the state of the world.
+ *
+ * When simulation and rendering run on separate threads, the simulation
+ * thread publishes a new snapshot after every update and the render thread
+ * only ever reads the most recent one, so painting never touches the model
+ * while it is being advanced.
+ *
+ * A snapshot also keeps the positions of the snapshot before it, so painters
+ * can draw the state at any point between the last two updates.
+ */
+public final class GameSnapshot {
+
+	private final int[] alienXY;
+	private final int[] alienSize;
+	private final double[] alienVelocity;
+	private final double[] alienAcceleration;
+	private final Sprite playerSprite;
+	private final Integer alienHealth;
+	private final Boolean immune;
+
+	private final int[] visibleWindow;
+	private final int[] worldSize;
+	private final Boolean gameOver;
+	private final Boolean playerWon;
+
+	private final List<Plant> plants;
+	private final List<Shark> sharks;
+	private final List<Slime> slimes;
+	private final IdentityHashMap<Object, int[]> locations;
+	private final IdentityHashMap<Object, ImageSprite> sprites;
+	private final IdentityHashMap<Slime, School> schools;
+
+	private final int[] previousAlienXY;
+	private final int[] previousVisibleWindow;
+	private final IdentityHashMap<Object, int[]> previousLocations;
+
+	private GameSnapshot(Builder builder) {
+		this.alienXY = builder.alienXY;
+		this.alienSize = builder.alienSize;
+		this.alienVelocity = builder.alienVelocity;
+		this.alienAcceleration = builder.alienAcceleration;
+		this.playerSprite = builder.playerSprite;
+		this.alienHealth = builder.alienHealth;
+		this.immune = builder.immune;
+		this.visibleWindow = builder.visibleWindow;
+		this.worldSize = builder.worldSize;
+		this.gameOver = builder.gameOver;
+		this.playerWon = builder.playerWon;
+		this.plants = Collections.unmodifiableList(builder.plants);
+		this.sharks = Collections.unmodifiableList(builder.sharks);
+		this.slimes = Collections.unmodifiableList(builder.slimes);
+		this.locations = builder.locations;
+		this.sprites = builder.sprites;
+		this.schools = builder.schools;
+		GameSnapshot previous = builder.previous;
+		this.previousAlienXY = previous == null ? null : previous.alienXY;
+		this.previousVisibleWindow = previous == null ? null
+				: previous.visibleWindow;
+		this.previousLocations = previous == null ? new IdentityHashMap<>()
+				: previous.locations;
+	}
+
+	private static <T> Optional<T> optional(T value) {
+		return Optional.ofNullable(value);
+	}
+
+	private static Optional<int[]> copy(int[] value) {
+		return Optional.ofNullable(value).map(int[]::clone);
+	}
+
+	private static Optional<double[]> copy(double[] value) {
+		return Optional.ofNullable(value).map(double[]::clone);
+	}
+
+	/**
+	 * Returns the coordinates the given fraction of the way from the previous
+	 * to the current ones, or the current ones if there are no previous ones.
+	 */
+	private static Optional<int[]> interpolate(int[] previous, int[] current,
+			double alpha) {
+		if (previous == null || current == null || alpha >= 1) {
+			return copy(current);
+		}
+		int[] result = new int[current.length];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = (int) Math.round(previous[i]
+					+ (current[i] - previous[i]) * alpha);
+		}
+		return Optional.of(result);
+	}
+
+	public Optional<int[]> getAlienXY() {
+		return copy(alienXY);
+	}
+
+	/**
+	 * Returns the position of the alien the given fraction (between 0 and 1)
+	 * of the way from its position in the previous snapshot to this one.
+	 */
+	public Optional<int[]> getAlienXY(double alpha) {
+		return interpolate(previousAlienXY, alienXY, alpha);
+	}
+
+	public Optional<int[]> getAlienSize() {
+		return copy(alienSize);
+	}
+
+	public Optional<double[]> getAlienVelocity() {
+		return copy(alienVelocity);
+	}
+
+	public Optional<double[]> getAlienAcceleration() {
+		return copy(alienAcceleration);
+	}
+
+	public Optional<Sprite> getPlayerSprite() {
+		return optional(playerSprite);
+	}
+
+	public Optional<Integer> getAlienHealth() {
+		return optional(alienHealth);
+	}
+
+	public Optional<Boolean> isImmune() {
+		return optional(immune);
+	}
+
+	public Optional<int[]> getVisibleWindow() {
+		return copy(visibleWindow);
+	}
+
+	/**
+	 * Returns the visible window the given fraction (between 0 and 1) of the
+	 * way from the one in the previous snapshot to this one.
+	 */
+	public Optional<int[]> getVisibleWindow(double alpha) {
+		return interpolate(previousVisibleWindow, visibleWindow, alpha);
+	}
+
+	public Optional<int[]> getWorldSize() {
+		return copy(worldSize);
+	}
+
+	public Optional<Boolean> isGameOver() {
+		return optional(gameOver);
+	}
+
+	public Optional<Boolean> didPlayerWin() {
+		return optional(playerWon);
+	}
+
+	public Collection<Plant> getPlants() {
+		return plants;
+	}
+
+	public Collection<Shark> getSharks() {
+		return sharks;
+	}
+
+	public Collection<Slime> getSlimes() {
+		return slimes;
+	}
+
+	public Optional<int[]> getLocation(Object object) {
+		return copy(locations.get(object));
+	}
+
+	/**
+	 * Returns the location of the given object the given fraction (between 0
+	 * and 1) of the way from its location in the previous snapshot to this
+	 * one.
+	 */
+	public Optional<int[]> getLocation(Object object, double alpha) {
+		return interpolate(previousLocations.get(object),
+				locations.get(object), alpha);
+	}
+
+	public Optional<ImageSprite> getCurrentSprite(Object object) {
+		return optional(sprites.get(object));
+	}
+
+	public Optional<School> getSchool(Slime slime) {
+		return optional(schools.get(slime));
+	}
+
+	/**
+	 * Collects the state for a snapshot. A builder is only used by a single
+	 * thread, and is no longer used once the snapshot has been built.
+	 */
+	public static class Builder {
+
+		private int[] alienXY;
+		private int[] alienSize;
+		private double[] alienVelocity;
+		private double[] alienAcceleration;
+		private Sprite playerSprite;
+		private Integer alienHealth;
+		private Boolean immune;
+
+		private int[] visibleWindow;
+		private int[] worldSize;
+		private Boolean gameOver;
+		private Boolean playerWon;
+
+		private final List<Plant> plants = new ArrayList<>();
+		private final List<Shark> sharks = new ArrayList<>();
+		private final List<Slime> slimes = new ArrayList<>();
+		private final IdentityHashMap<Object, int[]> locations = new IdentityHashMap<>();
+		private final IdentityHashMap<Object, ImageSprite> sprites = new IdentityHashMap<>();
+		private final IdentityHashMap<Slime, School> schools = new IdentityHashMap<>();
+
+		private GameSnapshot previous;
+
+		/**
+		 * Sets the snapshot of the previous update, whose positions the
+		 * painters interpolate from.
+		 */
+		public Builder setPrevious(GameSnapshot previous) {
+			this.previous = previous;
+			return this;
+		}
+
+		public Builder setAlien(Optional<int[]> xy, Optional<int[]> size,
+				Optional<double[]> velocity, Optional<double[]> acceleration,
+				Optional<Sprite> sprite, Optional<Integer> health,
+				Optional<Boolean> immune) {
+			this.alienXY = xy.map(int[]::clone).orElse(null);
+			this.alienSize = size.map(int[]::clone).orElse(null);
+			this.alienVelocity = velocity.map(double[]::clone).orElse(null);
+			this.alienAcceleration = acceleration.map(double[]::clone).orElse(
+					null);
+			this.playerSprite = sprite.orElse(null);
+			this.alienHealth = health.orElse(null);
+			this.immune = immune.orElse(null);
+			return this;
+		}
+
+		public Builder setWorld(Optional<int[]> visibleWindow,
+				Optional<int[]> worldSize, Optional<Boolean> gameOver,
+				Optional<Boolean> playerWon) {
+			this.visibleWindow = visibleWindow.map(int[]::clone).orElse(null);
+			this.worldSize = worldSize.map(int[]::clone).orElse(null);
+			this.gameOver = gameOver.orElse(null);
+			this.playerWon = playerWon.orElse(null);
+			return this;
+		}
+
+		public Builder addPlant(Plant plant, Optional<int[]> location,
+				Optional<ImageSprite> sprite) {
+			plants.add(plant);
+			addObject(plant, location, sprite);
+			return this;
+		}
+
+		public Builder addShark(Shark shark, Optional<int[]> location,
+				Optional<ImageSprite> sprite) {
+			sharks.add(shark);
+			addObject(shark, location, sprite);
+			return this;
+		}
+
+		public Builder addSlime(Slime slime, Optional<int[]> location,
+				Optional<ImageSprite> sprite, Optional<School> school) {
+			slimes.add(slime);
+			addObject(slime, location, sprite);
+			school.ifPresent(s -> schools.put(slime, s));
+			return this;
+		}
+
+		private void addObject(Object object, Optional<int[]> location,
+				Optional<ImageSprite> sprite) {
+			location.ifPresent(xy -> locations.put(object, xy.clone()));
+			sprite.ifPresent(s -> sprites.put(object, s));
+		}
+
+		public GameSnapshot build() {
+			return new GameSnapshot(this);
+		}
+	}
+
+}
@@ -0,0 +1,259 @@
+package jumpingalien.part2.internal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import jumpingalien.common.game.IActionHandler;
+import ogp.framework.messages.Message;
+import ogp.framework.messages.MessageType;
+
+/**
+ * Drives a {@link JumpingAlienGamePart2} without a GUI: no frame is created,
+ * nothing is painted and the game loop never sleeps. Input is given as a
+ * script of timed actions.
+ *
+ * Used to validate levels and to measure the throughput of the model on
+ * machines without a display.
+ */
+public class HeadlessRunner {
+
+	private static class ScriptedAction {
+		private final double time;
+		private final String name;
+		private final Consumer<IActionHandler> action;
+
+		private ScriptedAction(double time, String name,
+				Consumer<IActionHandler> action) {
+			this.time = time;
+			this.name = name;
+			this.action = action;
+		}
+	}
+
+	private final JumpingAlienGamePart2 game;
+
+	/**
+	 * Map file to load from the levels folder (default: level1.tmx).
+	 */
+	private String mapFile = "level1.tmx";
+
+	/**
+	 * Number of seconds to simulate in the game world (default: 60). The run
+	 * stops earlier if the game is over.
+	 */
+	private double duration = 60;
+
+	/**
+	 * Time interval passed to each update, in seconds (default: 1/30).
+	 */
+	private double dt = 1.0 / 30;
+
+	/**
+	 * Size of the visible window that the model is told about (default:
+	 * 1024x768).
+	 */
+	private int screenWidth = 1024;
+	private int screenHeight = 768;
+
+	private final List<ScriptedAction> script = new ArrayList<>();
+
+	public HeadlessRunner(JumpingAlienGamePart2 game) {
+		this.game = game;
+	}
+
+	public String getMapFile() {
+		return mapFile;
+	}
+
+	public void setMapFile(String mapFile) {
+		this.mapFile = mapFile;
+	}
+
+	public double getDuration() {
+		return duration;
+	}
+
+	public void setDuration(double duration) {
+		this.duration = duration;
+	}
+
+	public double getDt() {
+		return dt;
+	}
+
+	public void setDt(double dt) {
+		if (!(dt > 0 && dt < 0.2)) {
+			throw new IllegalArgumentException("dt must be in (0, 0.2): "
+					+ dt);
+		}
+		this.dt = dt;
+	}
+
+	public void setScreenSize(int width, int height) {
+		this.screenWidth = width;
+		this.screenHeight = height;
+	}
+
+	/**
+	 * Adds the actions of the given script, which is a comma-separated list of
+	 * <code>time:action</code> entries, where time is in game seconds and
+	 * action is the name of a method of {@link IActionHandler}, e.g.
+	 * <code>0:startMoveRight,1.5:startJump,1.8:endJump</code>.
+	 */
+	public void addScript(String value) {
+		for (String entry : value.split(",")) {
+			entry = entry.trim();
+			if (entry.isEmpty()) {
+				continue;
+			}
+			int separator = entry.indexOf(':');
+			if (separator < 0) {
+				throw new IllegalArgumentException("Invalid script entry: "
+						+ entry);
+			}
+			double time = Double.parseDouble(entry.substring(0, separator));
+			String name = entry.substring(separator + 1).trim();
+			script.add(new ScriptedAction(time, name, parseAction(name)));
+		}
+		script.sort(Comparator.comparingDouble(a -> a.time));
+	}
+
+	private static Consumer<IActionHandler> parseAction(String name) {
+		switch (name) {
+		case "startJump":
+			return IActionHandler::startJump;
+		case "endJump":
+			return IActionHandler::endJump;
+		case "startMoveLeft":
+			return IActionHandler::startMoveLeft;
+		case "endMoveLeft":
+			return IActionHandler::endMoveLeft;
+		case "startMoveRight":
+			return IActionHandler::startMoveRight;
+		case "endMoveRight":
+			return IActionHandler::endMoveRight;
+		case "startDuck":
+			return IActionHandler::startDuck;
+		case "endDuck":
+			return IActionHandler::endDuck;
+		default:
+			throw new IllegalArgumentException("Unknown action: " + name);
+		}
+	}
+
+	public static HeadlessRunner parse(JumpingAlienGamePart2 game,
+			String[] args) {
+		HeadlessRunner runner = new HeadlessRunner(game);
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			switch (arg) {
+			case "-map":
+				runner.setMapFile(args[++i]);
+				break;
+			case "-duration":
+				runner.setDuration(Double.parseDouble(args[++i]));
+				break;
+			case "-dt":
+				runner.setDt(Double.parseDouble(args[++i]));
+				break;
+			case "-screensize":
+				runner.setScreenSize(Integer.parseInt(args[++i]),
+						Integer.parseInt(args[++i]));
+				break;
+			case "-script":
+				runner.addScript(args[++i]);
+				break;
+			}
+		}
+
+		return runner;
+	}
+
+	/**
+	 * Loads the map and the model, but no images, runs the script as fast as
+	 * possible and prints the simulation throughput.
+	 *
+	 * The run stops at the first error reported by the model, or when the
+	 * elapsed game time stops advancing.
+	 *
+	 * @return whether the map could be loaded and simulated without errors
+	 */
+	public boolean run() {
+		game.setVisibleScreenSize(screenWidth, screenHeight);
+		game.setModelOnly(true);
+		if (!game.setMapFile(mapFile)) {
+			game.getCurrentMessage().ifPresent(System.err::println);
+			return false;
+		}
+		game.start();
+
+		int nextAction = 0;
+		long updates = 0;
+		long startTime = System.nanoTime();
+		Optional<Message> error = Optional.empty();
+
+		while (game.isRunning() && game.getElapsedTime() < duration) {
+			while (nextAction < script.size()
+					&& script.get(nextAction).time <= game.getElapsedTime()) {
+				script.get(nextAction).action.accept(game.getActionHandler());
+				nextAction++;
+			}
+			double elapsedTime = game.getElapsedTime();
+			game.update(dt);
+			updates++;
+
+			error = getError();
+			// the game skips its first update
+			if (!error.isPresent() && updates > 1
+					&& !(game.getElapsedTime() > elapsedTime)) {
+				error = Optional.of(new Message(MessageType.ERROR,
+						"Game time stopped advancing"));
+			}
+			if (error.isPresent()) {
+				break;
+			}
+		}
+
+		double wallTime = (System.nanoTime() - startTime) / 1e9;
+		double simulatedTime = game.getElapsedTime();
+
+		System.out.println(String.format(
+				"%s: %.3f simulated s in %.3f wall s (%.1f simulated s per wall s, %d updates)",
+				mapFile, simulatedTime, wallTime, simulatedTime / wallTime,
+				updates));
+		System.out.println(String.format("%s: %s", mapFile,
+				error.isPresent() ? "error: " + error.get().getMessage()
+						: getOutcome()));
+		if (nextAction < script.size()) {
+			System.out.println(String.format(
+					"%s: %d scripted actions not executed, first: %s at %.3f s",
+					mapFile, script.size() - nextAction,
+					script.get(nextAction).name, script.get(nextAction).time));
+		}
+
+		return !error.isPresent();
+	}
+
+	private Optional<Message> getError() {
+		Optional<Message> message = game.getCurrentMessage();
+		if (message.isPresent()
+				&& message.get().getType() == MessageType.ERROR) {
+			return message;
+		}
+		return Optional.empty();
+	}
+
+	private String getOutcome() {
+		Part2WorldInfoProvider info = game.getWorldInfoProvider();
+		if (!info.isGameOver().orElse(false)) {
+			return "game still running";
+		}
+		return info.didPlayerWin().orElse(false) ? "player won"
+				: "player lost";
+	}
+
+}
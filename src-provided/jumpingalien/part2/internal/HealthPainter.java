@@ -35,31 +35,25 @@ public final class HealthPainter extends AbstractAlienPainter<Part2GameScreen> {
 				int digit = health % 10;
 				health = health / 10;
 				ImageSprite image = Resources.NUMBER_SPRITES[digit];
-				g.drawImage(image.getImage(), getScreenWidth() - H_MARGIN
-						- count * WIDTH, V_MARGIN, null);
+				image.draw(g, getScreenWidth() - H_MARGIN - count * WIDTH,
+						V_MARGIN);
 			}
 		} else {
 			count += 1;
 			ImageSprite image = Resources.NUMBER_SPRITES[0];
-			g.drawImage(image.getImage(), getScreenWidth() - H_MARGIN - count
-					* WIDTH, V_MARGIN, null);
+			image.draw(g, getScreenWidth() - H_MARGIN - count * WIDTH,
+					V_MARGIN);
 		}
 		
 		if (origHealth >= 66) {
-			g.drawImage(Resources.HEALTH_FULL.getImage(), getScreenWidth()
-					- H_MARGIN - count * WIDTH
-					- Resources.HEALTH_FULL.getImage().getWidth(), V_MARGIN,
-					null);
+			Resources.HEALTH_FULL.draw(g, getScreenWidth() - H_MARGIN - count
+					* WIDTH - Resources.HEALTH_FULL.getWidth(), V_MARGIN);
 		} else if (origHealth >= 33) {
-			g.drawImage(Resources.HEALTH_HALF.getImage(), getScreenWidth()
-					- H_MARGIN - count * WIDTH
-					- Resources.HEALTH_HALF.getImage().getWidth(), V_MARGIN,
-					null);
+			Resources.HEALTH_HALF.draw(g, getScreenWidth() - H_MARGIN - count
+					* WIDTH - Resources.HEALTH_HALF.getWidth(), V_MARGIN);
 		} else {
-			g.drawImage(Resources.HEALTH_EMPTY.getImage(), getScreenWidth()
-					- H_MARGIN - count * WIDTH
-					- Resources.HEALTH_EMPTY.getImage().getWidth(), V_MARGIN,
-					null);
+			Resources.HEALTH_EMPTY.draw(g, getScreenWidth() - H_MARGIN - count
+					* WIDTH - Resources.HEALTH_EMPTY.getWidth(), V_MARGIN);
 		}
 	};
 }
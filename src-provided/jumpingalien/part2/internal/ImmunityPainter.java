@@ -24,7 +24,7 @@ public class ImmunityPainter extends AbstractAlienPainter<Part2GameScreen> {
 		aip.isImmune().ifPresent(
 				immune -> {
 					if (immune) {
-						aip.getAlienXY()
+						aip.getAlienXY(getInterpolation())
 								.ifPresent(
 										xy -> {
 											aip.getAlienSize().ifPresent(
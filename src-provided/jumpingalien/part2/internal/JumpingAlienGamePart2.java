@@ -1,20 +1,25 @@
 package jumpingalien.part2.internal;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
 import jumpingalien.common.game.IActionHandler;
 import jumpingalien.common.game.JumpingAlienGame;
 import jumpingalien.common.game.WorldInfoProvider;
 import jumpingalien.common.sprites.ImageSprite;
 import jumpingalien.common.sprites.JumpingAlienSprites;
+import jumpingalien.common.sprites.SpriteAtlas;
+import jumpingalien.common.sprites.SpriteVariantCache;
 import jumpingalien.part2.facade.IFacadePart2;
+import jumpingalien.part2.internal.tmxfile.CompiledLevel;
 import jumpingalien.part2.internal.tmxfile.TMXFileReader;
-import jumpingalien.part2.internal.tmxfile.data.ImageTile;
-import jumpingalien.part2.internal.tmxfile.data.Layer;
 import jumpingalien.part2.internal.tmxfile.data.Map;
 import jumpingalien.part2.internal.tmxfile.data.MapObject;
 import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
@@ -30,6 +35,12 @@ import ogp.framework.messages.MessageType;
 
 public class JumpingAlienGamePart2 extends JumpingAlienGame {
 
+	/**
+	 * Maps with more tiles than this are not copied into the world up front,
+	 * but streamed into it in chunks as the visible window moves.
+	 */
+	private static final long STREAMING_THRESHOLD = 1 << 20;
+
 	private Mazub alien;
 	private World world;
 
@@ -45,9 +56,13 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 	}
 
 	@Override
-	public void restart() {
+	public synchronized void restart() {
 		this.world = null;
 		this.alien = null;
+		this.snapshot = null;
+		synchronized (schoolHueShifts) {
+			schoolHueShifts.clear();
+		}
 
 		super.restart();
 	}
@@ -62,11 +77,34 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 		return (Part2Options) super.getOptions();
 	}
 
+	private static final String LEVELS_FOLDER = "levels/";
+
+	private final AssetPreloader assets = new AssetPreloader(LEVELS_FOLDER);
+
+	public AssetPreloader getAssets() {
+		return assets;
+	}
+
+	/**
+	 * Whether only the model is loaded, because nothing will be painted: the
+	 * level file is read without loading its tiles, and the model gets sprites
+	 * without images.
+	 */
+	private boolean modelOnly;
+
+	public void setModelOnly(boolean modelOnly) {
+		this.modelOnly = modelOnly;
+	}
+
 	private boolean readLevelFile(String filename) {
 		try {
-			TMXFileReader reader = new TMXFileReader("levels/");
-
-			map = reader.read(filename);
+			if (modelOnly) {
+				map = new TMXFileReader(LEVELS_FOLDER).read(filename);
+			} else {
+				// normally preloaded while the main menu was showing
+				assets.preloadSprites().join();
+				map = assets.preloadMap(filename).join();
+			}
 
 			if (map.getTileSizeY() != map.getTileSizeX()) {
 				throw new IllegalArgumentException(
@@ -80,6 +118,9 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 
 			tileSize = map.getTileSizeY();
 		} catch (Throwable e) {
+			if (e instanceof CompletionException && e.getCause() != null) {
+				e = e.getCause();
+			}
 			addMessage(new Message(MessageType.ERROR, "Error while reading "
 					+ filename + ": " + e.getMessage()));
 			return false;
@@ -90,6 +131,7 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 
 	@Override
 	public void load() {
+		assets.preloadSprites();
 	}
 
 	public int[] getWorldSize() {
@@ -99,41 +141,53 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 	@Override
 	protected void createModel() {
 
-		setWorld(getFacade().createWorld(tileSize, map.getNbTilesX(),
-				map.getNbTilesY(), getVisibleScreenWidth(),
-				getVisibleScreenHeight(), map.getTargetTileX(),
-				map.getTargetTileY()));
-
-		setTileTypes();
+		if ((long) map.getNbTilesX() * map.getNbTilesY() > STREAMING_THRESHOLD) {
+			setWorld(getFacade().createWorld(tileSize, map.getNbTilesX(),
+					map.getNbTilesY(), getVisibleScreenWidth(),
+					getVisibleScreenHeight(), map.getTargetTileX(),
+					map.getTargetTileY(), map::readTerrainTypes));
+		} else {
+			setWorld(getFacade().createWorld(tileSize, map.getNbTilesX(),
+					map.getNbTilesY(), getVisibleScreenWidth(),
+					getVisibleScreenHeight(), map.getTargetTileX(),
+					map.getTargetTileY()));
+
+			setTileTypes();
+		}
 
 		for (MapObject obj : map.getObjects()) {
 			addObject(obj);
 		}
 
+		if (getOptions().getPrewarmSpriteVariants() && !modelOnly) {
+			List<ImageSprite> variants = new ArrayList<>();
+			for (School school : schools.values()) {
+				variants.add(getSlimeSprite(Resources.SLIME_SPRITE_LEFT, school));
+				variants.add(getSlimeSprite(Resources.SLIME_SPRITE_RIGHT, school));
+			}
+			SpriteAtlas.pack(variants.toArray(new ImageSprite[variants.size()]));
+		}
+
 		setAlien(getFacade().createMazub(map.getInitialPositionX(),
-				map.getInitialPositionY(), JumpingAlienSprites.ALIEN_SPRITESET));
+				map.getInitialPositionY(),
+				modelOnly ? ModelSprites.getAlienSprites()
+						: JumpingAlienSprites.ALIEN_SPRITESET));
 
 		getFacade().setMazub(getWorld(), getAlien());
 
 		// no more object creations or tile changes after starting
 		getFacade().startGame(getWorld());
+
+		if (usesSnapshots()) {
+			publishSnapshot();
+		}
 	}
 
 	private void setTileTypes() {
-		Layer terrainLayer = map.getLayer("Terrain");
-
-		for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
-			for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
-				ImageTile tile = terrainLayer.getTile(tileX, tileY);
-				if (tile != null) {
-					getFacade().setGeologicalFeature(getWorld(), tileX, tileY,
-							tile.getType().getValue());
-				} else {
-					getFacade().setGeologicalFeature(getWorld(), tileX, tileY,
-							TileType.AIR.getValue());
-				}
-			}
-		}
+		byte[] tileTypes = new byte[map.getNbTilesX() * map.getNbTilesY()];
+		map.readTerrainTypes(0, 0, map.getNbTilesX(), map.getNbTilesY(),
+				tileTypes);
+		getFacade().setGeologicalFeatures(getWorld(), tileTypes);
 	}
 
 	private void addObject(MapObject obj) {
@@ -144,8 +198,11 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 					getFacade().createPlant(
 							obj.getX(),
 							obj.getY(),
-							new Sprite[] { Resources.PLANT_SPRITE_LEFT,
-									Resources.PLANT_SPRITE_RIGHT }));
+							modelOnly ? ModelSprites
+									.getSprites(Resources.PLANT_LEFT_FILENAME)
+									: new Sprite[] {
+											Resources.PLANT_SPRITE_LEFT,
+											Resources.PLANT_SPRITE_RIGHT }));
 			break;
 		case Resources.SHARK_LEFT_FILENAME:
 		case Resources.SHARK_LEFT2_FILENAME:
@@ -155,8 +212,11 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 					getFacade().createShark(
 							obj.getX(),
 							obj.getY(),
-							new Sprite[] { Resources.SHARK_SPRITE_LEFT,
-									Resources.SHARK_SPRITE_RIGHT }));
+							modelOnly ? ModelSprites
+									.getSprites(Resources.SHARK_LEFT_FILENAME)
+									: new Sprite[] {
+											Resources.SHARK_SPRITE_LEFT,
+											Resources.SHARK_SPRITE_RIGHT }));
 			break;
 		case Resources.SLIME_LEFT_FILENAME:
 		case Resources.SLIME_LEFT2_FILENAME:
@@ -167,8 +227,11 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 					getFacade().createSlime(
 							obj.getX(),
 							obj.getY(),
-							new Sprite[] { Resources.SLIME_SPRITE_LEFT,
-									Resources.SLIME_SPRITE_RIGHT },
+							modelOnly ? ModelSprites
+									.getSprites(Resources.SLIME_LEFT_FILENAME)
+									: new Sprite[] {
+											Resources.SLIME_SPRITE_LEFT,
+											Resources.SLIME_SPRITE_RIGHT },
 							getSlimeSchool(school)));
 			break;
 		default:
@@ -189,6 +252,29 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 		return map;
 	}
 
+	private final java.util.Map<School, Integer> schoolHueShifts = new HashMap<>();
+
+	private final SpriteVariantCache spriteVariants = new SpriteVariantCache();
+
+	/**
+	 * Returns the amount by which the hue of the slimes in the given school is
+	 * shifted, so that each school gets its own color.
+	 */
+	public int getHueShift(School school) {
+		synchronized (schoolHueShifts) {
+			return schoolHueShifts.computeIfAbsent(school,
+					s -> schoolHueShifts.size());
+		}
+	}
+
+	/**
+	 * Returns the given slime sprite in the color of the given school. The
+	 * colored sprite is only computed the first time it is needed.
+	 */
+	public ImageSprite getSlimeSprite(ImageSprite sprite, School school) {
+		return spriteVariants.getHueShifted(sprite, getHueShift(school));
+	}
+
 	private void setAlien(Mazub alien) {
 		if (this.alien != null) {
 			throw new IllegalStateException("Mazub already created!");
@@ -219,6 +305,82 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 		}
 	}
 
+	@Override
+	protected void doUpdate(double dt) {
+		super.doUpdate(dt);
+		// also when the game didn't advance, so the painters stop moving
+		// between the last two positions
+		if (usesSnapshots() && getWorld() != null) {
+			publishSnapshot();
+		}
+	}
+
+	/**
+	 * Most recent snapshot published by the thread advancing the model, read
+	 * by the painters.
+	 */
+	private volatile GameSnapshot snapshot;
+
+	/**
+	 * Whether the info providers read from published snapshots instead of from
+	 * the model, because the model is advanced on another thread, or in fixed
+	 * ticks between which the painters interpolate.
+	 */
+	private boolean usesSnapshots() {
+		return getOptions().isPipelined() || getOptions().getTickRate() > 0;
+	}
+
+	private <T> Optional<T> fromSnapshot(
+			Function<GameSnapshot, Optional<T>> getter) {
+		GameSnapshot current = snapshot;
+		if (current == null) {
+			return Optional.empty();
+		}
+		return getter.apply(current);
+	}
+
+	private <T> Collection<T> allFromSnapshot(
+			Function<GameSnapshot, Collection<T>> getter) {
+		GameSnapshot current = snapshot;
+		if (current == null) {
+			return Collections.emptyList();
+		}
+		return getter.apply(current);
+	}
+
+	/**
+	 * Copies the state the painters need from the model into a new snapshot.
+	 * Only the thread advancing the model may call this method.
+	 */
+	private void publishSnapshot() {
+		AlienInfoProvider2 aip = (AlienInfoProvider2) super
+				.getAlienInfoProvider();
+		Part2WorldInfoProvider wip = (Part2WorldInfoProvider) super
+				.getWorldInfoProvider();
+		ObjectInfoProvider oip = objectInfoProvider;
+
+		GameSnapshot.Builder builder = new GameSnapshot.Builder();
+		builder.setPrevious(snapshot);
+		builder.setAlien(aip.getAlienXY(), aip.getAlienSize(),
+				aip.getAlienVelocity(), aip.getAlienAcceleration(),
+				aip.getPlayerSprite(), aip.getAlienHealth(), aip.isImmune());
+		builder.setWorld(wip.getVisibleWindow(), wip.getWorldSize(),
+				wip.isGameOver(), wip.didPlayerWin());
+		for (Plant plant : oip.getPlants()) {
+			builder.addPlant(plant, oip.getLocation(plant),
+					oip.getCurrentSprite(plant));
+		}
+		for (Shark shark : oip.getSharks()) {
+			builder.addShark(shark, oip.getLocation(shark),
+					oip.getCurrentSprite(shark));
+		}
+		for (Slime slime : oip.getSlimes()) {
+			builder.addSlime(slime, oip.getLocation(slime),
+					oip.getCurrentSprite(slime), oip.getSchool(slime));
+		}
+		snapshot = builder.build();
+	}
+
 	@Override
 	protected IActionHandler createActionHandler() {
 		return new Part2ActionHandler(this);
@@ -226,9 +388,55 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 
 	@Override
 	public AlienInfoProvider2 getAlienInfoProvider() {
+		if (usesSnapshots()) {
+			return snapshotAlienInfoProvider;
+		}
 		return (AlienInfoProvider2) super.getAlienInfoProvider();
 	}
 
+	private final AlienInfoProvider2 snapshotAlienInfoProvider = new AlienInfoProvider2() {
+
+		@Override
+		public Optional<int[]> getAlienXY() {
+			return fromSnapshot(GameSnapshot::getAlienXY);
+		}
+
+		@Override
+		public Optional<int[]> getAlienXY(double interpolation) {
+			return fromSnapshot(s -> s.getAlienXY(interpolation));
+		}
+
+		@Override
+		public Optional<int[]> getAlienSize() {
+			return fromSnapshot(GameSnapshot::getAlienSize);
+		}
+
+		@Override
+		public Optional<Sprite> getPlayerSprite() {
+			return fromSnapshot(GameSnapshot::getPlayerSprite);
+		}
+
+		@Override
+		public Optional<double[]> getAlienVelocity() {
+			return fromSnapshot(GameSnapshot::getAlienVelocity);
+		}
+
+		@Override
+		public Optional<double[]> getAlienAcceleration() {
+			return fromSnapshot(GameSnapshot::getAlienAcceleration);
+		}
+
+		@Override
+		public Optional<Integer> getAlienHealth() {
+			return fromSnapshot(GameSnapshot::getAlienHealth);
+		}
+
+		@Override
+		public Optional<Boolean> isImmune() {
+			return fromSnapshot(GameSnapshot::isImmune);
+		}
+	};
+
 	@Override
 	protected AlienInfoProvider2 createAlienInfoProvider() {
 		return new AlienInfoProvider2() {
@@ -332,11 +540,83 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 
 	@Override
 	public Part2WorldInfoProvider getWorldInfoProvider() {
+		if (usesSnapshots()) {
+			return snapshotWorldInfoProvider;
+		}
 		return (Part2WorldInfoProvider) super.getWorldInfoProvider();
 	}
 
+	/**
+	 * Tiles can't change after the game has started, so tile queries are
+	 * still answered by the model.
+	 */
+	private final Part2WorldInfoProvider snapshotWorldInfoProvider = new Part2WorldInfoProvider() {
+
+		private Part2WorldInfoProvider getModelProvider() {
+			return (Part2WorldInfoProvider) JumpingAlienGamePart2.super
+					.getWorldInfoProvider();
+		}
+
+		@Override
+		public Optional<int[]> getVisibleWindow() {
+			return fromSnapshot(GameSnapshot::getVisibleWindow);
+		}
+
+		@Override
+		public Optional<int[]> getVisibleWindow(double interpolation) {
+			return fromSnapshot(s -> s.getVisibleWindow(interpolation));
+		}
+
+		@Override
+		public Optional<int[]> getWorldSize() {
+			return fromSnapshot(GameSnapshot::getWorldSize);
+		}
+
+		@Override
+		public Optional<Boolean> isGameOver() {
+			return fromSnapshot(GameSnapshot::isGameOver);
+		}
+
+		@Override
+		public Optional<Boolean> didPlayerWin() {
+			return fromSnapshot(GameSnapshot::didPlayerWin);
+		}
+
+		@Override
+		public int getTileLength() {
+			return getModelProvider().getTileLength();
+		}
+
+		@Override
+		public Optional<int[][]> getTilesIn(int left, int bottom, int right,
+				int top) {
+			return getModelProvider().getTilesIn(left, bottom, right, top);
+		}
+
+		@Override
+		public Optional<TileType> getGeologicalFeature(int bottomLeftX,
+				int bottomLeftY) {
+			return getModelProvider().getGeologicalFeature(bottomLeftX,
+					bottomLeftY);
+		}
+
+		@Override
+		public Optional<int[]> getBottomLeftPixelOfTile(int tileX, int tileY) {
+			return getModelProvider().getBottomLeftPixelOfTile(tileX, tileY);
+		}
+	};
+
+	/**
+	 * Returns the level files in the levels folder, and the compiled levels
+	 * whose level file isn't there.
+	 */
 	public String[] getAvailableMaps() {
-		return new File("levels").list((file, name) -> name.endsWith(".tmx"));
+		File levels = new File("levels");
+		return levels.list((file, name) -> name.endsWith(".tmx")
+				|| (name.endsWith(CompiledLevel.EXTENSION) && !new File(file,
+						name.substring(0, name.length()
+								- CompiledLevel.EXTENSION.length())
+								+ ".tmx").exists()));
 	}
 
 	public boolean setMapFile(String currentMap) {
@@ -416,9 +696,80 @@ public class JumpingAlienGamePart2 extends JumpingAlienGame {
 	}
 
 	public ObjectInfoProvider getObjectInfoProvider() {
+		if (usesSnapshots()) {
+			return snapshotObjectInfoProvider;
+		}
 		return objectInfoProvider;
 	}
 
+	private final ObjectInfoProvider snapshotObjectInfoProvider = new ObjectInfoProvider() {
+
+		@Override
+		public Collection<Slime> getSlimes() {
+			return allFromSnapshot(GameSnapshot::getSlimes);
+		}
+
+		@Override
+		public Collection<Shark> getSharks() {
+			return allFromSnapshot(GameSnapshot::getSharks);
+		}
+
+		@Override
+		public Collection<Plant> getPlants() {
+			return allFromSnapshot(GameSnapshot::getPlants);
+		}
+
+		@Override
+		public Optional<int[]> getLocation(Plant plant) {
+			return fromSnapshot(s -> s.getLocation(plant));
+		}
+
+		@Override
+		public Optional<int[]> getLocation(Shark shark) {
+			return fromSnapshot(s -> s.getLocation(shark));
+		}
+
+		@Override
+		public Optional<int[]> getLocation(Slime slime) {
+			return fromSnapshot(s -> s.getLocation(slime));
+		}
+
+		@Override
+		public Optional<int[]> getLocation(Plant plant, double interpolation) {
+			return fromSnapshot(s -> s.getLocation(plant, interpolation));
+		}
+
+		@Override
+		public Optional<int[]> getLocation(Shark shark, double interpolation) {
+			return fromSnapshot(s -> s.getLocation(shark, interpolation));
+		}
+
+		@Override
+		public Optional<int[]> getLocation(Slime slime, double interpolation) {
+			return fromSnapshot(s -> s.getLocation(slime, interpolation));
+		}
+
+		@Override
+		public Optional<ImageSprite> getCurrentSprite(Plant plant) {
+			return fromSnapshot(s -> s.getCurrentSprite(plant));
+		}
+
+		@Override
+		public Optional<ImageSprite> getCurrentSprite(Shark shark) {
+			return fromSnapshot(s -> s.getCurrentSprite(shark));
+		}
+
+		@Override
+		public Optional<ImageSprite> getCurrentSprite(Slime slime) {
+			return fromSnapshot(s -> s.getCurrentSprite(slime));
+		}
+
+		@Override
+		public Optional<School> getSchool(Slime slime) {
+			return fromSnapshot(s -> s.getSchool(slime));
+		}
+	};
+
 	public String getMapFile() {
 		return currentMap;
 	}
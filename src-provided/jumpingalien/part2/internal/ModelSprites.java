@@ -0,0 +1,75 @@
+package jumpingalien.part2.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import jumpingalien.common.sprites.JumpingAlienSprites;
+import jumpingalien.util.Sprite;
+import ogp.framework.util.GUIUtils;
+
+/**
+ * Creates the sprites given to the model when nothing is painted, e.g. in a
+ * headless run. They have the names and sizes of the sprites of
+ * {@link JumpingAlienSprites} and {@link Resources}, but no images: their
+ * sizes are read from the headers of the image files, which aren't decoded.
+ *
+ * Only the file name constants of JumpingAlienSprites and Resources are used
+ * here, which doesn't initialize those classes.
+ */
+class ModelSprites {
+
+	private static final ConcurrentHashMap<String, int[]> sizes = new ConcurrentHashMap<>();
+
+	private static Sprite[] alienSprites;
+
+	/**
+	 * Returns sprites with the sizes of
+	 * {@link JumpingAlienSprites#ALIEN_SPRITESET}.
+	 */
+	public static synchronized Sprite[] getAlienSprites() {
+		if (alienSprites == null) {
+			// same order and scaling as JumpingAlienSprites
+			Sprite[] result = new Sprite[30];
+			result[0] = createScaledSprite(
+					JumpingAlienSprites.FRONT_FILENAME, 70, -1);
+			result[1] = createScaledSprite(
+					JumpingAlienSprites.DUCK_FRONT_FILENAME, -1, 70);
+			result[2] = createScaledSprite(
+					JumpingAlienSprites.STAND_FILENAME, 70, -1);
+			result[3] = createScaledSprite(
+					JumpingAlienSprites.STAND_FILENAME, 70, -1);
+			result[4] = createScaledSprite(JumpingAlienSprites.JUMP_FILENAME,
+					70, -1);
+			result[5] = createScaledSprite(JumpingAlienSprites.JUMP_FILENAME,
+					70, -1);
+			result[6] = createScaledSprite(JumpingAlienSprites.DUCK_FILENAME,
+					-1, 70);
+			result[7] = createScaledSprite(JumpingAlienSprites.DUCK_FILENAME,
+					-1, 70);
+			for (int i = 0; i < JumpingAlienSprites.NB_WALK_SPRITES; i++) {
+				String fileName = String.format(
+						JumpingAlienSprites.WALK_FILENAME_FORMAT, i + 1);
+				result[8 + i] = createScaledSprite(fileName, 70, -1);
+				result[19 + i] = createScaledSprite(fileName, 70, -1);
+			}
+			alienSprites = result;
+		}
+		return alienSprites;
+	}
+
+	/**
+	 * Returns a left and a right sprite with the size of the given image file.
+	 */
+	public static Sprite[] getSprites(String fileName) {
+		return new Sprite[] { createScaledSprite(fileName, -1, -1),
+				createScaledSprite(fileName, -1, -1) };
+	}
+
+	private static Sprite createScaledSprite(String fileName, int width,
+			int height) {
+		int[] size = sizes.computeIfAbsent(fileName, GUIUtils::readImageSize);
+		int[] scaledSize = GUIUtils.getScaledSize(size[0], size[1], width,
+				height);
+		return new Sprite(fileName, scaledSize[0], scaledSize[1]);
+	}
+
+}
@@ -23,6 +23,32 @@ public interface ObjectInfoProvider {
 
 	public Optional<int[]> getLocation(Slime slime);
 
+	/**
+	 * Returns the location of the given plant the given fraction (between 0
+	 * and 1) of the way from its location before the last game update to its
+	 * current one. By default, the current location is returned.
+	 */
+	public default Optional<int[]> getLocation(Plant plant,
+			double interpolation) {
+		return getLocation(plant);
+	}
+
+	/**
+	 * Like {@link #getLocation(Plant, double)}, for a shark.
+	 */
+	public default Optional<int[]> getLocation(Shark shark,
+			double interpolation) {
+		return getLocation(shark);
+	}
+
+	/**
+	 * Like {@link #getLocation(Plant, double)}, for a slime.
+	 */
+	public default Optional<int[]> getLocation(Slime slime,
+			double interpolation) {
+		return getLocation(slime);
+	}
+
 	public Optional<ImageSprite> getCurrentSprite(Plant plant);
 
 	public Optional<ImageSprite> getCurrentSprite(Shark shark);
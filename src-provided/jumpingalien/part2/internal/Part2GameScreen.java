@@ -110,7 +110,7 @@ public class Part2GameScreen extends
 				@Override
 				public void paintInWorld(java.awt.Graphics2D g) {
 					((Part2WorldInfoProvider) getGame().getWorldInfoProvider())
-							.getVisibleWindow().ifPresent(
+							.getVisibleWindow(getInterpolation()).ifPresent(
 									activeRegion -> {
 										g.setColor(Color.BLACK);
 										g.setXORMode(Color.WHITE);
@@ -164,7 +164,7 @@ public class Part2GameScreen extends
 		if (zoomCamera != null) {
 			getGame()
 					.getAlienInfoProvider()
-					.getAlienXY()
+					.getAlienXY(getInterpolation())
 					.ifPresent(
 							position -> zoomCamera.moveToWorldLocation(
 									position[0] - 5, position[1] - 5));
@@ -175,7 +175,7 @@ public class Part2GameScreen extends
 		if (!getOptions().getDebugShowEntireWorld()) {
 			getGame()
 					.getWorldInfoProvider()
-					.getVisibleWindow()
+					.getVisibleWindow(getInterpolation())
 					.ifPresent(
 							activeRegion -> {
 								if (mainCamera != null) {
@@ -1,6 +1,10 @@
 package jumpingalien.part2.internal;
 
+import java.awt.Color;
+import java.awt.Graphics2D;
+
 import jumpingalien.common.gui.AlienScreenPanel;
+import ogp.framework.gui.Painter;
 import ogp.framework.gui.Screen;
 import ogp.framework.gui.menu.MenuOption;
 import ogp.framework.gui.menu.MenuScreen;
@@ -44,6 +48,33 @@ public class Part2MainMenu extends
 				break;
 			}
 		}
+		getGame().getAssets().preloadMap(getCurrentMap());
+	}
+
+	private static final int PROGRESS_HEIGHT = 6;
+
+	@Override
+	protected void setupPainters() {
+		super.setupPainters();
+		addPainter(new Painter<Part2MainMenu>(this) {
+			@Override
+			public void paintScreenPost(Graphics2D g) {
+				AssetPreloader assets = getGame().getAssets();
+				if (assets.isLoading()) {
+					int[] progress = assets.getProgress();
+					int width = getScreenWidth() - 20;
+					int y = getScreenHeight() - PROGRESS_HEIGHT - 10;
+					g.setColor(Color.DARK_GRAY);
+					g.fillRect(10, y, width, PROGRESS_HEIGHT);
+					g.setColor(Color.ORANGE);
+					g.fillRect(10, y, width * progress[0] / progress[1],
+							PROGRESS_HEIGHT);
+					g.setColor(Color.WHITE);
+					g.drawString(String.format("Loading %d/%d", progress[0],
+							progress[1]), 10, y - 5);
+				}
+			}
+		});
 	}
 
 	private int currentIndex = 0;
@@ -62,6 +93,7 @@ public class Part2MainMenu extends
 
 	private void selectMap() {
 		currentIndex = (currentIndex + 1) % getMaps().length;
+		getGame().getAssets().preloadMap(getCurrentMap());
 	}
 
 	private void startGame() {
@@ -17,6 +17,26 @@ public class Part2Options implements JumpingAlienGameOptions,
 	 */
 	private int targetFPS = 30;
 
+	/**
+	 * Number of fixed-size game updates per second, or 0 to advance the game
+	 * by the measured frame time (default: 0). With a fixed tick rate, the
+	 * simulation no longer depends on how long painting takes.
+	 */
+	private double tickRate = 0;
+
+	/**
+	 * Advance the game on a separate thread, and paint the most recently
+	 * published state on the main thread (default: false).
+	 */
+	private boolean pipelined = false;
+
+	/**
+	 * Compute the colored slime sprites of every school while loading the
+	 * level, instead of when a slime of the school is first painted (default:
+	 * true).
+	 */
+	private boolean prewarmSpriteVariants = true;
+
 	/**
 	 * Print debug info on the screen (default: false).
 	 */
@@ -80,6 +100,37 @@ public class Part2Options implements JumpingAlienGameOptions,
 		this.targetFPS = targetFPS;
 	}
 
+	@Override
+	public double getTickRate() {
+		return tickRate;
+	}
+
+	/**
+	 * @throws IllegalArgumentException
+	 *             if the tick rate is neither 0 nor gives ticks shorter than
+	 *             {@link JumpingAlienGameOptions#MAX_TICK_LENGTH}
+	 */
+	public void setTickRate(double tickRate) throws IllegalArgumentException {
+		this.tickRate = JumpingAlienGameOptions.checkTickRate(tickRate);
+	}
+
+	@Override
+	public boolean isPipelined() {
+		return pipelined;
+	}
+
+	public void setPipelined(boolean pipelined) {
+		this.pipelined = pipelined;
+	}
+
+	public boolean getPrewarmSpriteVariants() {
+		return prewarmSpriteVariants;
+	}
+
+	public void setPrewarmSpriteVariants(boolean prewarmSpriteVariants) {
+		this.prewarmSpriteVariants = prewarmSpriteVariants;
+	}
+
 	@Override
 	public double getTimescale() {
 		return timeScale;
@@ -178,6 +229,12 @@ public class Part2Options implements JumpingAlienGameOptions,
 			case "-targetfps":
 				options.targetFPS = Integer.parseInt(args[++i]);
 				break;
+			case "-tickrate":
+				options.setTickRate(Double.parseDouble(args[++i]));
+				break;
+			case "-pipelined":
+				options.pipelined = Boolean.parseBoolean(args[++i]);
+				break;
 			case "-timescale":
 				options.timeScale = Double.parseDouble(args[++i]);
 				break;
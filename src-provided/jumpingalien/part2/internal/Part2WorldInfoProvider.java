@@ -9,6 +9,15 @@ public interface Part2WorldInfoProvider extends WorldInfoProvider {
 
 	Optional<int[]> getVisibleWindow();
 
+	/**
+	 * Returns the visible window the given fraction (between 0 and 1) of the
+	 * way from the one before the last game update to the current one. By
+	 * default, the current visible window is returned.
+	 */
+	default Optional<int[]> getVisibleWindow(double interpolation) {
+		return getVisibleWindow();
+	}
+
 	int getTileLength();
 
 	Optional<int[][]> getTilesIn(int left, int bottom, int right, int top);
@@ -1,9 +1,13 @@
 package jumpingalien.part2.internal;
 
+import java.util.Arrays;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import jumpingalien.common.sprites.ImageSprite;
 import jumpingalien.common.sprites.JumpingAlienSprites;
+import jumpingalien.common.sprites.SpriteAtlas;
+import jumpingalien.util.Sprite;
 
 public class Resources extends JumpingAlienSprites {
 
@@ -31,16 +35,31 @@ public class Resources extends JumpingAlienSprites {
 	public static final ImageSprite SLIME_SPRITE_RIGHT = ImageSprite
 			.createHFlippedSprite(SLIME_LEFT_FILENAME);
 
+	public static final String NUMBER_FILENAME_FORMAT = "levels/hud/hud_%d.png";
+	public static final String HEALTH_FULL_FILENAME = "levels/hud/hud_heartFull.png";
+	public static final String HEALTH_HALF_FILENAME = "levels/hud/hud_heartHalf.png";
+	public static final String HEALTH_EMPTY_FILENAME = "levels/hud/hud_heartEmpty.png";
+
 	public static final ImageSprite[] NUMBER_SPRITES = IntStream
 			.rangeClosed(0, 9)
-			.mapToObj(n -> String.format("levels/hud/hud_%d.png", n))
+			.mapToObj(n -> String.format(NUMBER_FILENAME_FORMAT, n))
 			.map(ImageSprite::createSprite)
 			.toArray(size -> new ImageSprite[size]);
 	public static final ImageSprite HEALTH_FULL = ImageSprite
-			.createSprite("levels/hud/hud_heartFull.png");
+			.createSprite(HEALTH_FULL_FILENAME);
 	public static final ImageSprite HEALTH_HALF = ImageSprite
-			.createSprite("levels/hud/hud_heartHalf.png");
+			.createSprite(HEALTH_HALF_FILENAME);
 	public static final ImageSprite HEALTH_EMPTY = ImageSprite
-			.createSprite("levels/hud/hud_heartEmpty.png");
+			.createSprite(HEALTH_EMPTY_FILENAME);
+
+	static {
+		// the alien sprites are packed separately, by JumpingAlienSprites
+		SpriteAtlas.pack(Stream.concat(
+				Stream.of(PLANT_SPRITE_LEFT, PLANT_SPRITE_RIGHT,
+						SHARK_SPRITE_LEFT, SHARK_SPRITE_RIGHT,
+						SLIME_SPRITE_LEFT, SLIME_SPRITE_RIGHT, HEALTH_FULL,
+						HEALTH_HALF, HEALTH_EMPTY),
+				Arrays.stream(NUMBER_SPRITES)).toArray(Sprite[]::new));
+	}
 
 }
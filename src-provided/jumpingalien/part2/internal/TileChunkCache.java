@@ -0,0 +1,159 @@
+package jumpingalien.part2.internal;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+
+import jumpingalien.common.gui.AlienGUIUtils;
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.Tileset;
+import ogp.framework.util.GUIUtils;
+
+/**
+ * Pre-renders square blocks of tiles (all layers of a map composited on top of
+ * each other) into images, so painting the terrain only takes a few image
+ * draws per frame instead of one per tile per layer.
+ *
+ * The terrain of a map does not change while a game is being played, so a
+ * chunk never has to be rendered again unless it has been evicted. The least
+ * recently painted chunks are evicted once the cache is full.
+ *
+ * Not thread safe; only to be used from the thread that paints.
+ */
+public class TileChunkCache {
+
+	/**
+	 * Width and height of a chunk, in tiles.
+	 */
+	public static final int CHUNK_TILES = 8;
+
+	private final Map map;
+	private final int tileSize;
+	private final int chunkSize;
+
+	/**
+	 * Number of tiles to the left of and below a chunk whose images can stick
+	 * out into the chunk, because they are larger than a tile.
+	 */
+	private final int overflowTilesX, overflowTilesY;
+
+	private final LinkedHashMap<Long, Image> chunks;
+
+	/**
+	 * @param maxChunks
+	 *            the maximal number of chunk images kept in memory
+	 */
+	public TileChunkCache(Map map, int maxChunks) {
+		this.map = map;
+		this.tileSize = map.getTileSizeX();
+		this.chunkSize = CHUNK_TILES * tileSize;
+
+		// layers only refer to tiles of the tilesets, so only those have to
+		// be checked instead of every tile of the map
+		int maxWidth = tileSize;
+		int maxHeight = tileSize;
+		for (Tileset tileset : map.getTilesets()) {
+			for (ImageTile tile : tileset.getTiles()) {
+				maxWidth = Math.max(maxWidth, tile.getWidth());
+				maxHeight = Math.max(maxHeight, tile.getHeight());
+			}
+		}
+		this.overflowTilesX = (maxWidth - 1) / tileSize;
+		this.overflowTilesY = (maxHeight - 1) / tileSize;
+		this.chunks = new LinkedHashMap<Long, Image>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					java.util.Map.Entry<Long, Image> eldest) {
+				if (size() > maxChunks) {
+					eldest.getValue().flush();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public Map getMap() {
+		return map;
+	}
+
+	/**
+	 * Paints all chunks overlapping the given rectangle (in world pixels,
+	 * inclusive) onto the given graphics, in world coordinates.
+	 */
+	public void paint(Graphics2D g, int left, int bottom, int right, int top) {
+		int minChunkX = Math.max(0, Math.floorDiv(left, chunkSize));
+		int minChunkY = Math.max(0, Math.floorDiv(bottom, chunkSize));
+		int maxChunkX = Math.min(getNbChunksX() - 1,
+				Math.floorDiv(right, chunkSize));
+		int maxChunkY = Math.min(getNbChunksY() - 1,
+				Math.floorDiv(top, chunkSize));
+
+		for (int chunkY = minChunkY; chunkY <= maxChunkY; chunkY++) {
+			for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+				AlienGUIUtils.drawImageInWorld(g, getChunk(chunkX, chunkY),
+						chunkX * chunkSize, chunkY * chunkSize, false);
+			}
+		}
+	}
+
+	private int getNbChunksX() {
+		return (map.getNbTilesX() + CHUNK_TILES - 1) / CHUNK_TILES;
+	}
+
+	private int getNbChunksY() {
+		return (map.getNbTilesY() + CHUNK_TILES - 1) / CHUNK_TILES;
+	}
+
+	private Image getChunk(int chunkX, int chunkY) {
+		Long key = ((long) chunkX << 32) | (chunkY & 0xffffffffL);
+		Image chunk = chunks.get(key);
+		if (chunk == null) {
+			chunk = renderChunk(chunkX, chunkY);
+			chunks.put(key, chunk);
+		}
+		return chunk;
+	}
+
+	/**
+	 * Renders all layers of the tiles in the given chunk into a new image, in
+	 * the same order as they would be painted tile by tile. The image is
+	 * upright, with the bottom left tile of the chunk in its bottom left
+	 * corner.
+	 */
+	private Image renderChunk(int chunkX, int chunkY) {
+		BufferedImage chunk = GUIUtils.createCompatibleImage(chunkSize,
+				chunkSize, Transparency.TRANSLUCENT);
+		Graphics2D g = chunk.createGraphics();
+		try {
+			for (int localY = -overflowTilesY; localY < CHUNK_TILES; localY++) {
+				for (int localX = -overflowTilesX; localX < CHUNK_TILES; localX++) {
+					int tileX = chunkX * CHUNK_TILES + localX;
+					int tileY = chunkY * CHUNK_TILES + localY;
+					if (map.isValidTileCoordinate(tileX, tileY)) {
+						for (Layer layer : map.getLayers()) {
+							ImageTile tile = layer.getTile(tileX, tileY);
+							if (tile != null) {
+								Image image = tile.getImage();
+								// image rows go down, world rows go up
+								g.drawImage(image, localX * tileSize,
+										chunkSize - localY * tileSize
+												- image.getHeight(null), null);
+							}
+						}
+					}
+				}
+			}
+		} finally {
+			g.dispose();
+		}
+		return chunk;
+	}
+
+}
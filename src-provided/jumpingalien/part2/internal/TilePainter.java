@@ -4,11 +4,9 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.util.Optional;
 
-import jumpingalien.common.gui.AlienGUIUtils;
 import jumpingalien.common.gui.painters.AbstractAlienPainter;
-import jumpingalien.part2.internal.tmxfile.data.ImageTile;
-import jumpingalien.part2.internal.tmxfile.data.Layer;
 import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
+import jumpingalien.part2.internal.tmxfile.data.Map;
 
 public class TilePainter extends AbstractAlienPainter<Part2GameScreen> {
 
@@ -16,11 +14,34 @@ public class TilePainter extends AbstractAlienPainter<Part2GameScreen> {
 			64);
 	private final int tileSize;
 
+	/**
+	 * Number of chunks kept in memory when only the visible window is painted;
+	 * enough for twice the chunks on a 1080p screen.
+	 */
+	private static final int MAX_CACHED_CHUNKS = 48;
+
+	private TileChunkCache chunkCache;
+
 	public TilePainter(Part2GameScreen screen) {
 		super(screen);
 		tileSize = getGame().getWorldInfoProvider().getTileLength();
 	}
 
+	private TileChunkCache getChunkCache() {
+		Map map = getGame().getMap();
+		if (chunkCache == null || chunkCache.getMap() != map) {
+			int maxChunks = MAX_CACHED_CHUNKS;
+			if (getOptions().getDebugShowEntireWorld()) {
+				int chunkTiles = TileChunkCache.CHUNK_TILES;
+				maxChunks = Math.max(maxChunks,
+						((map.getNbTilesX() + chunkTiles - 1) / chunkTiles)
+								* ((map.getNbTilesY() + chunkTiles - 1) / chunkTiles));
+			}
+			chunkCache = new TileChunkCache(map, maxChunks);
+		}
+		return chunkCache;
+	}
+
 	@Override
 	protected JumpingAlienGamePart2 getGame() {
 		return (JumpingAlienGamePart2) super.getGame();
@@ -38,33 +59,32 @@ public class TilePainter extends AbstractAlienPainter<Part2GameScreen> {
 		g.setColor(getBackgroundColor());
 		g.fillRect(0, 0, worldSize[0], worldSize[1]);
 
-		Optional<int[][]> tileCoordinatesToDrawOpt;
+		int[] region;
 		if (getOptions().getDebugShowEntireWorld()) {
-			tileCoordinatesToDrawOpt = getGame().getWorldInfoProvider()
-					.getTilesIn(0, 0, worldSize[0], worldSize[1]);
+			region = new int[] { 0, 0, worldSize[0], worldSize[1] };
 		} else {
 			Optional<int[]> visibleWindowOpt = getGame().getWorldInfoProvider()
-					.getVisibleWindow();
+					.getVisibleWindow(getInterpolation());
 
 			if (!visibleWindowOpt.isPresent()) {
 				return;
 			}
-			int[] visibleWindow = visibleWindowOpt.get();
-
-			tileCoordinatesToDrawOpt = getGame().getWorldInfoProvider()
-					.getTilesIn(visibleWindow[0], visibleWindow[1],
-							visibleWindow[2], visibleWindow[3]);
-		}
-		if (!tileCoordinatesToDrawOpt.isPresent()) {
-			return;
+			region = visibleWindowOpt.get();
 		}
-		int[][] tileCoordinatesToDraw = tileCoordinatesToDrawOpt.get();
 
-		for (int[] tileXY : tileCoordinatesToDraw) {
-			int tileX = tileXY[0];
-			int tileY = tileXY[1];
+		getChunkCache().paint(g, region[0], region[1], region[2], region[3]);
 
-			paintTile(g, tileX, tileY);
+		if (getOptions().getDebugShowTileTypes()
+				|| getOptions().getDebugShowTileGridlines()) {
+			Optional<int[][]> tileCoordinatesToDrawOpt = getGame()
+					.getWorldInfoProvider().getTilesIn(region[0], region[1],
+							region[2], region[3]);
+			if (!tileCoordinatesToDrawOpt.isPresent()) {
+				return;
+			}
+			for (int[] tileXY : tileCoordinatesToDrawOpt.get()) {
+				paintTileDebugInfo(g, tileXY[0], tileXY[1]);
+			}
 		}
 
 		if (getOptions().getDebugShowAlienOverlappingTiles()) {
@@ -114,7 +134,7 @@ public class TilePainter extends AbstractAlienPainter<Part2GameScreen> {
 		}
 	}
 
-	private void paintTile(Graphics2D g, int tileX, int tileY) {
+	private void paintTileDebugInfo(Graphics2D g, int tileX, int tileY) {
 		Optional<int[]> bottomLeftOpt = getGame().getWorldInfoProvider()
 				.getBottomLeftPixelOfTile(tileX, tileY);
 		if (!bottomLeftOpt.isPresent()) {
@@ -123,18 +143,6 @@ public class TilePainter extends AbstractAlienPainter<Part2GameScreen> {
 		}
 		int[] bottomLeftXY = bottomLeftOpt.get();
 
-		int tileSize = getGame().getWorldInfoProvider().getTileLength();
-
-		for (Layer layer : getGame().getMap().getLayers()) {
-			if (getGame().getMap().isValidTileCoordinate(tileX, tileY)) {
-				ImageTile tile = layer.getTile(tileX, tileY);
-				if (tile != null) {
-					AlienGUIUtils.drawImageInWorld(g, tile.getImage(),
-							bottomLeftXY[0], bottomLeftXY[1], false);
-				}
-			}
-		}
-
 		if (getOptions().getDebugShowTileTypes()) {
 			Optional<TileType> optType = getGame().getWorldInfoProvider()
 					.getGeologicalFeature(bottomLeftXY[0], bottomLeftXY[1]);
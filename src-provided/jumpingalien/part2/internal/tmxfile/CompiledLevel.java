@@ -0,0 +1,290 @@
+package jumpingalien.part2.internal.tmxfile;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.MapObject;
+import jumpingalien.part2.internal.tmxfile.data.ObjectGroup;
+import jumpingalien.part2.internal.tmxfile.data.Tileset;
+
+/**
+ * Binary form of a level file, which is read through a MappedByteBuffer
+ * without parsing: the gids of the layers and the terrain types are used
+ * straight from the mapped file, only the tilesets and objects are decoded.
+ *
+ * The file consists of a header with the size of the map, its background
+ * and its start and target positions, followed by the tilesets, the gids of
+ * each layer (row by row from the top), the terrain type of each tile (row
+ * by row from the bottom) and the object groups. All numbers are big-endian
+ * and the arrays of gids are 4-byte aligned.
+ *
+ * Run {@link #main(String[])} to compile the level files in a folder.
+ */
+public class CompiledLevel {
+
+	public static final String EXTENSION = ".jalvl";
+
+	private static final int MAGIC = 0x4A414C56; // "JALV"
+	private static final int VERSION = 1;
+
+	private static final int HFLIP = 1;
+	private static final int VFLIP = 2;
+
+	/**
+	 * Compiles the given level files (by default all .tmx files) in the given
+	 * folder (by default levels/).
+	 */
+	public static void main(String[] args) throws IOException {
+		String levelsFolder = args.length > 0 ? args[0] : "levels/";
+		String[] filenames;
+		if (args.length > 1) {
+			filenames = new String[args.length - 1];
+			System.arraycopy(args, 1, filenames, 0, filenames.length);
+		} else {
+			filenames = new File(levelsFolder).list((dir, name) -> name
+					.endsWith(".tmx"));
+		}
+		TMXFileReader reader = new TMXFileReader(levelsFolder);
+		for (String filename : filenames) {
+			File target = getCompiledFile(new File(levelsFolder, filename));
+			write(reader.readXML(filename), levelsFolder, target);
+			System.out.println(filename + " -> " + target);
+		}
+	}
+
+	/**
+	 * Returns the file that holds the compiled form of the given level file.
+	 */
+	public static File getCompiledFile(File levelFile) {
+		String name = levelFile.getName();
+		int dot = name.lastIndexOf('.');
+		if (dot > 0) {
+			name = name.substring(0, dot);
+		}
+		return new File(levelFile.getParentFile(), name + EXTENSION);
+	}
+
+	public static void write(Map map, String levelsFolder, File file)
+			throws IOException {
+		Path folder = new File(levelsFolder).getAbsoluteFile().toPath()
+				.normalize();
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(map.getNbTilesX());
+			out.writeInt(map.getNbTilesY());
+			out.writeInt(map.getTileSizeX());
+			out.writeInt(map.getTileSizeY());
+			out.writeInt(map.getInitialPositionX());
+			out.writeInt(map.getInitialPositionY());
+			out.writeInt(map.getTargetTileX());
+			out.writeInt(map.getTargetTileY());
+			writeString(out, map.getBackground());
+
+			List<Tileset> tilesets = map.getTilesets();
+			out.writeInt(tilesets.size());
+			for (Tileset tileset : tilesets) {
+				out.writeInt(tileset.getFirstId());
+				out.writeInt(tileset.getTiles().size());
+				for (ImageTile tile : tileset.getTiles()) {
+					out.writeInt(tile.getId());
+					out.writeInt(tile.getWidth());
+					out.writeInt(tile.getHeight());
+					writeString(out, folder.relativize(
+							tile.getFile().getAbsoluteFile().toPath()
+									.normalize()).toString()
+							.replace(File.separatorChar, '/'));
+				}
+			}
+
+			List<Layer> layers = map.getLayers();
+			out.writeInt(layers.size());
+			for (Layer layer : layers) {
+				writeString(out, layer.getName());
+				align(out);
+				for (int tileY = map.getNbTilesY() - 1; tileY >= 0; tileY--) {
+					for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
+						ImageTile tile = layer.getTile(tileX, tileY);
+						out.writeInt(tile == null ? 0 : tile.getId());
+					}
+				}
+			}
+
+			for (int tileY = 0; tileY < map.getNbTilesY(); tileY++) {
+				for (int tileX = 0; tileX < map.getNbTilesX(); tileX++) {
+					out.writeByte(map.getTerrainType(tileX, tileY).getValue());
+				}
+			}
+
+			List<ObjectGroup> groups = map.getObjectGroups();
+			out.writeInt(groups.size());
+			for (ObjectGroup group : groups) {
+				writeString(out, group.getName());
+				out.writeInt(group.getObjects().size());
+				for (MapObject object : group.getObjects()) {
+					out.writeInt(object.getId());
+					out.writeInt(object.getTile().getId());
+					out.writeInt(object.getX());
+					out.writeInt(object.getY());
+					out.writeByte((object.getHflip() ? HFLIP : 0)
+							| (object.getVflip() ? VFLIP : 0));
+					out.writeInt(object.getAttributes().size());
+					for (java.util.Map.Entry<String, String> attribute : object
+							.getAttributes().entrySet()) {
+						writeString(out, attribute.getKey());
+						writeString(out, attribute.getValue());
+					}
+				}
+			}
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value)
+			throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static void align(DataOutputStream out) throws IOException {
+		while (out.size() % Integer.BYTES != 0) {
+			out.writeByte(0);
+		}
+	}
+
+	/**
+	 * Reads the given compiled level file. Image files are resolved relative
+	 * to the given folder, like in level files.
+	 */
+	public static Map read(String levelsFolder, String filename)
+			throws IllegalArgumentException {
+		try (FileChannel channel = FileChannel.open(
+				new File(levelsFolder, filename).toPath(),
+				StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			// the mapping stays valid after the channel has been closed
+			return read(buffer, levelsFolder);
+		} catch (IOException | RuntimeException e) {
+			throw new IllegalArgumentException("Could not read: "
+					+ e.getMessage(), e);
+		}
+	}
+
+	private static Map read(ByteBuffer buffer, String levelsFolder)
+			throws IOException {
+		if (buffer.getInt() != MAGIC) {
+			throw new IOException("Not a compiled level");
+		}
+		int version = buffer.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported compiled level version "
+					+ version);
+		}
+		int nbTilesX = buffer.getInt();
+		int nbTilesY = buffer.getInt();
+		Map map = new Map(nbTilesX, nbTilesY, buffer.getInt(),
+				buffer.getInt());
+		map.setInitialX(buffer.getInt());
+		map.setInitialY(buffer.getInt());
+		map.setTargetTileX(buffer.getInt());
+		map.setTargetTileY(buffer.getInt());
+		map.setBackground(readString(buffer));
+
+		int nbTilesets = buffer.getInt();
+		for (int i = 0; i < nbTilesets; i++) {
+			int firstId = buffer.getInt();
+			Tileset tileset = map.newTileSet(firstId);
+			int nbTiles = buffer.getInt();
+			for (int j = 0; j < nbTiles; j++) {
+				ImageTile tile = tileset.newTile(buffer.getInt() - firstId);
+				int width = buffer.getInt();
+				int height = buffer.getInt();
+				tile.setImage(width, height, new File(levelsFolder,
+						readString(buffer)));
+			}
+		}
+
+		int nbTiles = nbTilesX * nbTilesY;
+		int nbLayers = buffer.getInt();
+		for (int i = 0; i < nbLayers; i++) {
+			String name = readString(buffer);
+			align(buffer);
+			IntBuffer gids = slice(buffer, nbTiles * Integer.BYTES)
+					.asIntBuffer();
+			map.newLayer(name, gids);
+		}
+
+		map.setTerrainTypes(slice(buffer, nbTiles));
+
+		int nbGroups = buffer.getInt();
+		for (int i = 0; i < nbGroups; i++) {
+			ObjectGroup group = map.newObjectGroup(readString(buffer));
+			int nbObjects = buffer.getInt();
+			for (int j = 0; j < nbObjects; j++) {
+				int id = buffer.getInt();
+				ImageTile tile = map.getTile(buffer.getInt());
+				int x = buffer.getInt();
+				int y = buffer.getInt();
+				int flags = buffer.get();
+				MapObject object = new MapObject(id, tile, x, y);
+				object.setHFlip((flags & HFLIP) != 0);
+				object.setVFlip((flags & VFLIP) != 0);
+				int nbAttributes = buffer.getInt();
+				for (int k = 0; k < nbAttributes; k++) {
+					object.setAttribute(readString(buffer), readString(buffer));
+				}
+				if (tile != null) {
+					group.addObject(object);
+				}
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Returns a view of the next given number of bytes, and skips them.
+	 */
+	private static ByteBuffer slice(ByteBuffer buffer, int length) {
+		ByteBuffer result = buffer.duplicate();
+		result.limit(result.position() + length);
+		buffer.position(buffer.position() + length);
+		return result.slice();
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void align(ByteBuffer buffer) {
+		while (buffer.position() % Integer.BYTES != 0) {
+			buffer.get();
+		}
+	}
+
+}
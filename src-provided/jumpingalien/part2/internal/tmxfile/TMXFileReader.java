@@ -1,7 +1,9 @@
 package jumpingalien.part2.internal.tmxfile;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.InputStream;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
@@ -22,13 +24,35 @@ public class TMXFileReader {
 		this.levelsFolder = levelsFolder;
 	}
 
+	/**
+	 * Reads the given level file, or its compiled form if that is at least as
+	 * recent (see {@link CompiledLevel}). Compiled files can also be read
+	 * directly.
+	 */
 	public Map read(String filename) throws IllegalArgumentException {
+		if (filename.endsWith(CompiledLevel.EXTENSION)) {
+			return CompiledLevel.read(levelsFolder, filename);
+		}
+		File file = new File(levelsFolder, filename);
+		File compiled = CompiledLevel.getCompiledFile(file);
+		if (compiled.isFile() && compiled.lastModified() >= file.lastModified()) {
+			return CompiledLevel.read(levelsFolder, compiled.getName());
+		}
+		return readXML(filename);
+	}
+
+	/**
+	 * Reads the given level file itself, ignoring any compiled form.
+	 */
+	public Map readXML(String filename) throws IllegalArgumentException {
 		try {
 			SAXParserFactory pf = SAXParserFactory.newInstance();
 			SAXParser parser = pf.newSAXParser();
 			TMXFileSAXHandler handler = new TMXFileSAXHandler(levelsFolder);
-			parser.parse(new FileInputStream(new File(levelsFolder, filename)),
-					handler);
+			try (InputStream in = new BufferedInputStream(new FileInputStream(
+					new File(levelsFolder, filename)))) {
+				parser.parse(in, handler);
+			}
 			return handler.getResult();
 		} catch (Exception e) {
 			throw new IllegalArgumentException("Could not parse: "
@@ -1,7 +1,13 @@
 package jumpingalien.part2.internal.tmxfile;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.util.Optional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import jumpingalien.part2.internal.tmxfile.data.ImageTile;
 import jumpingalien.part2.internal.tmxfile.data.Layer;
@@ -25,6 +31,41 @@ class TMXFileSAXHandler extends DefaultHandler {
 	private ObjectGroup currentObjectGroup;
 	private MapObject currentObject;
 
+	/**
+	 * Tiles use these bits of a gid for flipping.
+	 */
+	private static final int GID_MASK = 0x1fffffff;
+
+	/**
+	 * Gids are unsigned 32-bit numbers, including the flipping bits.
+	 */
+	private static final long MAX_GID = 0xffffffffL;
+
+	/**
+	 * The encoding and compression of the current layer data, or null if the
+	 * tiles are given as XML elements.
+	 */
+	private String dataEncoding;
+	private String dataCompression;
+
+	/**
+	 * Collects the characters of base64 layer data.
+	 */
+	private final StringBuilder dataText = new StringBuilder();
+
+	/**
+	 * State of the CSV parser, which handles the characters of CSV layer data
+	 * as they come in.
+	 */
+	private long csvValue;
+	private boolean csvHasValue;
+	/**
+	 * Whether whitespace followed the digits of the current CSV value, after
+	 * which only a comma may follow.
+	 */
+	private boolean csvValueEnded;
+	private int dataTileCount;
+
 	public TMXFileSAXHandler(String parentFolder) {
 		this.parentFolder = parentFolder;
 	}
@@ -95,17 +136,33 @@ class TMXFileSAXHandler extends DefaultHandler {
 			currentLayer = map.newLayer(name);
 			break;
 		}
-		case "data":
-			// ignore
+		case "data": {
+			dataEncoding = attributes.getValue("encoding");
+			dataCompression = attributes.getValue("compression");
+			if (dataEncoding != null && !dataEncoding.equals("csv")
+					&& !dataEncoding.equals("base64")) {
+				throw new SAXException("Unsupported layer encoding: "
+						+ dataEncoding);
+			}
+			if (dataCompression != null && !dataCompression.equals("zlib")
+					&& !dataCompression.equals("gzip")) {
+				throw new SAXException("Unsupported layer compression: "
+						+ dataCompression);
+			}
+			dataText.setLength(0);
+			csvValue = 0;
+			csvHasValue = false;
+			csvValueEnded = false;
+			dataTileCount = 0;
 			break;
+		}
 		case "tile": {
 			if (currentTileset != null) {
 				int id = Integer.parseInt(attributes.getValue("id"));
 				currentTile = currentTileset.newTile(id);
 			} else if (currentLayer != null) {
 				int id = Integer.parseInt(attributes.getValue("gid"));
-				Optional<ImageTile> tile = map.findTile(id);
-				currentLayer.addTile(tile.orElse(null));
+				currentLayer.addTile(map.getTile(id));
 			}
 			break;
 		}
@@ -144,10 +201,114 @@ class TMXFileSAXHandler extends DefaultHandler {
 		}
 	}
 
+	@Override
+	public void characters(char[] ch, int start, int length)
+			throws SAXException {
+		if (currentLayer == null || dataEncoding == null) {
+			return;
+		}
+		if (dataEncoding.equals("base64")) {
+			dataText.append(ch, start, length);
+			return;
+		}
+		for (int i = start; i < start + length; i++) {
+			char c = ch[i];
+			if (c >= '0' && c <= '9') {
+				if (csvValueEnded) {
+					throw new SAXException(
+							"Missing comma between tiles in CSV layer data");
+				}
+				csvValue = csvValue * 10 + (c - '0');
+				if (csvValue > MAX_GID) {
+					throw new SAXException(
+							"Tile out of range in CSV layer data");
+				}
+				csvHasValue = true;
+			} else if (c == ',') {
+				addDataTile();
+			} else if (Character.isWhitespace(c)) {
+				csvValueEnded = csvHasValue;
+			} else {
+				throw new SAXException("Invalid character in CSV layer data: "
+						+ c);
+			}
+		}
+	}
+
+	private void addDataTile() throws SAXException {
+		if (!csvHasValue) {
+			throw new SAXException("Missing tile in CSV layer data");
+		}
+		addDataTile(csvValue);
+		csvValue = 0;
+		csvHasValue = false;
+		csvValueEnded = false;
+	}
+
+	private void addDataTile(long gid) {
+		currentLayer.addTile(map.getTile((int) (gid & GID_MASK)));
+		dataTileCount++;
+	}
+
+	/**
+	 * Adds the tiles of base64 encoded layer data to the current layer. Each
+	 * tile is an unsigned little-endian 32-bit gid, optionally compressed as a
+	 * whole with zlib or gzip.
+	 */
+	private void addBase64Tiles() throws SAXException {
+		byte[] bytes = Base64.getMimeDecoder().decode(
+				dataText.toString().trim());
+		dataText.setLength(0);
+		try (InputStream in = openData(bytes)) {
+			int b0;
+			while ((b0 = in.read()) >= 0) {
+				int b1 = in.read();
+				int b2 = in.read();
+				int b3 = in.read();
+				if (b3 < 0) {
+					throw new SAXException("Truncated base64 layer data");
+				}
+				addDataTile(b0 | (b1 << 8) | (b2 << 16) | ((long) b3 << 24));
+			}
+		} catch (IOException e) {
+			throw new SAXException("Invalid " + dataCompression
+					+ " layer data: " + e.getMessage(), e);
+		}
+	}
+
+	private InputStream openData(byte[] bytes) throws IOException {
+		InputStream in = new ByteArrayInputStream(bytes);
+		if ("zlib".equals(dataCompression)) {
+			in = new InflaterInputStream(in);
+		} else if ("gzip".equals(dataCompression)) {
+			in = new GZIPInputStream(in);
+		} else {
+			return in;
+		}
+		return new BufferedInputStream(in);
+	}
+
 	@Override
 	public void endElement(String uri, String localName, String qName)
 			throws SAXException {
 		switch (qName) {
+		case "data":
+			if (currentLayer != null && dataEncoding != null) {
+				if (dataEncoding.equals("base64")) {
+					addBase64Tiles();
+				} else if (csvHasValue) {
+					addDataTile();
+				}
+				int expected = map.getNbTilesX() * map.getNbTilesY();
+				if (dataTileCount != expected) {
+					throw new SAXException("Layer " + currentLayer.getName()
+							+ " has " + dataTileCount + " tiles instead of "
+							+ expected);
+				}
+			}
+			dataEncoding = null;
+			dataCompression = null;
+			break;
 		case "tileset":
 			currentTileset = null;
 			break;
@@ -61,7 +61,7 @@ public class ImageTile {
 	private File file;
 	private int height;
 	private int width;
-	private Image image;
+	private volatile Image image;
 
 	public ImageTile(int id) {
 		this.id = id;
@@ -93,10 +93,14 @@ public class ImageTile {
 		return getTileTypeFor(file.getName());
 	}
 
+	/**
+	 * Loads the image the first time it's needed, unless it has been
+	 * preloaded. May be called from several threads.
+	 */
 	public Image getImage() {
 		// lazy loading
 		if (image == null) {
-			image = GUIUtils.loadImage(file.getAbsolutePath());
+			image = GUIUtils.loadCompatibleImage(file.getAbsolutePath());
 		}
 		return image;
 	}
@@ -1,11 +1,19 @@
 package jumpingalien.part2.internal.tmxfile.data;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 public class Layer {
 
-	private final List<ImageTile> tiles = new ArrayList<>();
+	private final List<ImageTile> tiles;
+
+	/**
+	 * The gids of the tiles, row by row from the top, if this layer is backed
+	 * by a compiled level instead of a list of tiles.
+	 */
+	private final IntBuffer gids;
+	private final Map map;
 
 	private final String name;
 
@@ -17,6 +25,26 @@ public class Layer {
 		this.name = name;
 		this.nbTilesX = nbTilesX;
 		this.nbTilesY = nbTilesY;
+		this.tiles = new ArrayList<>(nbTilesX * nbTilesY);
+		this.gids = null;
+		this.map = null;
+	}
+
+	/**
+	 * Creates a layer whose tiles are looked up in the given map by the gids in
+	 * the given buffer, without copying them.
+	 */
+	Layer(String name, int nbTilesX, int nbTilesY, IntBuffer gids, Map map) {
+		if (gids.remaining() != nbTilesX * nbTilesY) {
+			throw new IllegalArgumentException("Expected " + nbTilesX
+					* nbTilesY + " gids, got " + gids.remaining());
+		}
+		this.name = name;
+		this.nbTilesX = nbTilesX;
+		this.nbTilesY = nbTilesY;
+		this.tiles = null;
+		this.gids = gids;
+		this.map = map;
 	}
 
 	public String getName() {
@@ -24,11 +52,17 @@ public class Layer {
 	}
 
 	public void addTile(ImageTile tile) {
+		if (tiles == null) {
+			throw new IllegalStateException("Layer " + name + " is read-only");
+		}
 		tiles.add(tile);
 	}
 
 	public ImageTile getTile(int tileX, int tileY) {
 		int tileIndex = (nbTilesY - tileY - 1) * nbTilesX + tileX;
+		if (gids != null) {
+			return map.getTile(gids.get(tileIndex));
+		}
 		return tiles.get(tileIndex);
 	}
 
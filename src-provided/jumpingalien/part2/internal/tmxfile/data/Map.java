@@ -1,15 +1,24 @@
 package jumpingalien.part2.internal.tmxfile.data;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+
+import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
 
 public class Map {
 
 	private final List<Tileset> tilesets = new ArrayList<>();
+
+	/**
+	 * All tiles of all tilesets, indexed by their global id.
+	 */
+	private ImageTile[] tilesByGid = new ImageTile[64];
 	private final List<Layer> layers = new ArrayList<>();
 	private final List<ObjectGroup> objectGroups = new ArrayList<>();
 
@@ -18,6 +27,14 @@ public class Map {
 	private final int tileSizeX;
 	private final int tileSizeY;
 
+	private static final TileType[] TILE_TYPES = TileType.values();
+
+	/**
+	 * The terrain type of every tile, row by row from the bottom, or null if
+	 * it's to be derived from the Terrain layer.
+	 */
+	private ByteBuffer terrainTypes;
+
 	private String background;
 	private int initialX;
 	private int initialY;
@@ -56,7 +73,7 @@ public class Map {
 	}
 
 	public Tileset newTileSet(int gid) {
-		Tileset result = new Tileset(gid);
+		Tileset result = new Tileset(gid, this);
 		tilesets.add(result);
 		return result;
 	}
@@ -67,10 +84,110 @@ public class Map {
 		return result;
 	}
 
+	/**
+	 * Adds a layer whose tiles are given by their gids, row by row from the
+	 * top. The buffer is used as is, not copied.
+	 */
+	public Layer newLayer(String name, IntBuffer gids) {
+		Layer result = new Layer(name, nbTilesX, nbTilesY, gids, this);
+		layers.add(result);
+		return result;
+	}
+
+	/**
+	 * Sets the terrain type values of all tiles, row by row from the bottom.
+	 * The buffer is used as is, not copied.
+	 */
+	public void setTerrainTypes(ByteBuffer terrainTypes) {
+		if (terrainTypes.remaining() != nbTilesX * nbTilesY) {
+			throw new IllegalArgumentException("Expected " + nbTilesX
+					* nbTilesY + " terrain types, got "
+					+ terrainTypes.remaining());
+		}
+		this.terrainTypes = terrainTypes;
+	}
+
+	/**
+	 * Returns the type of the given tile in the Terrain layer; tiles without
+	 * an image are air.
+	 */
+	public TileType getTerrainType(int tileX, int tileY) {
+		if (terrainTypes != null) {
+			int value = terrainTypes.get(tileY * nbTilesX + tileX);
+			if (value >= 0 && value < TILE_TYPES.length
+					&& TILE_TYPES[value].getValue() == value) {
+				return TILE_TYPES[value];
+			}
+			return TileType.fromValue(value);
+		}
+		Layer terrain = getLayer("Terrain");
+		ImageTile tile = terrain == null ? null : terrain.getTile(tileX, tileY);
+		if (tile == null) {
+			return TileType.AIR;
+		}
+		return tile.getType();
+	}
+
+	/**
+	 * Stores the values of the terrain types of the given block of tiles in
+	 * the given array, row by row from the bottom. Can be called from several
+	 * threads at once.
+	 */
+	public void readTerrainTypes(int left, int bottom, int width, int height,
+			byte[] values) {
+		if (terrainTypes != null) {
+			ByteBuffer rows = terrainTypes.duplicate();
+			for (int y = 0; y < height; y++) {
+				rows.position((bottom + y) * nbTilesX + left);
+				rows.get(values, y * width, width);
+			}
+			return;
+		}
+		Layer terrain = getLayer("Terrain");
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				ImageTile tile = terrain == null ? null : terrain.getTile(
+						left + x, bottom + y);
+				values[y * width + x] = (byte) (tile == null ? TileType.AIR
+						: tile.getType()).getValue();
+			}
+		}
+	}
+
+	public List<Tileset> getTilesets() {
+		return tilesets;
+	}
+
 	public Optional<ImageTile> findTile(int id) {
-		return tilesets.stream().map(ts -> ts.findTile(id))
-				.flatMap(o -> o.map(Stream::of).orElseGet(Stream::empty))
-				.findAny();
+		return Optional.ofNullable(getTile(id));
+	}
+
+	/**
+	 * Returns the tile with the given global id, or null if there is none.
+	 */
+	public ImageTile getTile(int gid) {
+		if (gid < 0 || gid >= tilesByGid.length) {
+			return null;
+		}
+		return tilesByGid[gid];
+	}
+
+	/**
+	 * Called by the tilesets of this map for each tile they create.
+	 */
+	void addTile(ImageTile tile) {
+		int gid = tile.getId();
+		if (gid < 0) {
+			return;
+		}
+		if (gid >= tilesByGid.length) {
+			tilesByGid = Arrays.copyOf(tilesByGid,
+					Math.max(gid + 1, 2 * tilesByGid.length));
+		}
+		// like a search through the tilesets, the first tile with an id wins
+		if (tilesByGid[gid] == null) {
+			tilesByGid[gid] = tile;
+		}
 	}
 
 	public Layer getLayer(String name) {
@@ -1,5 +1,6 @@
 package jumpingalien.part2.internal.tmxfile.data;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -61,6 +62,10 @@ public class MapObject {
 		return vflip;
 	}
 
+	public Map<String, String> getAttributes() {
+		return Collections.unmodifiableMap(attributes);
+	}
+
 	public Optional<Integer> getIntAttribute(String name) {
 		if (attributes.containsKey(name)) {
 			return Optional.of(Integer.parseInt(attributes.get(name)));
@@ -8,8 +8,15 @@ public class Tileset {
 
 	private int firstId;
 
+	private final Map map;
+
 	public Tileset(int gid) {
+		this(gid, null);
+	}
+
+	Tileset(int gid, Map map) {
 		this.firstId = gid;
+		this.map = map;
 	}
 
 	private List<ImageTile> tiles = new ArrayList<>();
@@ -17,6 +24,9 @@ public class Tileset {
 	public ImageTile newTile(int id) {
 		ImageTile result = new ImageTile(firstId + id);
 		tiles.add(result);
+		if (map != null) {
+			map.addTile(result);
+		}
 		return result;
 	}
 
@@ -28,7 +38,17 @@ public class Tileset {
 		return firstId + tiles.size();
 	}
 
+	public List<ImageTile> getTiles() {
+		return tiles;
+	}
+
 	public Optional<ImageTile> findTile(int id) {
+		// tiles are normally numbered consecutively from the first id
+		int index = id - firstId;
+		if (index >= 0 && index < tiles.size()
+				&& tiles.get(index).getId() == id) {
+			return Optional.of(tiles.get(index));
+		}
 		return tiles.stream().filter(t -> t.getId() == id).findAny();
 	}
 
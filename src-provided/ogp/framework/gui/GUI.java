@@ -69,7 +69,18 @@ public abstract class GUI<TGame extends Game> {
 
 	private volatile boolean stopped = false;
 
+	/**
+	 * Longest frame time (in seconds) that is fed into the fixed-timestep
+	 * accumulator. Time beyond this is dropped, so a slow frame can't cause
+	 * ever more game updates per frame.
+	 */
+	private static final double MAX_ACCUMULATED_TIME = 0.25;
+
 	private void gameLoop() {
+		if (options.isPipelined()) {
+			pipelinedGameLoop();
+			return;
+		}
 
 		fpsCounter.start();
 
@@ -77,7 +88,7 @@ public abstract class GUI<TGame extends Game> {
 
 			double dt = fpsCounter.getTimeToAdvance();
 
-			game.update(dt);
+			advanceGame(dt);
 
 			fpsCounter.gameUpdated();
 			
@@ -87,15 +98,98 @@ public abstract class GUI<TGame extends Game> {
 
 			fpsCounter.framePainted();
 
-			try {
-				Thread.sleep(fpsCounter.getTimeToSleep());
-			} catch (InterruptedException e) {
-			}
+			sleep(fpsCounter.getTimeToSleep());
 
 			fpsCounter.frameDone();
 		}
 	}
 
+	/**
+	 * Advances the game on a separate simulation thread, while this thread
+	 * only paints. The game publishes its state after every update, so
+	 * painting never waits for the model and vice versa.
+	 */
+	private void pipelinedGameLoop() {
+		Thread simulation = new Thread(this::simulationLoop, "Simulation");
+		simulation.setDaemon(true);
+		simulation.start();
+
+		fpsCounter.start();
+
+		while (!stopped) {
+
+			double dt = fpsCounter.getTimeToAdvance();
+
+			fpsCounter.gameUpdated();
+
+			screenPanel.update(dt);
+
+			fpsCounter.framePainted();
+
+			sleep(fpsCounter.getTimeToSleep());
+
+			fpsCounter.frameDone();
+		}
+	}
+
+	private void simulationLoop() {
+		double tickRate = options.getTickRate();
+		double period = 1.0 / (tickRate > 0 ? tickRate : options.getTargetFPS());
+
+		long last = System.nanoTime();
+		while (!stopped) {
+			long now = System.nanoTime();
+			advanceGame((now - last) / 1e9);
+			last = now;
+
+			double elapsed = (System.nanoTime() - now) / 1e9;
+			sleep(Math.max(1, (long) ((period - elapsed) * 1000)));
+		}
+	}
+
+	/**
+	 * Remainder of the frame time that hasn't been used up by fixed ticks yet.
+	 * Only touched by the thread advancing the game.
+	 */
+	private double accumulator = 0;
+
+	/**
+	 * Advances the game by the given frame time, in fixed ticks if a tick rate
+	 * has been set.
+	 */
+	private void advanceGame(double dt) {
+		double tickRate = options.getTickRate();
+		if (tickRate > 0) {
+			double tickLength = 1.0 / tickRate;
+			// advance the game in fixed steps; the remainder carries over
+			accumulator = Math.min(accumulator + dt, MAX_ACCUMULATED_TIME);
+			while (accumulator >= tickLength && !stopped) {
+				updateGame(tickLength);
+				accumulator -= tickLength;
+			}
+			if (!options.isPipelined()) {
+				// painted right after this, between the last two ticks
+				screenPanel.setInterpolation(accumulator / tickLength);
+			}
+		} else {
+			updateGame(dt);
+		}
+	}
+
+	private void updateGame(double dt) {
+		// the game is restarted from input handlers on other threads
+		synchronized (game) {
+			game.update(dt);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+		}
+	}
+
 	public void exit() {
 		stopped = true;
 		frame.setVisible(false);
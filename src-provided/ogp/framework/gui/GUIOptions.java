@@ -3,6 +3,22 @@ package ogp.framework.gui;
 public interface GUIOptions {
 
 	public double getTargetFPS();
+
+	/**
+	 * Number of fixed-size game updates per second, or 0 to advance the game
+	 * by the measured duration of each frame instead (default: 0).
+	 */
+	public default double getTickRate() {
+		return 0;
+	}
+
+	/**
+	 * Whether the game is advanced on its own thread while the most recent
+	 * state is painted on the main thread (default: false).
+	 */
+	public default boolean isPipelined() {
+		return false;
+	}
 	
 	public boolean isFullScreenEnabled();
 }
@@ -14,6 +14,22 @@ public abstract class Painter<ScreenType> {
 		return screen;
 	}
 
+	private double interpolation = 1.0;
+
+	/**
+	 * Fraction (between 0 and 1) of a fixed game update that has passed since
+	 * the last update, when the game runs at a fixed tick rate. Painters use it
+	 * to draw the state between the previous and the current update. Always 1
+	 * when the game is advanced by the measured frame time.
+	 */
+	public double getInterpolation() {
+		return interpolation;
+	}
+
+	public void setInterpolation(double interpolation) {
+		this.interpolation = interpolation;
+	}
+
 	/** Paint in screen coordinates, before the world view is drawn */
 	public void  paintScreenPre(Graphics2D g) {
 		
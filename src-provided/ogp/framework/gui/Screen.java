@@ -109,6 +109,27 @@ public abstract class Screen<TGame extends Game, TGUI extends GUI<TGame>> {
 		}
 	}
 
+	private double interpolation = 1.0;
+
+	/**
+	 * Returns the render-interpolation alpha of the frame being painted, see
+	 * {@link Painter#getInterpolation()}.
+	 */
+	public double getInterpolation() {
+		return interpolation;
+	}
+
+	/**
+	 * Sets the render-interpolation alpha of the next frame, and passes it on
+	 * to the painters of this screen.
+	 */
+	public void setInterpolation(double interpolation) {
+		this.interpolation = interpolation;
+		for (Painter<?> p : getPainters()) {
+			p.setInterpolation(interpolation);
+		}
+	}
+
 	public void paintFrame(Graphics2D g) {
 		for (Painter<?> p : getPainters()) {
 			p.paintScreenPre(g);
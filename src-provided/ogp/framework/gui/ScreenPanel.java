@@ -17,6 +17,8 @@ public abstract class ScreenPanel<T extends Game> extends Canvas {
 
 	private T game;
 
+	private volatile double interpolation = 1.0;
+
 	public ScreenPanel() {
 		setIgnoreRepaint(true);
 	}
@@ -44,7 +46,22 @@ public abstract class ScreenPanel<T extends Game> extends Canvas {
 		}
 	}
 
+	/**
+	 * Sets the fraction of a game update that has passed since the last one,
+	 * which is handed to the current screen and its painters.
+	 */
+	public void setInterpolation(double interpolation) {
+		this.interpolation = interpolation;
+	}
+
+	public double getInterpolation() {
+		return interpolation;
+	}
+
 	public void update(double dt) {
+		if (currentScreen != null) {
+			currentScreen.setInterpolation(interpolation);
+		}
 		updateCurrentScreen(dt);
 		paintCurrentScreen();
 	}
@@ -1,9 +1,11 @@
 package ogp.framework.util;
 
 import java.awt.AlphaComposite;
-import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
@@ -14,8 +16,12 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 
 public class GUIUtils {
 
@@ -39,39 +45,45 @@ public class GUIUtils {
 	private static final float STEP_SIZE = 7F/10F;
 
 	public static void shiftHue(BufferedImage img, int amount) {
-		float[] hsb = new float[3];
-		for (int x = 0; x < img.getWidth(); x++) {
-			for (int y = 0; y < img.getHeight(); y++) {
-				Color color = new Color(img.getRGB(x, y), true);
-				Color.RGBtoHSB(color.getRed(), color.getGreen(),
-						color.getBlue(), hsb);
-				hsb[0] = (hsb[0] + (STEP_SIZE * amount)) % 1.0F;
-				img.setRGB(x, y, Color.HSBtoRGB(hsb[0], hsb[1], hsb[2]));
-				img.getAlphaRaster().setPixel(x, y,
-						new int[] { color.getAlpha() });
-			}
-		}
+		ImageOps.shiftHue(img, STEP_SIZE, amount);
 	}
 
 	public static BufferedImage copyImage(BufferedImage source) {
-		BufferedImage b = new BufferedImage(source.getWidth(),
-				source.getHeight(), source.getType());
-		Graphics2D g = b.createGraphics();
-		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
-				RenderingHints.VALUE_ANTIALIAS_ON);
-		g.setComposite(AlphaComposite.SrcOver);
-		g.drawImage(source, 0, 0, null);
-		g.dispose();
-		return b;
+		return ImageOps.copy(source);
 	}
 
 	public static BufferedImage scaleTo(BufferedImage image, int width,
 			int height) {
+		int[] newSize = getScaledSize(image.getWidth(), image.getHeight(),
+				width, height);
+		int newWidth = newSize[0];
+		int newHeight = newSize[1];
+		if (newWidth > 0 && newHeight > 0 && newWidth <= image.getWidth()
+				&& newHeight <= image.getHeight()) {
+			return ImageOps.scaleDownAreaAverage(image, newWidth, newHeight);
+		}
+		BufferedImage result = new BufferedImage(newWidth, newHeight,
+				image.getType());
+		Graphics2D g = result.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+				RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(image, 0, 0, newWidth, newHeight, null);
+		g.dispose();
+		return result;
+	}
+
+	/**
+	 * Returns the width and height of an image of the given size after
+	 * {@link #scaleTo(BufferedImage, int, int)} with the given width and
+	 * height.
+	 */
+	public static int[] getScaledSize(int imageWidth, int imageHeight,
+			int width, int height) {
 		double ratioX = 1.0, ratioY = 1.0;
 		if (width > 0) {
-			ratioX = (double) width / image.getWidth();
+			ratioX = (double) width / imageWidth;
 			if (height > 0) {
-				ratioY = (double) height / image.getHeight();
+				ratioY = (double) height / imageHeight;
 			} else {
 				// maintain aspect ratio
 				ratioY = ratioX;
@@ -79,24 +91,35 @@ public class GUIUtils {
 		} else {
 			if (height > 0) {
 				// maintain aspect ratio
-				ratioY = (double) height / image.getHeight();
+				ratioY = (double) height / imageHeight;
 				ratioX = ratioY;
 			}
 		}
+		return new int[] { (int) (ratioX * imageWidth),
+				(int) (ratioY * imageHeight) };
+	}
 
-		int newWidth = (int) (ratioX * image.getWidth());
-		int newHeight = (int) (ratioY * image.getHeight());
-		BufferedImage result = new BufferedImage(newWidth, newHeight,
-				image.getType());
-		Graphics2D g = result.createGraphics();
-		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
-				RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-		g.drawImage(image, 0, 0, newWidth, newHeight, null);
-		g.dispose();
-		return result;
+	private static final ConcurrentHashMap<String, BufferedImage> preloadedImages = new ConcurrentHashMap<>();
+
+	/**
+	 * Decodes the given image file, so that later calls to
+	 * {@link #loadImage(String)} with the same file name return the decoded
+	 * image without reading the file again. Callers of loadImage must not
+	 * modify the images it returns.
+	 */
+	public static BufferedImage preloadImage(String filename) {
+		return preloadedImages.computeIfAbsent(filename, GUIUtils::readImage);
 	}
 
 	public static BufferedImage loadImage(String filename) {
+		BufferedImage preloaded = preloadedImages.get(filename);
+		if (preloaded != null) {
+			return preloaded;
+		}
+		return readImage(filename);
+	}
+
+	private static BufferedImage readImage(String filename) {
 		try {
 			InputStream inputStream = openResource(filename);
 			BufferedImage result = ImageIO.read(inputStream);
@@ -108,14 +131,93 @@ public class GUIUtils {
 		}
 	}
 
+	/**
+	 * Returns the width and height of the given image file, read from its
+	 * header without decoding the image.
+	 */
+	public static int[] readImageSize(String filename) {
+		try (InputStream stream = openResource(filename);
+				ImageInputStream input = ImageIO.createImageInputStream(stream)) {
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+			if (!readers.hasNext()) {
+				throw new IOException("Unknown image format");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, true);
+				return new int[] { reader.getWidth(0), reader.getHeight(0) };
+			} finally {
+				reader.dispose();
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(
+					"Could not read file '" + filename + "'", e);
+		}
+	}
+
+	/**
+	 * Loads the given image and converts it with
+	 * {@link #toCompatibleImage(BufferedImage)}.
+	 */
+	public static BufferedImage loadCompatibleImage(String filename) {
+		return toCompatibleImage(loadImage(filename));
+	}
+
+	/**
+	 * Returns a new image in the format of the screen, which Java2D can keep
+	 * in video memory and draw without converting it first.
+	 * 
+	 * @param transparency
+	 *            Transparency.OPAQUE, BITMASK or TRANSLUCENT
+	 */
+	public static BufferedImage createCompatibleImage(int width, int height,
+			int transparency) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return new BufferedImage(width, height,
+					transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB
+							: BufferedImage.TYPE_INT_ARGB_PRE);
+		}
+		return getDefaultConfiguration().createCompatibleImage(width, height,
+				transparency);
+	}
+
+	/**
+	 * Returns the given image in the format of the screen, with the least
+	 * transparency its pixels need: images without any transparent pixels
+	 * become opaque, and images whose pixels are either fully transparent or
+	 * fully opaque become bitmask images. Returns the image itself if it's
+	 * already in that format.
+	 */
+	public static BufferedImage toCompatibleImage(BufferedImage image) {
+		int transparency = ImageOps.getTransparency(image);
+		if (isCompatible(image, transparency)) {
+			return image;
+		}
+		BufferedImage result = createCompatibleImage(image.getWidth(),
+				image.getHeight(), transparency);
+		Graphics2D g = result.createGraphics();
+		g.setComposite(AlphaComposite.Src);
+		g.drawImage(image, 0, 0, null);
+		g.dispose();
+		return result;
+	}
+
+	private static boolean isCompatible(BufferedImage image, int transparency) {
+		if (GraphicsEnvironment.isHeadless()) {
+			return image.getType() == (transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB
+					: BufferedImage.TYPE_INT_ARGB_PRE);
+		}
+		return image.getColorModel().equals(
+				getDefaultConfiguration().getColorModel(transparency));
+	}
+
+	private static GraphicsConfiguration getDefaultConfiguration() {
+		return GraphicsEnvironment.getLocalGraphicsEnvironment()
+				.getDefaultScreenDevice().getDefaultConfiguration();
+	}
+
 	public static BufferedImage hflip(BufferedImage image) {
-		BufferedImage flippedImage = new BufferedImage(image.getWidth(),
-				image.getHeight(), image.getType());
-		Graphics2D flippedGraphics = flippedImage.createGraphics();
-		flippedGraphics.scale(-1, 1);
-		flippedGraphics.drawImage(image, -image.getWidth(null), 0, null);
-		flippedGraphics.dispose();
-		return flippedImage;
+		return ImageOps.hflip(image);
 	}
 
 	public static InputStream openResource(String filename) throws IOException {
@@ -0,0 +1,299 @@
+package ogp.framework.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Keeps prepared images (decoded, and possibly flipped or scaled) on disk as
+ * raw ARGB pixels, so that later runs don't have to inflate and scale the
+ * same image files again.
+ *
+ * A blob is keyed by the SHA-1 hash of the contents of the image file and a
+ * description of the transformation, so changing an image file or a
+ * transformation never returns stale pixels. Blobs are read through a
+ * memory-mapped FileChannel and written to a temporary file that is then
+ * renamed, so several threads or processes can share a cache directory.
+ * Once the blobs in the directory take more than the maximum size, the least
+ * recently used ones are deleted.
+ *
+ * The cache is disabled unless a directory is given with the system property
+ * {@value #DIRECTORY_PROPERTY}. The maximum size in megabytes can be set with
+ * {@value #MAX_SIZE_PROPERTY}, and is {@value #DEFAULT_MAX_SIZE} by default.
+ * Images are always returned as TYPE_INT_ARGB, whether the cache is enabled
+ * or not and whether they come from the cache or not.
+ */
+public class ImageBlobCache {
+
+	public static final String DIRECTORY_PROPERTY = "jumpingalien.assetcache";
+	public static final String MAX_SIZE_PROPERTY = "jumpingalien.assetcache.maxsize";
+
+	public static final int DEFAULT_MAX_SIZE = 64;
+
+	/**
+	 * Part of every key, to be increased whenever the blob format or the
+	 * result of a transformation changes.
+	 */
+	private static final int VERSION = 1;
+
+	private static final int MAGIC = 0x4A414231; // "JAB1"
+	private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+	private static final ImageBlobCache DEFAULT = new ImageBlobCache(
+			getDefaultDirectory(), 1024L * 1024 * Integer.getInteger(
+					MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE));
+
+	public static ImageBlobCache getDefault() {
+		return DEFAULT;
+	}
+
+	private static Path getDefaultDirectory() {
+		String directory = System.getProperty(DIRECTORY_PROPERTY);
+		if (directory == null || directory.isEmpty()) {
+			return null;
+		}
+		return Paths.get(directory);
+	}
+
+	private final Path directory;
+	private final long maxBytes;
+
+	/**
+	 * @param directory
+	 *            the directory to keep the blobs in, or null to disable
+	 *            caching
+	 * @param maxBytes
+	 *            the size the blobs in the directory may take before the
+	 *            least recently used ones are deleted
+	 */
+	public ImageBlobCache(Path directory, long maxBytes) {
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+	}
+
+	public boolean isEnabled() {
+		return directory != null;
+	}
+
+	/**
+	 * Returns the given image file after applying the given transformation,
+	 * from the cache if possible. Otherwise the file is decoded and
+	 * transformed, and the result is stored in the cache. If the cache is
+	 * disabled, the file is loaded with {@link GUIUtils#loadImage(String)},
+	 * so preloaded images are used.
+	 *
+	 * @param transform
+	 *            describes the transformation; only letters, digits, '-' and
+	 *            '_' are allowed
+	 * @param prepare
+	 *            applies the transformation; must not modify its argument
+	 */
+	public BufferedImage load(String filename, String transform,
+			UnaryOperator<BufferedImage> prepare) {
+		if (!transform.matches("[A-Za-z0-9_-]+")) {
+			throw new IllegalArgumentException("Invalid transform name: "
+					+ transform);
+		}
+		if (!isEnabled()) {
+			return toARGB(prepare.apply(GUIUtils.loadImage(filename)));
+		}
+		byte[] contents;
+		try {
+			contents = readContents(filename);
+		} catch (IOException e) {
+			throw new RuntimeException(
+					"Could not read file '" + filename + "'", e);
+		}
+
+		Path blob = directory.resolve(String.format("%s-%s-v%d.argb",
+				hash(contents), transform, VERSION));
+		BufferedImage cached = readBlob(blob);
+		if (cached != null) {
+			return cached;
+		}
+
+		BufferedImage image;
+		try {
+			image = ImageIO.read(new ByteArrayInputStream(contents));
+		} catch (IOException e) {
+			throw new RuntimeException(
+					"Could not read file '" + filename + "'", e);
+		}
+		if (image == null) {
+			throw new RuntimeException("Unknown image format: '" + filename
+					+ "'");
+		}
+		image = toARGB(prepare.apply(image));
+		writeBlob(blob, image);
+		return image;
+	}
+
+	private static BufferedImage toARGB(BufferedImage image) {
+		if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+			return image;
+		}
+		return ImageOps.copy(image);
+	}
+
+	private static byte[] readContents(String filename) throws IOException {
+		try (InputStream in = GUIUtils.openResource(filename)) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) > 0) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	private static String hash(byte[] contents) {
+		try {
+			StringBuilder result = new StringBuilder();
+			for (byte b : MessageDigest.getInstance("SHA-1").digest(contents)) {
+				result.append(String.format("%02x", b));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns the image in the given blob, or null if there is no valid blob.
+	 * The blob is marked as recently used.
+	 */
+	private static BufferedImage readBlob(Path blob) {
+		if (!Files.isRegularFile(blob)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(blob,
+				StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_BYTES) {
+				return null;
+			}
+			MappedByteBuffer buffer = channel.map(
+					FileChannel.MapMode.READ_ONLY, 0, size);
+			int width = buffer.getInt();
+			int height = buffer.getInt();
+			int magic = buffer.getInt();
+			if (magic != MAGIC || width <= 0 || height <= 0
+					|| size != HEADER_BYTES + 4L * width * height) {
+				return null;
+			}
+			int[] argb = new int[width * height];
+			buffer.asIntBuffer().get(argb);
+			touch(blob);
+			return ImageOps.createImage(argb, width, height);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the given image in the given blob. The cache is only an
+	 * optimization, so failures are ignored.
+	 */
+	private void writeBlob(Path blob, BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * width
+				* height);
+		buffer.putInt(width).putInt(height).putInt(MAGIC);
+		IntBuffer pixels = buffer.asIntBuffer();
+		pixels.put(ImageOps.getARGB(image));
+		buffer.rewind();
+
+		Path temp = null;
+		try {
+			Files.createDirectories(directory);
+			temp = Files.createTempFile(directory, "blob", ".tmp");
+			try (FileChannel channel = FileChannel.open(temp,
+					StandardOpenOption.WRITE)) {
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+			}
+			Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE,
+					StandardCopyOption.REPLACE_EXISTING);
+			evict();
+		} catch (IOException | UnsupportedOperationException e) {
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException ignored) {
+				}
+			}
+		}
+	}
+
+	private static void touch(Path blob) {
+		try {
+			Files.setLastModifiedTime(blob,
+					FileTime.fromMillis(System.currentTimeMillis()));
+		} catch (IOException ignored) {
+		}
+	}
+
+	/**
+	 * Deletes the least recently used blobs until the blobs in the directory
+	 * take at most the maximum size. Blobs that are written by other
+	 * processes at the same time may be deleted as well, which only costs a
+	 * cache miss.
+	 */
+	private synchronized void evict() throws IOException {
+		List<Path> blobs = new ArrayList<>();
+		long total = 0;
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(
+				directory, "*.argb")) {
+			for (Path blob : stream) {
+				blobs.add(blob);
+				total += Files.size(blob);
+			}
+		}
+		if (total <= maxBytes) {
+			return;
+		}
+		blobs.sort(Comparator.comparingLong(ImageBlobCache::lastUsed));
+		for (Path blob : blobs) {
+			if (total <= maxBytes) {
+				break;
+			}
+			long size = Files.size(blob);
+			if (Files.deleteIfExists(blob)) {
+				total -= size;
+			}
+		}
+	}
+
+	private static long lastUsed(Path blob) {
+		try {
+			return Files.getLastModifiedTime(blob).toMillis();
+		} catch (IOException e) {
+			return Long.MIN_VALUE;
+		}
+	}
+
+}
@@ -0,0 +1,318 @@
+package ogp.framework.util;
+
+import java.awt.Color;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk image operations that work on whole arrays of packed ARGB pixels
+ * instead of going through getRGB/setRGB, Color objects or a Graphics2D per
+ * pixel.
+ *
+ * Pixels are read and written with a single raster call per image. The
+ * backing DataBufferInt is never taken from an image, because Java2D stops
+ * accelerating images whose data buffer has been handed out.
+ *
+ * Large images are split into bands of rows, which are processed in parallel
+ * on the common ForkJoin pool.
+ */
+public class ImageOps {
+
+	/**
+	 * Images with fewer pixels than this are processed on the calling thread.
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	/**
+	 * Number of pixels processed by a single task.
+	 */
+	private static final int BAND_PIXELS = 1 << 14;
+
+	@FunctionalInterface
+	public interface RowBandAction {
+		void apply(int firstRow, int endRow);
+	}
+
+	/**
+	 * Runs the given action on bands of rows that together cover the rows 0
+	 * (inclusive) to height (exclusive), in parallel for large images.
+	 */
+	public static void forEachBand(int width, int height, RowBandAction action) {
+		if ((long) width * height < PARALLEL_THRESHOLD) {
+			action.apply(0, height);
+			return;
+		}
+		int bandHeight = Math.max(1, BAND_PIXELS / Math.max(1, width));
+		int bands = (height + bandHeight - 1) / bandHeight;
+		IntStream.range(0, bands).parallel().forEach(band -> {
+			int first = band * bandHeight;
+			action.apply(first, Math.min(height, first + bandHeight));
+		});
+	}
+
+	/**
+	 * Returns the pixels of the given image as non-premultiplied ARGB values,
+	 * row by row from the top.
+	 */
+	public static int[] getARGB(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+			return (int[]) image.getRaster().getDataElements(0, 0, width,
+					height, null);
+		}
+		return image.getRGB(0, 0, width, height, null, 0, width);
+	}
+
+	/**
+	 * Writes the given non-premultiplied ARGB values into all pixels of the
+	 * given image.
+	 */
+	public static void setARGB(BufferedImage image, int[] argb) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+			image.getRaster().setDataElements(0, 0, width, height, argb);
+		} else {
+			image.setRGB(0, 0, width, height, argb, 0, width);
+		}
+	}
+
+	/**
+	 * Returns the least transparency that can represent all pixels of the
+	 * given image: Transparency.OPAQUE, BITMASK or TRANSLUCENT.
+	 */
+	public static int getTransparency(BufferedImage image) {
+		if (!image.getColorModel().hasAlpha()) {
+			return Transparency.OPAQUE;
+		}
+		int result = Transparency.OPAQUE;
+		for (int pixel : getARGB(image)) {
+			int alpha = pixel >>> 24;
+			if (alpha == 0) {
+				result = Transparency.BITMASK;
+			} else if (alpha != 0xff) {
+				return Transparency.TRANSLUCENT;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a new TYPE_INT_ARGB image with the given pixels.
+	 */
+	public static BufferedImage createImage(int[] argb, int width, int height) {
+		BufferedImage result = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_ARGB);
+		WritableRaster raster = result.getRaster();
+		raster.setDataElements(0, 0, width, height, argb);
+		return result;
+	}
+
+	/**
+	 * Returns a TYPE_INT_ARGB copy of the given image.
+	 */
+	public static BufferedImage copy(BufferedImage image) {
+		return createImage(getARGB(image), image.getWidth(), image.getHeight());
+	}
+
+	/**
+	 * Returns a horizontally mirrored TYPE_INT_ARGB copy of the given image.
+	 */
+	public static BufferedImage hflip(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int[] source = getARGB(image);
+		int[] result = new int[source.length];
+		forEachBand(width, height, (first, end) -> {
+			for (int y = first; y < end; y++) {
+				int row = y * width;
+				int last = row + width - 1;
+				for (int x = 0; x < width; x++) {
+					result[row + x] = source[last - x];
+				}
+			}
+		});
+		return createImage(result, width, height);
+	}
+
+	/**
+	 * Shifts the hue of all pixels of the given image, in place. The hue of a
+	 * pixel is increased by stepSize * amount (modulo 1), alpha is kept.
+	 */
+	public static void shiftHue(BufferedImage image, float stepSize, int amount) {
+		int[] pixels = getARGB(image);
+		shiftHue(pixels, image.getWidth(), image.getHeight(), stepSize * amount);
+		setARGB(image, pixels);
+	}
+
+	/**
+	 * Shifts the hue of the given ARGB pixels by the given fraction of a full
+	 * turn, in place.
+	 */
+	public static void shiftHue(int[] argb, int width, int height, float shift) {
+		forEachBand(width, height, (first, end) -> {
+			HueLookup lookup = new HueLookup(shift);
+			for (int i = first * width; i < end * width; i++) {
+				int pixel = argb[i];
+				argb[i] = (pixel & 0xff000000)
+						| (lookup.get(pixel & 0x00ffffff) & 0x00ffffff);
+			}
+		});
+	}
+
+	/**
+	 * Memoizes the hue-shifted color of each RGB value. Sprites only use a few
+	 * hundred distinct colors, so almost every pixel is a single probe into a
+	 * small table instead of an RGB-HSB-RGB round trip.
+	 */
+	private static class HueLookup {
+
+		private static final int SIZE = 1 << 12;
+		private static final int MAX_ENTRIES = SIZE / 2;
+
+		private final float shift;
+		private final int[] keys = new int[SIZE];
+		private final int[] values = new int[SIZE];
+		private final float[] hsb = new float[3];
+		private int entries;
+
+		private HueLookup(float shift) {
+			this.shift = shift;
+			java.util.Arrays.fill(keys, -1);
+		}
+
+		private int get(int rgb) {
+			int slot = (rgb * 0x9E3779B1) >>> 20;
+			while (keys[slot] != -1) {
+				if (keys[slot] == rgb) {
+					return values[slot];
+				}
+				slot = (slot + 1) & (SIZE - 1);
+			}
+			int result = compute(rgb);
+			if (entries < MAX_ENTRIES) {
+				keys[slot] = rgb;
+				values[slot] = result;
+				entries++;
+			}
+			return result;
+		}
+
+		private int compute(int rgb) {
+			Color.RGBtoHSB((rgb >> 16) & 0xff, (rgb >> 8) & 0xff, rgb & 0xff,
+					hsb);
+			return Color.HSBtoRGB((hsb[0] + shift) % 1.0F, hsb[1], hsb[2]);
+		}
+	}
+
+	/**
+	 * Returns a TYPE_INT_ARGB copy of the given image scaled down to the given
+	 * size, where every target pixel is the area-weighted average of the
+	 * source pixels it covers. Colors are averaged premultiplied by alpha, so
+	 * transparent pixels don't darken the edges.
+	 *
+	 * The given size must not be larger than the size of the image.
+	 */
+	public static BufferedImage scaleDownAreaAverage(BufferedImage image,
+			int newWidth, int newHeight) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		if (newWidth <= 0 || newHeight <= 0 || newWidth > width
+				|| newHeight > height) {
+			throw new IllegalArgumentException("Can only scale down to "
+					+ newWidth + "x" + newHeight);
+		}
+		int[] source = getARGB(image);
+
+		// horizontal pass: premultiplied ARGB, one float per channel
+		float[] rows = new float[height * newWidth * 4];
+		AxisWeights horizontal = new AxisWeights(width, newWidth);
+		forEachBand(width, height, (first, end) -> {
+			for (int y = first; y < end; y++) {
+				for (int x = 0; x < newWidth; x++) {
+					float a = 0, r = 0, g = 0, b = 0;
+					for (int k = horizontal.start[x]; k < horizontal.end[x]; k++) {
+						int pixel = source[y * width + k];
+						float weight = horizontal.weight(x, k);
+						float alpha = (pixel >>> 24) * weight;
+						a += alpha;
+						r += ((pixel >> 16) & 0xff) * alpha;
+						g += ((pixel >> 8) & 0xff) * alpha;
+						b += (pixel & 0xff) * alpha;
+					}
+					int i = (y * newWidth + x) * 4;
+					rows[i] = a;
+					rows[i + 1] = r;
+					rows[i + 2] = g;
+					rows[i + 3] = b;
+				}
+			}
+		});
+
+		// vertical pass, then back to non-premultiplied ARGB
+		int[] result = new int[newWidth * newHeight];
+		AxisWeights vertical = new AxisWeights(height, newHeight);
+		float area = horizontal.scale * vertical.scale;
+		forEachBand(newWidth, newHeight, (first, end) -> {
+			for (int y = first; y < end; y++) {
+				for (int x = 0; x < newWidth; x++) {
+					float a = 0, r = 0, g = 0, b = 0;
+					for (int k = vertical.start[y]; k < vertical.end[y]; k++) {
+						float weight = vertical.weight(y, k);
+						int i = (k * newWidth + x) * 4;
+						a += rows[i] * weight;
+						r += rows[i + 1] * weight;
+						g += rows[i + 2] * weight;
+						b += rows[i + 3] * weight;
+					}
+					int pixel = 0;
+					if (a > 0) {
+						pixel = (clamp(a / area) << 24) | (clamp(r / a) << 16)
+								| (clamp(g / a) << 8) | clamp(b / a);
+					}
+					result[y * newWidth + x] = pixel;
+				}
+			}
+		});
+		return createImage(result, newWidth, newHeight);
+	}
+
+	private static int clamp(float value) {
+		return Math.max(0, Math.min(255, Math.round(value)));
+	}
+
+	/**
+	 * For every target pixel along one axis, the range of source pixels it
+	 * covers and how much of each of them.
+	 */
+	private static class AxisWeights {
+
+		private final float scale;
+		private final int[] start;
+		private final int[] end;
+
+		private AxisWeights(int sourceSize, int targetSize) {
+			this.scale = (float) sourceSize / targetSize;
+			this.start = new int[targetSize];
+			this.end = new int[targetSize];
+			for (int i = 0; i < targetSize; i++) {
+				start[i] = (int) Math.floor(i * scale);
+				end[i] = Math.min(sourceSize, (int) Math.ceil((i + 1) * scale));
+			}
+		}
+
+		/**
+		 * The length of the overlap between target pixel i and source pixel k,
+		 * in source pixels.
+		 */
+		private float weight(int i, int k) {
+			float from = Math.max(k, i * scale);
+			float to = Math.min(k + 1, (i + 1) * scale);
+			return Math.max(0, to - from);
+		}
+	}
+
+}
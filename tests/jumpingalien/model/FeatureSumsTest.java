@@ -0,0 +1,104 @@
+package jumpingalien.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class FeatureSumsTest {
+
+	@Before
+	public void setUp() throws Exception {
+		random = new Random(0);
+		tiles = new TileGrid(37, 23);
+		for (int tile_y = 0; tile_y < 23; tile_y++) {
+			for (int tile_x = 0; tile_x < 37; tile_x++) {
+				tiles.setFeature(tile_x, tile_y, Feature.values()[random.nextInt(Feature.values().length)]);
+			}
+		}
+		sums = new FeatureSums(tiles);
+	}
+	
+	private Random random;
+	
+	private TileGrid tiles;
+	
+	private FeatureSums sums;
+	
+	private int countBruteForce(Feature feature, int left, int bottom, int right, int top) {
+		int amount = 0;
+		for (int tile_y = bottom; tile_y <= top; tile_y++) {
+			for (int tile_x = left; tile_x <= right; tile_x++) {
+				if (tiles.getFeature(tile_x, tile_y) == feature) {
+					amount++;
+				}
+			}
+		}
+		return amount;
+	}
+
+	@Test
+	public void testMatchesBruteForce() {
+		for (int i = 0; i < 2000; i++) {
+			int left = random.nextInt(37);
+			int right = left + random.nextInt(37 - left);
+			int bottom = random.nextInt(23);
+			int top = bottom + random.nextInt(23 - bottom);
+			for (Feature feature : Feature.values()) {
+				assertEquals(countBruteForce(feature, left, bottom, right, top),
+						sums.getAmount(feature, left, bottom, right, top));
+			}
+		}
+	}
+	
+	@Test
+	public void testSingleTilesAndWholeGrid() {
+		for (int tile_y = 0; tile_y < 23; tile_y++) {
+			for (int tile_x = 0; tile_x < 37; tile_x++) {
+				Feature feature = tiles.getFeature(tile_x, tile_y);
+				assertEquals(1, sums.getAmount(feature, tile_x, tile_y, tile_x, tile_y));
+			}
+		}
+		int total = 0;
+		for (Feature feature : Feature.values()) {
+			total += sums.getAmount(feature, 0, 0, 36, 22);
+		}
+		assertEquals(37*23, total);
+	}
+	
+	@Test
+	public void testWorldOverlapsFeatureMatchesBruteForce() {
+		World world = new World(10, 37, 23, 100, 100, 1, 1);
+		for (int tile_y = 0; tile_y < 23; tile_y++) {
+			for (int tile_x = 0; tile_x < 37; tile_x++) {
+				world.setTileFeature(tile_x, tile_y, tiles.getFeature(tile_x, tile_y));
+			}
+		}
+		world.startGame();
+		for (int i = 0; i < 2000; i++) {
+			int x = random.nextInt(400) - 15;
+			int y = random.nextInt(260) - 15;
+			int width = random.nextInt(40);
+			int height = random.nextInt(40);
+			for (Feature feature : Feature.values()) {
+				boolean expected = false;
+				for (int pixel_y = y; pixel_y < y + height; pixel_y++) {
+					for (int pixel_x = x; pixel_x < x + width; pixel_x++) {
+						expected |= (world.getFeature(pixel_x, pixel_y) == feature);
+					}
+				}
+				assertEquals(expected, world.overlapsFeature(x, y, width, height, feature));
+			}
+		}
+		
+		// Changing a tile mustn't leave stale sums behind.
+		Feature old_feature = world.getTileFeature(5, 5);
+		Feature new_feature = (old_feature == Feature.magma) ? Feature.water : Feature.magma;
+		world.setTileFeature(5, 5, new_feature);
+		assertTrue(world.overlapsFeature(50, 50, 10, 10, new_feature));
+		assertFalse(world.overlapsFeature(50, 50, 10, 10, old_feature));
+	}
+
+}
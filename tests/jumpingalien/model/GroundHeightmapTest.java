@@ -0,0 +1,101 @@
+package jumpingalien.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GroundHeightmapTest {
+
+	@Before
+	public void setUp() throws Exception {
+		random = new Random(0);
+		tiles = new TileGrid(31, 19);
+		for (int tile_y = 0; tile_y < 19; tile_y++) {
+			for (int tile_x = 0; tile_x < 31; tile_x++) {
+				tiles.setFeature(tile_x, tile_y, getRandomFeature());
+			}
+		}
+		heightmap = new GroundHeightmap(tiles);
+	}
+	
+	private Random random;
+	
+	private TileGrid tiles;
+	
+	private GroundHeightmap heightmap;
+	
+	private Feature getRandomFeature() {
+		// Mostly air, so columns have long gaps between ground tiles.
+		return (random.nextInt(4) == 0) ? Feature.ground : Feature.values()[random.nextInt(3)];
+	}
+	
+	private int getGroundBelowBruteForce(int tile_x, int tile_y) {
+		for (int row = tile_y; row >= 0; row--) {
+			if (tiles.getFeature(tile_x, row) == Feature.ground) {
+				return row;
+			}
+		}
+		return -1;
+	}
+	
+	private void assertMatchesBruteForce() {
+		for (int tile_y = 0; tile_y < 19; tile_y++) {
+			for (int tile_x = 0; tile_x < 31; tile_x++) {
+				assertEquals(getGroundBelowBruteForce(tile_x, tile_y), heightmap.getGroundBelow(tile_x, tile_y));
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesBruteForce() {
+		assertMatchesBruteForce();
+	}
+	
+	@Test
+	public void testUpdateMatchesBruteForce() {
+		for (int i = 0; i < 500; i++) {
+			int tile_x = random.nextInt(31);
+			int tile_y = random.nextInt(19);
+			tiles.setFeature(tile_x, tile_y, (tiles.getFeature(tile_x, tile_y) == Feature.ground)
+					? Feature.air : Feature.ground);
+			heightmap.update(tile_x, tile_y);
+			assertMatchesBruteForce();
+		}
+	}
+	
+	@Test
+	public void testWorldFloorAfterSetTileFeature() {
+		World world = new World(10, 31, 19, 100, 100, 1, 1);
+		for (int tile_y = 0; tile_y < 19; tile_y++) {
+			for (int tile_x = 0; tile_x < 31; tile_x++) {
+				world.setTileFeature(tile_x, tile_y, tiles.getFeature(tile_x, tile_y));
+			}
+		}
+		world.startGame();
+		
+		for (int i = 0; i < 300; i++) {
+			int tile_x = random.nextInt(31);
+			int tile_y = random.nextInt(19);
+			Feature feature = getRandomFeature();
+			tiles.setFeature(tile_x, tile_y, feature);
+			world.setTileFeature(tile_x, tile_y, feature);
+			
+			int x = random.nextInt(330) - 10;
+			int y = random.nextInt(210) - 10;
+			int width = 1 + random.nextInt(30);
+			int expected = -1;
+			for (int column = Math.max(0, Math.floorDiv(x, 10)); column <= Math.min(30, Math.floorDiv(x + width - 1, 10)); column++) {
+				if (y >= 0) {
+					int ground = getGroundBelowBruteForce(column, Math.min(18, y/10));
+					expected = Math.max(expected, (ground < 0) ? -1 : (ground + 1)*10);
+				}
+			}
+			assertEquals(expected, world.getFloorBelow(x, y, width));
+			assertEquals(expected >= y, world.isOnGround(x, y, width));
+		}
+	}
+
+}
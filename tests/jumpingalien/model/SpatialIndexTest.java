@@ -0,0 +1,152 @@
+package jumpingalien.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jumpingalien.tests.util.TestUtils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpatialIndexTest {
+
+	@Before
+	public void setUp() throws Exception {
+		// Few buckets, so distinct cells share buckets.
+		index = new SpatialIndex(50, 4);
+	}
+	
+	private SpatialIndex index;
+	
+	private List<Object> query(int x, int y, int width, int height, Object excluded) {
+		List<Object> result = new ArrayList<Object>();
+		index.query(x, y, width, height, excluded, result);
+		return result;
+	}
+
+	@Test
+	public void testInsertAndQuery() {
+		Object a = new Object();
+		Object b = new Object();
+		index.update(a, 10, 10, 20, 20);
+		index.update(b, 500, 500, 20, 20);
+		assertTrue(index.contains(a));
+		
+		List<Object> result = query(0, 0, 40, 40, null);
+		assertEquals(1, result.size());
+		assertSame(a, result.get(0));
+		assertTrue(query(100, 100, 40, 40, null).isEmpty());
+	}
+	
+	@Test
+	public void testQueryFindsTouchingObjects() {
+		Object a = new Object();
+		index.update(a, 100, 100, 50, 50);
+		// Sharing an edge with the query rectangle, in the cell next to it.
+		assertEquals(1, query(150, 100, 10, 10, null).size());
+		assertEquals(1, query(90, 150, 10, 10, null).size());
+		assertTrue(query(151, 100, 10, 10, null).isEmpty());
+	}
+	
+	@Test
+	public void testQueryExcludesObjectAndReportsOnce() {
+		Object a = new Object();
+		Object b = new Object();
+		// Spans many cells, several of which share a bucket.
+		index.update(a, 0, 0, 400, 400);
+		index.update(b, 0, 0, 10, 10);
+		List<Object> result = query(0, 0, 400, 400, b);
+		assertEquals(1, result.size());
+		assertSame(a, result.get(0));
+	}
+	
+	@Test
+	public void testUpdateMovesObject() {
+		Object a = new Object();
+		int[] bounds = new int[4];
+		index.update(a, 0, 0, 10, 10);
+		index.update(a, 1000, -300, 10, 20);
+		assertTrue(query(0, 0, 10, 10, null).isEmpty());
+		assertEquals(1, query(1005, -295, 1, 1, null).size());
+		assertTrue(index.getBounds(a, bounds));
+		assertArrayEquals(new int[] {1000, -300, 10, 20}, bounds);
+	}
+	
+	@Test
+	public void testRemove() {
+		Object a = new Object();
+		index.update(a, 0, 0, 200, 200);
+		index.remove(a);
+		assertFalse(index.contains(a));
+		assertTrue(query(0, 0, 200, 200, null).isEmpty());
+		assertFalse(index.getBounds(a, new int[4]));
+		// Removing an object which isn't stored does nothing.
+		index.remove(a);
+	}
+	
+	@Test
+	public void testMatchesBruteForce() {
+		Random random = new Random(0);
+		Object[] objects = new Object[200];
+		int[][] boxes = new int[objects.length][];
+		for (int i = 0; i < objects.length; i++) {
+			objects[i] = new Object();
+		}
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < objects.length; i++) {
+				if (random.nextInt(10) == 0) {
+					index.remove(objects[i]);
+					boxes[i] = null;
+				} else {
+					boxes[i] = new int[] {random.nextInt(2000) - 500, random.nextInt(1000) - 500,
+							random.nextInt(150), random.nextInt(150)};
+					index.update(objects[i], boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+				}
+			}
+			for (int q = 0; q < 20; q++) {
+				int x = random.nextInt(2000) - 500;
+				int y = random.nextInt(1000) - 500;
+				int width = random.nextInt(300);
+				int height = random.nextInt(300);
+				List<Object> result = query(x, y, width, height, null);
+				int expected = 0;
+				for (int i = 0; i < objects.length; i++) {
+					int[] box = boxes[i];
+					if ((box != null) && (box[0] <= x + width) && (x <= box[0] + box[2])
+							&& (box[1] <= y + height) && (y <= box[1] + box[3])) {
+						expected++;
+						assertTrue(result.contains(objects[i]));
+					}
+				}
+				assertEquals(expected, result.size());
+			}
+		}
+	}
+	
+	@Test
+	public void testPlantsAreIndexedAndFollowed() {
+		World world = new World(50, 20, 4, 200, 200, 1, 1);
+		for (int tile_x = 0; tile_x < 20; tile_x++) {
+			world.setTileFeature(tile_x, 0, Feature.ground);
+		}
+		Mazub alien = new Mazub(125, 50, TestUtils.spriteArrayForSize(10, 10));
+		World.setMazub(world, alien);
+		Plant plant = new Plant(100, 50, TestUtils.spriteArrayForSize(20, 20, 2));
+		world.addPlant(plant);
+		
+		assertSame(world, plant.getWorld());
+		assertTrue(world.getPlants().contains(plant));
+		assertEquals(0, world.collisionDetect(alien).getContactAmount());
+		// The plant moves 0.5 m/s to the right, and touches Mazub's left side after 0.1 seconds.
+		for (int i = 0; i < 10; i++) {
+			world.advanceTime(0.017);
+		}
+		CollisionResult collisions = world.collisionDetect(alien);
+		assertEquals(1, collisions.getContactAmount());
+		assertSame(plant, collisions.getContact(0));
+	}
+
+}
@@ -0,0 +1,76 @@
+package jumpingalien.part2.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.Optional;
+
+import jumpingalien.model.Plant;
+import jumpingalien.util.Sprite;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GameSnapshotTest {
+
+	private Plant plant;
+
+	private GameSnapshot previous;
+	private GameSnapshot current;
+
+	@Before
+	public void setUp() {
+		plant = new Plant(0, 0, new Sprite[] { new Sprite("left", 10, 10),
+				new Sprite("right", 10, 10) });
+		previous = createSnapshot(null, new int[] { 100, 200 }, new int[] {
+				0, 0, 1023, 767 }, new int[] { 10, 20 });
+		current = createSnapshot(previous, new int[] { 110, 190 },
+				new int[] { 20, 0, 1043, 767 }, new int[] { 30, 20 });
+	}
+
+	private GameSnapshot createSnapshot(GameSnapshot previous, int[] alienXY,
+			int[] visibleWindow, int[] plantXY) {
+		GameSnapshot.Builder builder = new GameSnapshot.Builder();
+		builder.setPrevious(previous);
+		builder.setAlien(Optional.of(alienXY), Optional.empty(),
+				Optional.empty(), Optional.empty(), Optional.empty(),
+				Optional.empty(), Optional.empty());
+		builder.setWorld(Optional.of(visibleWindow), Optional.empty(),
+				Optional.empty(), Optional.empty());
+		builder.addPlant(plant, Optional.of(plantXY), Optional.empty());
+		return builder.build();
+	}
+
+	@Test
+	public void testInterpolateAlienXY() {
+		assertArrayEquals(new int[] { 100, 200 }, current.getAlienXY(0).get());
+		assertArrayEquals(new int[] { 105, 195 }, current.getAlienXY(0.5)
+				.get());
+		assertArrayEquals(new int[] { 110, 190 }, current.getAlienXY(1).get());
+	}
+
+	@Test
+	public void testInterpolateVisibleWindow() {
+		assertArrayEquals(new int[] { 5, 0, 1028, 767 }, current
+				.getVisibleWindow(0.25).get());
+	}
+
+	@Test
+	public void testInterpolateLocation() {
+		assertArrayEquals(new int[] { 25, 20 }, current.getLocation(plant,
+				0.75).get());
+	}
+
+	@Test
+	public void testInterpolateWithoutPrevious() {
+		assertArrayEquals(new int[] { 100, 200 }, previous.getAlienXY(0)
+				.get());
+		assertArrayEquals(new int[] { 10, 20 }, previous.getLocation(plant, 0)
+				.get());
+	}
+
+	@Test
+	public void testInterpolateUnknownObject() {
+		assertFalse(current.getLocation(new Object(), 0.5).isPresent());
+	}
+
+}
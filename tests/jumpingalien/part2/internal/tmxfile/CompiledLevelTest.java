@@ -0,0 +1,236 @@
+package jumpingalien.part2.internal.tmxfile;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import jumpingalien.part2.internal.tmxfile.data.ImageTile;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+import jumpingalien.part2.internal.tmxfile.data.MapObject;
+import jumpingalien.part2.internal.tmxfile.data.ObjectGroup;
+import jumpingalien.part2.internal.tmxfile.data.Tileset;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledLevelTest {
+
+	private File folder;
+
+	@Before
+	public void setUp() throws IOException {
+		folder = Files.createTempDirectory("compiledleveltest").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	/**
+	 * Creates a map of 3 by 2 tiles with two tilesets, two layers and an
+	 * object group.
+	 */
+	private Map createMap() {
+		Map map = new Map(3, 2, 10, 12);
+		map.setBackground("#ff8000");
+		map.setInitialX(5);
+		map.setInitialY(11);
+		map.setTargetTileX(2);
+		map.setTargetTileY(1);
+
+		Tileset tiles = map.newTileSet(1);
+		tiles.newTile(0).setImage(10, 12, new File(folder, "grass.png"));
+		tiles.newTile(1).setImage(10, 12, new File(folder, "liquidWater.png"));
+		Tileset lava = map.newTileSet(100);
+		lava.newTile(0).setImage(10, 12, new File(folder, "liquidLava.png"));
+
+		Layer terrain = map.newLayer("Terrain");
+		int[] gids = { 0, 2, 100, 1, 1, 1 };
+		for (int gid : gids) {
+			terrain.addTile(map.getTile(gid));
+		}
+		Layer decoration = map.newLayer("Décor");
+		for (int i = 0; i < gids.length; i++) {
+			decoration.addTile(map.getTile(i == 4 ? 2 : 0));
+		}
+
+		ObjectGroup group = map.newObjectGroup("Objects");
+		MapObject object = new MapObject(7, map.getTile(100), 15, 20);
+		object.setHFlip(true);
+		object.setAttribute("hitpoints", "50");
+		group.addObject(object);
+		MapObject other = new MapObject(8, map.getTile(1), 0, 12);
+		other.setVFlip(true);
+		group.addObject(other);
+		return map;
+	}
+
+	private Map roundTrip(Map map) throws IOException {
+		CompiledLevel.write(map, folder.getPath(), new File(folder,
+				"level" + CompiledLevel.EXTENSION));
+		return CompiledLevel.read(folder.getPath(), "level"
+				+ CompiledLevel.EXTENSION);
+	}
+
+	private static File normalize(File file) {
+		return file.getAbsoluteFile().toPath().normalize().toFile();
+	}
+
+	private static void assertSameTile(ImageTile expected, ImageTile actual) {
+		if (expected == null) {
+			assertNull(actual);
+			return;
+		}
+		assertEquals(expected.getId(), actual.getId());
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		assertEquals(normalize(expected.getFile()), normalize(actual.getFile()));
+	}
+
+	@Test
+	public void testRoundTripHeader() throws IOException {
+		Map expected = createMap();
+		Map actual = roundTrip(expected);
+		assertEquals(3, actual.getNbTilesX());
+		assertEquals(2, actual.getNbTilesY());
+		assertEquals(10, actual.getTileSizeX());
+		assertEquals(12, actual.getTileSizeY());
+		assertEquals("#ff8000", actual.getBackground());
+		assertEquals(5, actual.getInitialPositionX());
+		assertEquals(11, actual.getInitialPositionY());
+		assertEquals(2, actual.getTargetTileX());
+		assertEquals(1, actual.getTargetTileY());
+	}
+
+	@Test
+	public void testRoundTripNoBackground() throws IOException {
+		Map map = createMap();
+		map.setBackground(null);
+		assertNull(roundTrip(map).getBackground());
+	}
+
+	@Test
+	public void testRoundTripTilesets() throws IOException {
+		Map expected = createMap();
+		Map actual = roundTrip(expected);
+		assertEquals(2, actual.getTilesets().size());
+		for (int i = 0; i < 2; i++) {
+			Tileset expectedTileset = expected.getTilesets().get(i);
+			Tileset actualTileset = actual.getTilesets().get(i);
+			assertEquals(expectedTileset.getFirstId(), actualTileset.getFirstId());
+			assertEquals(expectedTileset.getTiles().size(), actualTileset.getTiles().size());
+		}
+		for (int gid : new int[] { 1, 2, 100 }) {
+			assertSameTile(expected.getTile(gid), actual.getTile(gid));
+		}
+		assertNull(actual.getTile(3));
+	}
+
+	@Test
+	public void testRoundTripLayers() throws IOException {
+		Map expected = createMap();
+		Map actual = roundTrip(expected);
+		assertEquals(2, actual.getLayers().size());
+		for (String name : new String[] { "Terrain", "Décor" }) {
+			for (int tileY = 0; tileY < 2; tileY++) {
+				for (int tileX = 0; tileX < 3; tileX++) {
+					assertSameTile(expected.getLayer(name).getTile(tileX, tileY),
+							actual.getLayer(name).getTile(tileX, tileY));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTripTerrainTypes() throws IOException {
+		Map expected = createMap();
+		Map actual = roundTrip(expected);
+		byte[] expectedValues = new byte[6];
+		byte[] actualValues = new byte[6];
+		expected.readTerrainTypes(0, 0, 3, 2, expectedValues);
+		actual.readTerrainTypes(0, 0, 3, 2, actualValues);
+		assertArrayEquals(expectedValues, actualValues);
+		for (int tileY = 0; tileY < 2; tileY++) {
+			for (int tileX = 0; tileX < 3; tileX++) {
+				assertEquals(expected.getTerrainType(tileX, tileY),
+						actual.getTerrainType(tileX, tileY));
+			}
+		}
+		// a block in the middle of the map
+		byte[] block = new byte[2];
+		actual.readTerrainTypes(1, 0, 1, 2, block);
+		assertArrayEquals(new byte[] { expectedValues[1], expectedValues[4] }, block);
+	}
+
+	@Test
+	public void testRoundTripObjects() throws IOException {
+		Map expected = createMap();
+		Map actual = roundTrip(expected);
+		assertEquals(1, actual.getObjectGroups().size());
+		assertEquals("Objects", actual.getObjectGroups().get(0).getName());
+		List<MapObject> expectedObjects = expected.getObjectGroups().get(0).getObjects();
+		List<MapObject> actualObjects = actual.getObjectGroups().get(0).getObjects();
+		assertEquals(expectedObjects.size(), actualObjects.size());
+		for (int i = 0; i < expectedObjects.size(); i++) {
+			MapObject expectedObject = expectedObjects.get(i);
+			MapObject actualObject = actualObjects.get(i);
+			assertEquals(expectedObject.getId(), actualObject.getId());
+			assertSameTile(expectedObject.getTile(), actualObject.getTile());
+			assertEquals(expectedObject.getX(), actualObject.getX());
+			assertEquals(expectedObject.getY(), actualObject.getY());
+			assertEquals(expectedObject.getHflip(), actualObject.getHflip());
+			assertEquals(expectedObject.getVflip(), actualObject.getVflip());
+			assertEquals(expectedObject.getAttributes(), actualObject.getAttributes());
+		}
+	}
+
+	@Test
+	public void testRoundTripTwice() throws IOException {
+		Map once = roundTrip(createMap());
+		File first = new File(folder, "level" + CompiledLevel.EXTENSION);
+		byte[] bytes = Files.readAllBytes(first.toPath());
+		// a compiled map is written exactly like the map it was read from
+		File second = new File(folder, "again" + CompiledLevel.EXTENSION);
+		CompiledLevel.write(once, folder.getPath(), second);
+		assertArrayEquals(bytes, Files.readAllBytes(second.toPath()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadNotCompiled() throws IOException {
+		Files.write(new File(folder, "level" + CompiledLevel.EXTENSION).toPath(),
+				"<map/>".getBytes(StandardCharsets.UTF_8));
+		CompiledLevel.read(folder.getPath(), "level" + CompiledLevel.EXTENSION);
+	}
+
+	@Test
+	public void testReaderPrefersRecentCompiledFile() throws IOException {
+		File levelFile = new File(folder, "level.tmx");
+		Files.write(levelFile.toPath(), ("<map width=\"3\" height=\"2\""
+				+ " tilewidth=\"10\" tileheight=\"12\"/>").getBytes(StandardCharsets.UTF_8));
+		TMXFileReader reader = new TMXFileReader(folder.getPath());
+		assertEquals(11, reader.read("level.tmx").getInitialPositionX());
+
+		Map compiled = createMap();
+		compiled.setInitialX(42);
+		File compiledFile = CompiledLevel.getCompiledFile(levelFile);
+		assertEquals(new File(folder, "level" + CompiledLevel.EXTENSION), compiledFile);
+		CompiledLevel.write(compiled, folder.getPath(), compiledFile);
+		compiledFile.setLastModified(levelFile.lastModified());
+		assertEquals(42, reader.read("level.tmx").getInitialPositionX());
+
+		// the level file has been edited since it was compiled
+		levelFile.setLastModified(compiledFile.lastModified() + 2000);
+		assertEquals(11, reader.read("level.tmx").getInitialPositionX());
+	}
+
+}
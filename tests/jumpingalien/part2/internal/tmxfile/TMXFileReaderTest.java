@@ -0,0 +1,185 @@
+package jumpingalien.part2.internal.tmxfile;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jumpingalien.part2.internal.tmxfile.data.ImageTile.TileType;
+import jumpingalien.part2.internal.tmxfile.data.Layer;
+import jumpingalien.part2.internal.tmxfile.data.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TMXFileReaderTest {
+
+	/**
+	 * The gids of the test level, row by row from the top. The flip bits of
+	 * the last tile must be ignored.
+	 */
+	private static final long[] GIDS = { 0, 2, 100, 1, 1, 0x80000001L };
+
+	private File folder;
+
+	@Before
+	public void setUp() throws IOException {
+		folder = Files.createTempDirectory("tmxtest").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	private Map read(String encoding, String compression, String data)
+			throws IOException {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+				+ "<map version=\"1.0\" orientation=\"orthogonal\" width=\"3\" height=\"2\" tilewidth=\"10\" tileheight=\"10\">\n"
+				+ " <tileset firstgid=\"1\" name=\"tiles\" tilewidth=\"10\" tileheight=\"10\">\n"
+				+ "  <tile id=\"0\"><image width=\"10\" height=\"10\" source=\"grass.png\"/></tile>\n"
+				+ "  <tile id=\"1\"><image width=\"10\" height=\"10\" source=\"liquidWater.png\"/></tile>\n"
+				+ " </tileset>\n"
+				+ " <tileset firstgid=\"100\" name=\"lava\" tilewidth=\"10\" tileheight=\"10\">\n"
+				+ "  <tile id=\"0\"><image width=\"10\" height=\"10\" source=\"liquidLava.png\"/></tile>\n"
+				+ " </tileset>\n"
+				+ " <layer name=\"Terrain\" width=\"3\" height=\"2\">\n"
+				+ "  <data encoding=\"" + encoding + "\""
+				+ (compression == null ? "" : " compression=\"" + compression + "\"")
+				+ ">\n" + data + "\n  </data>\n"
+				+ " </layer>\n"
+				+ "</map>\n";
+		Files.write(new File(folder, "level.tmx").toPath(),
+				xml.getBytes(StandardCharsets.UTF_8));
+		return new TMXFileReader(folder.getPath()).readXML("level.tmx");
+	}
+
+	private static String toCSV(long[] gids) {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < gids.length; i++) {
+			result.append(gids[i]).append(i % 3 == 2 ? ",\n" : ",");
+		}
+		// no comma after the last tile
+		return result.substring(0, result.length() - 2);
+	}
+
+	private static byte[] toBytes(long[] gids) {
+		byte[] result = new byte[4 * gids.length];
+		for (int i = 0; i < gids.length; i++) {
+			for (int b = 0; b < 4; b++) {
+				result[4 * i + b] = (byte) (gids[i] >>> (8 * b));
+			}
+		}
+		return result;
+	}
+
+	private static String toBase64(long[] gids, String compression)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (OutputStream out = "zlib".equals(compression) ? new DeflaterOutputStream(
+				bytes) : "gzip".equals(compression) ? new GZIPOutputStream(
+				bytes) : bytes) {
+			out.write(toBytes(gids));
+		}
+		// line breaks, as written by some editors
+		return Base64.getMimeEncoder(8, "\n".getBytes()).encodeToString(
+				bytes.toByteArray());
+	}
+
+	private static void assertTestLevel(Map map) {
+		Layer terrain = map.getLayer("Terrain");
+		assertNull(terrain.getTile(0, 1));
+		assertEquals(2, terrain.getTile(1, 1).getId());
+		assertEquals(100, terrain.getTile(2, 1).getId());
+		assertEquals(1, terrain.getTile(0, 0).getId());
+		assertEquals(1, terrain.getTile(1, 0).getId());
+		assertEquals(1, terrain.getTile(2, 0).getId());
+
+		assertEquals(TileType.AIR, map.getTerrainType(0, 1));
+		assertEquals(TileType.WATER, map.getTerrainType(1, 1));
+		assertEquals(TileType.MAGMA, map.getTerrainType(2, 1));
+		assertEquals(TileType.SOLID, map.getTerrainType(2, 0));
+	}
+
+	@Test
+	public void testReadCSV() throws IOException {
+		assertTestLevel(read("csv", null, toCSV(GIDS)));
+	}
+
+	@Test
+	public void testReadBase64() throws IOException {
+		assertTestLevel(read("base64", null, toBase64(GIDS, null)));
+	}
+
+	@Test
+	public void testReadBase64Zlib() throws IOException {
+		assertTestLevel(read("base64", "zlib", toBase64(GIDS, "zlib")));
+	}
+
+	@Test
+	public void testReadBase64Gzip() throws IOException {
+		assertTestLevel(read("base64", "gzip", toBase64(GIDS, "gzip")));
+	}
+
+	@Test
+	public void testReadCSVWithWhitespace() throws IOException {
+		assertTestLevel(read("csv", null, " 0 ,2,\t100 , 1,\n1, 2147483649 "));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadCSVMissingComma() throws IOException {
+		// would be read as gid 1234 if whitespace didn't end a tile
+		read("csv", null, "0,2,100,1,1,12 34");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadCSVTileOutOfRange() throws IOException {
+		// 2^32 + 1, which is gid 1 once it's masked
+		read("csv", null, "0,2,100,1,1,4294967297");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadCSVLongDigitRun() throws IOException {
+		read("csv", null, "0,2,100,1,1,1000000000000000000000000001");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadCSVTooFewTiles() throws IOException {
+		read("csv", null, "0,2,100,1,1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadCSVMissingTile() throws IOException {
+		read("csv", null, "0,2,,100,1,1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadBase64Truncated() throws IOException {
+		byte[] bytes = toBytes(GIDS);
+		read("base64", null, Base64.getEncoder().encodeToString(
+				Arrays.copyOf(bytes, bytes.length - 1)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadBase64WrongCompression() throws IOException {
+		read("base64", "zlib", toBase64(GIDS, "gzip"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testReadUnsupportedCompression() throws IOException {
+		read("base64", "zstd", toBase64(GIDS, null));
+	}
+
+}
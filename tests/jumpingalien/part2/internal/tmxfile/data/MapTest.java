@@ -0,0 +1,67 @@
+package jumpingalien.part2.internal.tmxfile.data;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MapTest {
+
+	private Map map;
+
+	@Before
+	public void setUp() {
+		map = new Map(3, 2, 10, 10);
+		Tileset first = map.newTileSet(1);
+		first.newTile(0).setImage(10, 10, new File("grass.png"));
+		first.newTile(1).setImage(10, 10, new File("liquidWater.png"));
+		Tileset second = map.newTileSet(100);
+		second.newTile(0).setImage(10, 10, new File("liquidLava.png"));
+	}
+
+	@Test
+	public void testGetTileOfEveryTileset() {
+		assertEquals(1, map.getTile(1).getId());
+		assertEquals(2, map.getTile(2).getId());
+		assertEquals(100, map.getTile(100).getId());
+		assertEquals(ImageTile.TileType.MAGMA, map.getTile(100).getType());
+	}
+
+	@Test
+	public void testGetTileUnknownGids() {
+		assertNull(map.getTile(0));
+		assertNull(map.getTile(3));
+		assertNull(map.getTile(99));
+		assertNull(map.getTile(101));
+		assertNull(map.getTile(-1));
+		assertNull(map.getTile(Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void testGetTileFirstTilesetWins() {
+		ImageTile tile = map.getTile(2);
+		// overlaps the gids of the first tileset
+		map.newTileSet(2).newTile(0).setImage(10, 10, new File("castle.png"));
+		assertSame(tile, map.getTile(2));
+	}
+
+	@Test
+	public void testFindTileMatchesGetTile() {
+		assertSame(map.getTile(2), map.findTile(2).get());
+		assertFalse(map.findTile(3).isPresent());
+	}
+
+	@Test
+	public void testTilesetFindTileWithGap() {
+		Tileset tileset = new Tileset(5);
+		ImageTile first = tileset.newTile(0);
+		ImageTile gap = tileset.newTile(3);
+		assertSame(first, tileset.findTile(5).get());
+		assertSame(gap, tileset.findTile(8).get());
+		assertFalse(tileset.findTile(6).isPresent());
+		assertFalse(tileset.findTile(4).isPresent());
+	}
+
+}
@@ -0,0 +1,131 @@
+package jumpingalien.part2.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jumpingalien.model.ChunkedTileGrid;
+import jumpingalien.model.Feature;
+import jumpingalien.model.TerrainSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChunkedTileGridTest {
+
+	private static final int size = ChunkedTileGrid.chunk_size;
+	
+	// Not a whole amount of chunks in either direction.
+	@Before
+	public void setUp() throws Exception {
+		reads = new AtomicInteger();
+		source = (tile_left, tile_bottom, width, height, values) -> {
+			reads.incrementAndGet();
+			for (int j = 0; j < height; j++) {
+				for (int i = 0; i < width; i++) {
+					values[j*width + i] = getValue(tile_left + i, tile_bottom + j);
+				}
+			}
+		};
+		grid = new ChunkedTileGrid(20*size + 5, 3*size + 7, source, 1);
+	}
+	
+	private static byte getValue(int tile_x, int tile_y) {
+		return (byte) ((tile_x*7 + tile_y*3) % 4);
+	}
+	
+	private AtomicInteger reads;
+	
+	private TerrainSource source;
+	
+	private ChunkedTileGrid grid;
+
+	@Test
+	public void testReadsFeaturesFromSource() {
+		for (int tile_y = 0; tile_y < grid.getTilesYAmount(); tile_y++) {
+			for (int tile_x = 0; tile_x < grid.getTilesXAmount(); tile_x++) {
+				assertEquals(Feature.fromValue(getValue(tile_x, tile_y)), grid.getFeature(tile_x, tile_y));
+			}
+		}
+		// Every chunk is read once.
+		assertEquals(21*4, reads.get());
+		assertEquals(21*4, grid.getLoadedChunkAmount());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutOfBounds() {
+		grid.getFeature(grid.getTilesXAmount(), 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSourceValue() {
+		ChunkedTileGrid invalid = new ChunkedTileGrid(10, 10, (tile_left, tile_bottom, width, height, values) -> {
+			values[0] = 9;
+		}, 0);
+		invalid.getFeature(5, 5);
+	}
+	
+	@Test
+	public void testEvictsChunksLeavingTheWindow() throws InterruptedException {
+		for (int chunk_x = 0; chunk_x < 20; chunk_x++) {
+			grid.setVisibleTiles(chunk_x*size, 0, chunk_x*size + size - 1, size - 1);
+			grid.getFeature(chunk_x*size, 0);
+		}
+		waitForLoader();
+		// The visible chunk, the prefetch radius and one more chunk on each side, in both directions.
+		assertTrue(grid.getLoadedChunkAmount() <= 5*4);
+		
+		int before = reads.get();
+		assertEquals(Feature.fromValue(getValue(0, 0)), grid.getFeature(0, 0));
+		assertEquals(before + 1, reads.get());
+	}
+	
+	@Test
+	public void testKeepsModifiedChunks() throws InterruptedException {
+		grid.setVisibleTiles(0, 0, size - 1, size - 1);
+		grid.setFeature(3, 4, Feature.magma);
+		grid.setFeature(4, 4, Feature.water);
+		grid.setVisibleTiles(19*size, 0, 20*size - 1, size - 1);
+		waitForLoader();
+		assertEquals(Feature.magma, grid.getFeature(3, 4));
+		assertEquals(Feature.water, grid.getFeature(4, 4));
+	}
+	
+	@Test
+	public void testConcurrentReadsAndEvictions() throws InterruptedException {
+		AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		Thread reader = new Thread(() -> {
+			try {
+				for (int i = 0; i < 200000; i++) {
+					int tile_x = (i*13) % grid.getTilesXAmount();
+					int tile_y = (i*5) % grid.getTilesYAmount();
+					if (grid.getFeature(tile_x, tile_y) != Feature.fromValue(getValue(tile_x, tile_y))) {
+						throw new AssertionError("Wrong feature at " + tile_x + ", " + tile_y);
+					}
+				}
+			} catch (Throwable exc) {
+				failure.set(exc);
+			}
+		});
+		reader.start();
+		for (int i = 0; reader.isAlive(); i++) {
+			int chunk_x = i % 20;
+			grid.setVisibleTiles(chunk_x*size, 0, chunk_x*size + size - 1, size - 1);
+		}
+		reader.join();
+		assertNull(failure.get());
+	}
+	
+	/**
+	 * Waits until the chunks which are being prefetched have been loaded.
+	 */
+	private void waitForLoader() throws InterruptedException {
+		int amount;
+		do {
+			amount = reads.get();
+			Thread.sleep(50);
+		} while (reads.get() != amount);
+	}
+
+}
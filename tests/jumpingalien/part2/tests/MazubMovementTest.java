@@ -0,0 +1,162 @@
+package jumpingalien.part2.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.*;
+import jumpingalien.model.Feature;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.World;
+import jumpingalien.util.Util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MazubMovementTest {
+
+	// 40 by 10 tiles of 50 pixels, with a row of ground at the bottom and a wall at the right.
+	@Before
+	public void setUp() throws Exception {
+		world = new World(50, 40, 10, 400, 400, 1, 1);
+		for (int tile_x = 0; tile_x < 40; tile_x++) {
+			world.setTileFeature(tile_x, 0, Feature.ground);
+		}
+		world.setTileFeature(30, 1, Feature.ground);
+	}
+	
+	private World world;
+	
+	private Mazub createAlien(double x, double y) {
+		Mazub alien = new Mazub(x, y, spriteArrayForSize(3, 3));
+		World.setMazub(world, alien);
+		return alien;
+	}
+	
+	private void advance(double time) {
+		for (int i = 0; i < Math.round(time/0.02); i++) {
+			world.advanceTime(0.02);
+		}
+	}
+
+	@Test
+	public void testRestingOnGround() {
+		Mazub alien = createAlien(300, 50);
+		world.startGame();
+		assertTrue(alien.canjump());
+		advance(1);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+		assertEquals(0, alien.getAy(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testWalkOnGround() {
+		Mazub alien = createAlien(300, 50);
+		world.startGame();
+		alien.startMove("left");
+		advance(1);
+		// 100*(1*1 + 0.9*1^2/2) pixels to the left
+		assertEquals(155, alien.getX(), 1e-6);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testWalkOnGroundWithoutIndex() {
+		Mazub alien = createAlien(300, 50);
+		alien.startMove("right");
+		advance(1);
+		assertEquals(445, alien.getX(), 1e-6);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testWalkInTopRowOfGround() {
+		// Standing in the top row of pixels of the ground counts as standing on it.
+		Mazub alien = createAlien(300, 49);
+		world.startGame();
+		assertTrue(alien.canjump());
+		alien.startMove("left");
+		advance(1);
+		assertEquals(155, alien.getX(), 1e-6);
+		assertEquals(49, alien.getY(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testWalkIntoWall() {
+		Mazub alien = createAlien(1400, 50);
+		world.startGame();
+		alien.startMove("right");
+		advance(1);
+		assertEquals(1500 - 3, alien.getX(), Util.DEFAULT_EPSILON);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testLanding() {
+		Mazub alien = createAlien(300, 301.3);
+		world.startGame();
+		assertFalse(alien.canjump());
+		advance(1.5);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+		assertEquals(0, alien.getVy(), Util.DEFAULT_EPSILON);
+		assertEquals(0, alien.getAy(), Util.DEFAULT_EPSILON);
+		assertTrue(alien.canjump());
+	}
+	
+	@Test
+	public void testWalkAfterLanding() {
+		Mazub alien = createAlien(300, 120);
+		world.startGame();
+		alien.startMove("right");
+		advance(0.5);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+		double landed_x = alien.getX();
+		advance(0.5);
+		assertTrue(alien.getX() > landed_x + 50);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testJump() {
+		Mazub alien = createAlien(300, 50);
+		world.startGame();
+		alien.startJump();
+		assertEquals(8, alien.getVy(), Util.DEFAULT_EPSILON);
+		advance(0.2);
+		assertTrue(alien.getY() > 150);
+		assertFalse(alien.canjump());
+		// The jump takes 1.6 seconds to come down again.
+		advance(1.6);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+		assertTrue(alien.canjump());
+		alien.startJump();
+		assertEquals(8, alien.getVy(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testJumpOverWall() {
+		Mazub alien = createAlien(1400, 50);
+		world.startGame();
+		alien.startMove("right");
+		alien.startJump();
+		advance(2);
+		assertEquals(50, alien.getY(), Util.DEFAULT_EPSILON);
+		assertTrue(alien.getX() > 1550);
+	}
+	
+	@Test
+	public void testFallOutOfWorld() {
+		world.setTileFeature(6, 0, Feature.air);
+		Mazub alien = createAlien(310, 50);
+		world.startGame();
+		advance(1);
+		assertNull(alien.getWorld());
+		assertNull(world.getPlayer());
+	}
+	
+	@Test
+	public void testRemovePlayer() {
+		createAlien(300, 50);
+		World.setMazub(world, null);
+		assertNull(world.getPlayer());
+		world.advanceTime(0.02);
+	}
+
+}
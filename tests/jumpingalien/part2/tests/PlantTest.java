@@ -0,0 +1,98 @@
+package jumpingalien.part2.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import jumpingalien.model.Plant;
+import jumpingalien.model.World;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlantTest {
+
+	@Before
+	public void setUp() throws Exception {
+		world = new World(50, 40, 10, 400, 400, 1, 1);
+		plant = new Plant(1000, 0, spriteArrayForSize(20, 20, 2));
+		world.addPlant(plant);
+	}
+	
+	private World world;
+	
+	private Plant plant;
+	
+	/**
+	 * Moves a plant in steps of 10 microseconds, turning it around after every half second of movement.
+	 */
+	private static double[] stepFinely(double x, double vx, double movement_time, double time) {
+		double step = 1e-5;
+		for (long i = Math.round(time/step); i > 0; i--) {
+			x += 100*vx*step;
+			movement_time += step;
+			if (movement_time >= 0.5 - step/2) {
+				movement_time -= 0.5;
+				vx = -vx;
+			}
+		}
+		return new double[] {x, vx};
+	}
+
+	@Test
+	public void testMatchesFineSteppingAcrossDirectionChanges() {
+		Random random = new Random(0);
+		double time = 0;
+		for (int i = 0; i < 60; i++) {
+			// Random steps, many of which cross one or more direction changes.
+			double dt = 0.01 + 0.18*random.nextDouble();
+			plant.advanceTime(dt);
+			time += dt;
+			double[] expected = stepFinely(1000, 0.5, 0, time);
+			assertEquals(expected[0], plant.getX(), 0.01);
+			assertEquals(expected[1], plant.getVx(), 0);
+		}
+		assertTrue(time > 5);
+	}
+	
+	@Test
+	public void testTurnsAroundEveryHalfSecond() {
+		for (int i = 0; i < 5; i++) {
+			plant.advanceTime(0.1);
+		}
+		assertEquals(1025, plant.getX(), 1e-6);
+		assertEquals(-0.5, plant.getVx(), 0);
+		for (int i = 0; i < 5; i++) {
+			plant.advanceTime(0.1);
+		}
+		assertEquals(1000, plant.getX(), 1e-6);
+		assertEquals(0.5, plant.getVx(), 0);
+	}
+	
+	@Test
+	public void testCatchesUpAfterLeavingActivityRegion() {
+		Plant active = new Plant(100, 0, spriteArrayForSize(20, 20, 2));
+		world.addPlant(active);
+		assertFalse(world.isInActivityRegion((int) plant.getX(), (int) plant.getY(), 20, 20));
+		for (int i = 0; i < 100; i++) {
+			world.advanceTime(1/60.0);
+		}
+		// The plant outside the activity region is only advanced in larger steps.
+		assertTrue(Math.abs((active.getX() - 100) - (plant.getX() - 1000)) > 0.01);
+		world.setActivityRadius(2000);
+		world.advanceTime(1/60.0);
+		assertEquals(active.getX() - 100, plant.getX() - 1000, 1e-6);
+		assertEquals(active.getVx(), plant.getVx(), 0);
+	}
+	
+	@Test
+	public void testCurrentSpriteFacesDirection() {
+		assertSame(plant.getImages()[1], plant.getCurrentSprite());
+		for (int i = 0; i < 6; i++) {
+			plant.advanceTime(0.1);
+		}
+		assertSame(plant.getImages()[0], plant.getCurrentSprite());
+	}
+
+}
@@ -0,0 +1,120 @@
+package jumpingalien.part2.tests;
+
+import static org.junit.Assert.*;
+import jumpingalien.model.Feature;
+import jumpingalien.model.TileGrid;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TileGridTest {
+
+	@Before
+	public void setUp() throws Exception {
+		grid = new TileGrid(4, 3);
+	}
+	
+	private TileGrid grid;
+
+	@Test
+	public void testConstructorFillsWithAir() {
+		assertEquals(4, grid.getTilesXAmount());
+		assertEquals(3, grid.getTilesYAmount());
+		for (int tile_y = 0; tile_y < 3; tile_y++) {
+			for (int tile_x = 0; tile_x < 4; tile_x++) {
+				assertEquals(Feature.air, grid.getFeature(tile_x, tile_y));
+			}
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorZeroWidth() {
+		new TileGrid(0, 3);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorTooManyTiles() {
+		new TileGrid(1 << 16, 1 << 16);
+	}
+	
+	@Test
+	public void testIsValidTile() {
+		assertTrue(grid.isValidTile(0, 0));
+		assertTrue(grid.isValidTile(3, 2));
+		assertFalse(grid.isValidTile(-1, 0));
+		assertFalse(grid.isValidTile(0, -1));
+		assertFalse(grid.isValidTile(4, 0));
+		assertFalse(grid.isValidTile(0, 3));
+	}
+	
+	@Test
+	public void testSetFeature() {
+		grid.setFeature(3, 2, Feature.magma);
+		grid.setFeature(0, 1, Feature.ground);
+		assertEquals(Feature.magma, grid.getFeature(3, 2));
+		assertEquals(Feature.ground, grid.getFeature(0, 1));
+		assertEquals(Feature.air, grid.getFeature(1, 1));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetFeatureOutOfBounds() {
+		grid.getFeature(4, 0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetFeatureOutOfBounds() {
+		grid.setFeature(0, 3, Feature.ground);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetFeatureNull() {
+		grid.setFeature(0, 0, null);
+	}
+	
+	@Test
+	public void testSetFeaturesRowByRowFromBottom() {
+		byte[] values = new byte[12];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (byte) (i % 4);
+		}
+		grid.setFeatures(values);
+		for (int tile_y = 0; tile_y < 3; tile_y++) {
+			for (int tile_x = 0; tile_x < 4; tile_x++) {
+				assertEquals(Feature.fromValue(values[tile_y*4 + tile_x]), grid.getFeature(tile_x, tile_y));
+			}
+		}
+	}
+	
+	@Test
+	public void testSetFeaturesInvalidValueChangesNothing() {
+		byte[] values = new byte[12];
+		values[0] = (byte) Feature.ground.getValue();
+		values[11] = 4;
+		try {
+			grid.setFeatures(values);
+			fail();
+		} catch (IllegalArgumentException exc) {
+			assertEquals(Feature.air, grid.getFeature(0, 0));
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetFeaturesWrongLength() {
+		grid.setFeatures(new byte[11]);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetFeaturesNull() {
+		grid.setFeatures(null);
+	}
+	
+	@Test
+	public void testIsValidValue() {
+		for (Feature feature : Feature.values()) {
+			assertTrue(TileGrid.isValidValue((byte) feature.getValue()));
+		}
+		assertFalse(TileGrid.isValidValue((byte) -1));
+		assertFalse(TileGrid.isValidValue((byte) Feature.values().length));
+	}
+
+}
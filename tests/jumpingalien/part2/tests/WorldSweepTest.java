@@ -0,0 +1,113 @@
+package jumpingalien.part2.tests;
+
+import static jumpingalien.tests.util.TestUtils.spriteArrayForSize;
+import static org.junit.Assert.*;
+import jumpingalien.model.Feature;
+import jumpingalien.model.Impact;
+import jumpingalien.model.Mazub;
+import jumpingalien.model.Shark;
+import jumpingalien.model.World;
+import jumpingalien.util.Util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorldSweepTest {
+
+	// 10 by 10 tiles of 50 pixels, with a row of ground at the bottom and a wall tile at (4, 1).
+	@Before
+	public void setUp() throws Exception {
+		world = new World(50, 10, 10, 200, 200, 1, 1);
+		for (int tile_x = 0; tile_x < 10; tile_x++) {
+			world.setTileFeature(tile_x, 0, Feature.ground);
+		}
+		world.setTileFeature(4, 1, Feature.ground);
+	}
+	
+	private World world;
+	
+	private Mazub createAlien(double x, double y) {
+		Mazub alien = new Mazub(x, y, spriteArrayForSize(10, 10));
+		World.setMazub(world, alien);
+		return alien;
+	}
+
+	@Test
+	public void testFreePath() {
+		Mazub alien = createAlien(20, 200);
+		assertNull(world.sweep(alien, 100, 50));
+		assertNull(world.sweep(alien, 0, -140));
+	}
+	
+	@Test
+	public void testFallOntoGround() {
+		Mazub alien = createAlien(20, 100);
+		Impact impact = world.sweep(alien, 0, -100);
+		assertNotNull(impact);
+		assertEquals(0.5, impact.getTime(), Util.DEFAULT_EPSILON);
+		assertFalse(impact.isHorizontal());
+		assertNull(impact.getObject());
+	}
+	
+	@Test
+	public void testRunIntoWall() {
+		Mazub alien = createAlien(150, 60);
+		Impact impact = world.sweep(alien, 80, 0);
+		assertNotNull(impact);
+		assertEquals(0.5, impact.getTime(), Util.DEFAULT_EPSILON);
+		assertTrue(impact.isHorizontal());
+	}
+	
+	@Test
+	public void testDiagonalHitsFirstSide() {
+		// Reaches the left side of the wall after a quarter, while still above the ground.
+		Mazub alien = createAlien(160, 80);
+		Impact impact = world.sweep(alien, 120, -40);
+		assertNotNull(impact);
+		assertEquals(0.25, impact.getTime(), Util.DEFAULT_EPSILON);
+		assertTrue(impact.isHorizontal());
+	}
+	
+	@Test
+	public void testRestingOnGround() {
+		Mazub alien = createAlien(20, 50);
+		assertNull(world.sweep(alien, 100, 0));
+		assertNull(world.sweep(alien, 0, 100));
+		Impact impact = world.sweep(alien, 0, -10);
+		assertNotNull(impact);
+		assertEquals(0, impact.getTime(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testStandingInTopRowOfGround() {
+		Mazub alien = createAlien(20, 49);
+		assertNull(world.sweep(alien, 100, 0));
+		Impact impact = world.sweep(alien, 0, -10);
+		assertNotNull(impact);
+		assertEquals(0, impact.getTime(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testSunkByRoundingErrorDoesNotFallThrough() {
+		Mazub alien = createAlien(20, 49.9999999);
+		Impact impact = world.sweep(alien, 0, -30);
+		assertNotNull(impact);
+		assertEquals(0, impact.getTime(), Util.DEFAULT_EPSILON);
+	}
+	
+	@Test
+	public void testBlockingObject() {
+		Mazub alien = createAlien(20, 60);
+		Shark shark = new Shark();
+		world.updateBounds(shark, 60, 60, 20, 20);
+		Impact impact = world.sweep(alien, 40, 0);
+		assertNotNull(impact);
+		assertEquals(0.75, impact.getTime(), Util.DEFAULT_EPSILON);
+		assertTrue(impact.isHorizontal());
+		assertSame(shark, impact.getObject());
+		
+		world.removeBounds(shark);
+		assertNull(world.sweep(alien, 40, 0));
+	}
+
+}
@@ -0,0 +1,83 @@
+package ogp.framework.util;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ImageBlobCacheTest {
+
+	private static final String FILENAME = "levels/player/p1_front.png";
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("blobcachetest");
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : directory.toFile().listFiles()) {
+			file.delete();
+		}
+		directory.toFile().delete();
+	}
+
+	private static int countBlobs(Path directory) {
+		return directory.toFile().list((dir, name) -> name.endsWith(".argb")).length;
+	}
+
+	@Test
+	public void testDisabledByDefault() {
+		assertNull(System.getProperty(ImageBlobCache.DIRECTORY_PROPERTY));
+		assertFalse(ImageBlobCache.getDefault().isEnabled());
+	}
+
+	@Test
+	public void testColdAndWarmLoadsAreEqual() {
+		ImageBlobCache cache = new ImageBlobCache(directory, 1 << 20);
+		BufferedImage cold = cache.load(FILENAME, "scale10", image -> GUIUtils.scaleTo(image, 10, -1));
+		assertEquals(1, countBlobs(directory));
+		BufferedImage warm = cache.load(FILENAME, "scale10", image -> {
+			fail("the cached blob should be used");
+			return image;
+		});
+		assertEquals(BufferedImage.TYPE_INT_ARGB, cold.getType());
+		assertEquals(BufferedImage.TYPE_INT_ARGB, warm.getType());
+		assertEquals(cold.getWidth(), warm.getWidth());
+		assertEquals(cold.getHeight(), warm.getHeight());
+		assertArrayEquals(ImageOps.getARGB(cold), ImageOps.getARGB(warm));
+	}
+
+	@Test
+	public void testDisabledLoadsAreARGB() {
+		ImageBlobCache cache = new ImageBlobCache(null, 0);
+		BufferedImage image = cache.load(FILENAME, "identity", source -> source);
+		assertEquals(BufferedImage.TYPE_INT_ARGB, image.getType());
+		assertArrayEquals(ImageOps.getARGB(GUIUtils.loadImage(FILENAME)), ImageOps.getARGB(image));
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() throws IOException {
+		ImageBlobCache unlimited = new ImageBlobCache(directory, Long.MAX_VALUE);
+		unlimited.load(FILENAME, "scale10", image -> GUIUtils.scaleTo(image, 10, -1));
+		Path first = directory.toFile().listFiles()[0].toPath();
+		long size = Files.size(first);
+		// the second blob has the same size, and is used more recently
+		first.toFile().setLastModified(System.currentTimeMillis() - 60000);
+
+		ImageBlobCache limited = new ImageBlobCache(directory, size + 1);
+		limited.load(FILENAME, "scale10-again", image -> GUIUtils.scaleTo(image, 10, -1));
+		assertEquals(1, countBlobs(directory));
+		assertFalse(Files.exists(first));
+	}
+
+}